@@ -0,0 +1,466 @@
+/**
+ * A cache holding at most a fixed number of entries, built on HashMap.
+ *
+ * The HashMap maps each key to a node, and the nodes are linked into
+ * intrusive doubly linked queues, so finding, moving and evicting an entry
+ * are all O(1). The HashMap uses Robin Hood probing: its backward-shift
+ * deletion leaves no removed entries behind, so the constant churn of
+ * evictions cannot fill the table with tombstones.
+ *
+ * Two eviction policies are available. LRU evicts the least recently used
+ * entry. WINDOW_TINY_LFU admits new entries into a small LRU window. An
+ * entry leaving the window only stays in the main space if a frequency
+ * sketch has seen its key more often than the key it would evict. This
+ * keeps one-off keys from flushing out popular ones.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class BoundedCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final HashMap<K, Node<K, V>> map;
+    private final Policy policy;
+    private final int maximum;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final Node<K, V> window = new Node<>(null, null);
+    private final Node<K, V> probation = new Node<>(null, null);
+    private final Node<K, V> protectedQueue = new Node<>(null, null);
+    private final FrequencySketch sketch;
+    private final EvictionListener<K, V> listener;
+    private int windowSize;
+    private int protectedSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Which entry the cache gives up once it is full.
+     */
+    public enum Policy {
+        /**
+         * Evict the least recently used entry.
+         */
+        LRU,
+        /**
+         * Window TinyLFU: about 1% of the cache is an LRU window for new
+         * entries, and the rest is a segmented LRU whose protected part
+         * holds 80% of it. A key leaving the window is only admitted if it
+         * has been seen more often than the main space's eviction victim.
+         */
+        WINDOW_TINY_LFU
+    }
+
+    /**
+     * Told about every entry the cache evicts to stay within its maximum.
+     * Explicit removals are not reported.
+     */
+    public interface EvictionListener<K, V> {
+        /**
+         * Called after an entry was evicted.
+         *
+         * @param key the evicted key
+         * @param value the evicted value
+         */
+        void evicted(K key, V value);
+    }
+
+    /**
+     * An entry and its place in one of the queues. Each queue is circular
+     * with a sentinel node, so linking never has to check for null.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private int queue;
+        private Node<K, V> prev = this;
+        private Node<K, V> next = this;
+
+        /**
+         * Creates an unlinked node.
+         *
+         * @param key the key
+         * @param value the value
+         */
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Create a cache with no eviction listener.
+     *
+     * @param maximum the most entries the cache holds
+     * @param policy the eviction policy
+     * @throws IllegalArgumentException if maximum is non-positive or policy
+     * is null
+     */
+    public BoundedCache(int maximum, Policy policy) {
+        this(maximum, policy, null);
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param maximum the most entries the cache holds
+     * @param policy the eviction policy
+     * @param listener the eviction listener, or null for none
+     * @throws IllegalArgumentException if maximum is non-positive or policy
+     * is null
+     */
+    public BoundedCache(int maximum, Policy policy,
+                        EvictionListener<K, V> listener) {
+        if (maximum <= 0 || policy == null) {
+            throw new IllegalArgumentException("Maximum must be positive and "
+                    + "policy cannot be null");
+        }
+        this.maximum = maximum;
+        this.policy = policy;
+        this.listener = listener;
+        map = new HashMap<>((int) (maximum / HashMap.MAX_LOAD_FACTOR) + 2,
+                HashMap.Sizing.POWER_OF_TWO, HashMap.Probing.ROBIN_HOOD);
+        if (policy == Policy.LRU) {
+            windowMaximum = maximum;
+            protectedMaximum = 0;
+            sketch = null;
+        } else {
+            windowMaximum = Math.max(1, maximum / 100);
+            protectedMaximum = (maximum - windowMaximum) * 4 / 5;
+            sketch = new FrequencySketch(maximum);
+        }
+    }
+
+    /**
+     * Gets the value cached for the given key and marks it as used.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return the cached value, or null if the key is not cached
+     */
+    public V get(K key) {
+        Node<K, V> node = map.getOrDefault(key, null);
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        onAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Caches the given value for the key, evicting an entry if the cache is
+     * over its maximum afterwards. The evicted entry can be the new one.
+     *
+     * @param key the key to cache
+     * @param value the value to cache
+     * @throws IllegalArgumentException if key or value is null
+     * @return the value previously cached for the key, or null
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("key and value cannot be null");
+        }
+        Node<K, V> node = map.getOrDefault(key, null);
+        if (node != null) {
+            V old = node.value;
+            node.value = value;
+            onAccess(node);
+            return old;
+        }
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        node = new Node<>(key, value);
+        map.put(key, node);
+        node.queue = WINDOW;
+        linkLast(window, node);
+        windowSize++;
+        evict();
+        return null;
+    }
+
+    /**
+     * Removes the given key from the cache. The eviction listener is not
+     * told.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @return the value that was cached for the key, or null
+     */
+    public V remove(K key) {
+        Node<K, V> node = map.getOrDefault(key, null);
+        if (node == null) {
+            return null;
+        }
+        map.remove(key);
+        unlinkCounted(node);
+        return node.value;
+    }
+
+    /**
+     * Moves an entry that was just used to the back of its queue. A hit in
+     * probation promotes the entry to the protected queue, demoting the
+     * oldest protected entry back to probation if that queue is now over
+     * its maximum.
+     *
+     * @param node the entry that was used
+     */
+    private void onAccess(Node<K, V> node) {
+        if (node.queue == PROBATION) {
+            unlink(node);
+            node.queue = PROTECTED;
+            linkLast(protectedQueue, node);
+            protectedSize++;
+            if (protectedSize > protectedMaximum) {
+                Node<K, V> demoted = protectedQueue.next;
+                unlink(demoted);
+                protectedSize--;
+                demoted.queue = PROBATION;
+                linkLast(probation, demoted);
+            }
+        } else {
+            unlink(node);
+            linkLast(node.queue == WINDOW ? window : protectedQueue, node);
+        }
+    }
+
+    /**
+     * Evicts entries until the cache is within its maximum. In LRU mode the
+     * window is the whole cache. Otherwise each entry pushed out of the
+     * window competes with the oldest probation entry, and the one the
+     * sketch has seen less often is evicted, the newcomer losing ties.
+     */
+    private void evict() {
+        while (windowSize > windowMaximum) {
+            Node<K, V> candidate = window.next;
+            unlink(candidate);
+            windowSize--;
+            if (policy == Policy.LRU) {
+                evictNode(candidate);
+                continue;
+            }
+            candidate.queue = PROBATION;
+            linkLast(probation, candidate);
+            if (map.size() > maximum) {
+                Node<K, V> victim = probation.next;
+                if (victim != candidate && sketch.frequency(candidate.key)
+                        > sketch.frequency(victim.key)) {
+                    unlink(victim);
+                    evictNode(victim);
+                } else {
+                    unlink(candidate);
+                    evictNode(candidate);
+                }
+            }
+        }
+        while (map.size() > maximum) {
+            Node<K, V> victim = probation.next != probation ? probation.next
+                    : protectedQueue.next;
+            unlinkCounted(victim);
+            evictNode(victim);
+        }
+    }
+
+    /**
+     * Drops an entry that is already unlinked and tells the listener.
+     *
+     * @param node the entry to evict
+     */
+    private void evictNode(Node<K, V> node) {
+        map.remove(node.key);
+        evictions++;
+        if (listener != null) {
+            listener.evicted(node.key, node.value);
+        }
+    }
+
+    /**
+     * Unlinks an entry and updates the size of the queue it was in.
+     *
+     * @param node the entry to unlink
+     */
+    private void unlinkCounted(Node<K, V> node) {
+        unlink(node);
+        if (node.queue == WINDOW) {
+            windowSize--;
+        } else if (node.queue == PROTECTED) {
+            protectedSize--;
+        }
+    }
+
+    /**
+     * Adds a node at the most recently used end of a queue.
+     *
+     * @param head the sentinel of the queue
+     * @param node the node to add
+     */
+    private void linkLast(Node<K, V> head, Node<K, V> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    /**
+     * Takes a node out of whichever queue it is in.
+     *
+     * @param node the node to remove
+     */
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = node;
+        node.next = node;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return number of entries in the cache
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Returns the most entries the cache holds.
+     *
+     * @return the maximum size
+     */
+    public int maximum() {
+        return maximum;
+    }
+
+    /**
+     * Returns the number of gets that found their key.
+     *
+     * @return the hit count
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of gets that did not find their key.
+     *
+     * @return the miss count
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the maximum.
+     *
+     * @return the eviction count
+     */
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the fraction of gets that found their key.
+     *
+     * @return hits divided by gets, or 0 if there were no gets
+     */
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * A count-min sketch of how often keys were seen, with four 4-bit
+     * counters per key packed sixteen to a long. Once the number of
+     * increments reaches ten times the cache maximum every counter is
+     * halved, so the counts follow recent popularity rather than all of
+     * history.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0xb1a4e0b5,
+            0x5bd1e995, 0x9e3779b9};
+        private static final long HALF_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int counterMask;
+        private final int sampleSize;
+        private int additions;
+
+        /**
+         * Creates a sketch sized for a cache of the given maximum.
+         *
+         * @param maximum the cache maximum
+         */
+        private FrequencySketch(int maximum) {
+            int length = Integer.highestOneBit(Math.max(maximum, 4) - 1) << 1;
+            table = new long[length];
+            counterMask = length * 16 - 1;
+            sampleSize = 10 * maximum;
+        }
+
+        /**
+         * Returns the estimated number of times the key was seen, at most
+         * 15.
+         *
+         * @param key the key
+         * @return the estimate
+         */
+        private int frequency(Object key) {
+            int hash = key.hashCode();
+            int frequency = 15;
+            for (int seed : SEEDS) {
+                int counter = counterIndex(hash, seed);
+                frequency = Math.min(frequency, (int) (table[counter >>> 4]
+                        >>> ((counter & 15) << 2)) & 15);
+            }
+            return frequency;
+        }
+
+        /**
+         * Counts one sighting of the key.
+         *
+         * @param key the key
+         */
+        private void increment(Object key) {
+            int hash = key.hashCode();
+            boolean added = false;
+            for (int seed : SEEDS) {
+                int counter = counterIndex(hash, seed);
+                int shift = (counter & 15) << 2;
+                if (((table[counter >>> 4] >>> shift) & 15) != 15) {
+                    table[counter >>> 4] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & HALF_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        /**
+         * Picks one of the key's counters.
+         *
+         * @param hash the key's hashCode
+         * @param seed the seed of the row
+         * @return the index of the counter
+         */
+        private int counterIndex(int hash, int seed) {
+            int h = hash * seed;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            return h & counterMask;
+        }
+    }
+}
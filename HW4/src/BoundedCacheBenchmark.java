@@ -0,0 +1,90 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the hit ratio and throughput of BoundedCache's LRU and Window
+ * TinyLFU policies on Zipfian key streams. Each request is a get, followed
+ * by a put on a miss, as in front of an expensive computation.
+ *
+ * Run with {@code java BoundedCacheBenchmark [keys] [cache size]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class BoundedCacheBenchmark {
+
+    private static final int REQUESTS = 4_000_000;
+    private static final double[] SKEWS = {0.7, 0.9, 1.1};
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of distinct keys (default 1,000,000) and
+     *             cache size (default 10,000)
+     */
+    public static void main(String[] args) {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maximum = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        for (double skew : SKEWS) {
+            Integer[] stream = zipf(keys, skew, REQUESTS, new Random(42));
+            for (BoundedCache.Policy policy : BoundedCache.Policy.values()) {
+                double best = 0;
+                double hitRatio = 0;
+                for (int round = 0; round < WARMUP + ROUNDS; round++) {
+                    BoundedCache<Integer, Integer> cache =
+                            new BoundedCache<>(maximum, policy);
+                    long start = System.nanoTime();
+                    long sum = 0;
+                    for (Integer key : stream) {
+                        Integer value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key);
+                        } else {
+                            sum += value;
+                        }
+                    }
+                    long elapsed = System.nanoTime() - start;
+                    sink += sum;
+                    hitRatio = cache.hitRatio();
+                    if (round >= WARMUP) {
+                        best = Math.max(best, stream.length * 1000.0 / elapsed);
+                    }
+                }
+                System.out.printf("zipf %.1f  %-15s hit ratio %5.1f%%  "
+                        + "%6.1f requests/us%n", skew, policy, hitRatio * 100,
+                        best);
+            }
+        }
+    }
+
+    /**
+     * Draws a stream of keys in [0, keys) where key k has probability
+     * proportional to 1 / (k + 1)^skew. Keys are scrambled so popularity
+     * does not follow hashCode order.
+     *
+     * @param keys number of distinct keys
+     * @param skew the Zipf exponent
+     * @param length length of the stream
+     * @param random source of randomness
+     * @return the stream
+     */
+    private static Integer[] zipf(int keys, double skew, int length,
+                                  Random random) {
+        double[] cumulative = new double[keys];
+        double total = 0;
+        for (int k = 0; k < keys; k++) {
+            total += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = total;
+        }
+        Integer[] stream = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            int k = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            k = k < 0 ? -k - 1 : k;
+            stream[i] = k * 0x9e3779b1;
+        }
+        return stream;
+    }
+}
@@ -0,0 +1,119 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for BoundedCache.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class BoundedCacheTests {
+
+    private static final int TIMEOUT = 200;
+    private static final double DELTA = 1e-9;
+
+    @Test(timeout = TIMEOUT)
+    public void testLruEvictsLeastRecentlyUsed() {
+        List<String> evicted = new ArrayList<>();
+        BoundedCache<Integer, String> cache = new BoundedCache<>(3,
+                BoundedCache.Policy.LRU,
+                (key, value) -> evicted.add(key + value));
+        cache.put(1, "A");
+        cache.put(2, "B");
+        cache.put(3, "C");
+        assertEquals("A", cache.get(1));
+        cache.put(4, "D");
+        assertEquals(1, evicted.size());
+        assertEquals("2B", evicted.get(0));
+        assertNull(cache.get(2));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testHitMissCounters() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(2,
+                BoundedCache.Policy.LRU);
+        cache.put(1, "A");
+        cache.get(1);
+        cache.get(1);
+        cache.get(2);
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(2.0 / 3, cache.hitRatio(), DELTA);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutReplacesAndRemove() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(2,
+                BoundedCache.Policy.WINDOW_TINY_LFU);
+        assertNull(cache.put(1, "A"));
+        assertEquals("A", cache.put(1, "B"));
+        assertEquals("B", cache.remove(1));
+        assertNull(cache.remove(1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTinyLfuKeepsFrequentKeys() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100,
+                BoundedCache.Policy.WINDOW_TINY_LFU);
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < 50; key++) {
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                }
+            }
+        }
+        for (int key = 1000; key < 2000; key++) {
+            cache.put(key, key);
+        }
+        int kept = 0;
+        for (int key = 0; key < 50; key++) {
+            if (cache.get(key) != null) {
+                kept++;
+            }
+        }
+        assertTrue("kept " + kept, kept >= 45);
+        assertEquals(100, cache.size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testScanFlushesLru() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100,
+                BoundedCache.Policy.LRU);
+        for (int key = 0; key < 50; key++) {
+            cache.put(key, key);
+        }
+        for (int key = 1000; key < 2000; key++) {
+            cache.put(key, key);
+        }
+        for (int key = 0; key < 50; key++) {
+            assertNull(cache.get(key));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMaximumOfOne() {
+        for (BoundedCache.Policy policy : BoundedCache.Policy.values()) {
+            BoundedCache<Integer, Integer> cache =
+                    new BoundedCache<>(1, policy);
+            for (int key = 0; key < 10; key++) {
+                cache.put(key, key);
+                cache.get(key);
+                assertEquals(1, cache.size());
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNonPositiveMaximum() {
+        new BoundedCache<Integer, Integer>(0, BoundedCache.Policy.LRU);
+    }
+}
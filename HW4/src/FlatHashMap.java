@@ -0,0 +1,349 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A version of HashMap that keeps its table as a structure of arrays
+ * instead of an array of MapEntry references.
+ *
+ * Keys, values and slot states live in parallel arrays, so a probe reads
+ * the state byte and the key reference straight out of the table without
+ * first loading a MapEntry from somewhere else on the heap. Optionally the
+ * hashCode of every key is cached in a parallel int[] as well. A probe then
+ * compares the cached hash first and only calls equals() on a match, which
+ * skips loading the key object for almost every colliding slot, and a
+ * resize never calls hashCode() again.
+ *
+ * Probing, removal and regrowth follow HashMap exactly: linear probing,
+ * removed slots are kept as tombstones and reused by put, and the table
+ * grows to 2 * length + 1 once the load factor goes over
+ * {@code MAX_LOAD_FACTOR}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class FlatHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = HashMap.INITIAL_CAPACITY;
+    public static final double MAX_LOAD_FACTOR = HashMap.MAX_LOAD_FACTOR;
+
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte REMOVED = 2;
+
+    private Object[] keys;
+    private Object[] values;
+    private byte[] states;
+    private int[] hashes;
+    private final boolean cacheHashes;
+    private int size;
+
+    /**
+     * Create a map with no entries that caches hashes. The backing arrays
+     * have an initial capacity of {@code INITIAL_CAPACITY}.
+     */
+    public FlatHashMap() {
+        this(INITIAL_CAPACITY, true);
+    }
+
+    /**
+     * Create a map with no entries. The backing arrays have an initial
+     * capacity of {@code initialCapacity}.
+     *
+     * @param initialCapacity initial capacity of the backing arrays
+     * @param cacheHashes whether to keep every key's hashCode in an int[]
+     * and compare it before calling equals()
+     * @throws IllegalArgumentException if initialCapacity is non-positive
+     */
+    public FlatHashMap(int initialCapacity, boolean cacheHashes) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.cacheHashes = cacheHashes;
+        allocate(initialCapacity);
+        size = 0;
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If the key is already in the
+     * map its value is replaced.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map, otherwise the old
+     * value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("key and value cannot be null");
+        }
+        if ((double) size / (double) keys.length > MAX_LOAD_FACTOR) {
+            resizeBackingTable(keys.length * 2 + 1);
+        }
+        int hash = key.hashCode();
+        int index = Math.abs(hash % keys.length);
+        int removedIndex = -1;
+        int count = 0;
+        while (states[index] != EMPTY && count < keys.length) {
+            if (states[index] == REMOVED) {
+                if (removedIndex == -1) {
+                    removedIndex = index;
+                }
+            } else if (matches(index, key, hash)) {
+                V old = valueAt(index);
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) % keys.length;
+            count++;
+        }
+        int putIndex = removedIndex != -1 ? removedIndex : index;
+        keys[putIndex] = key;
+        values[putIndex] = value;
+        states[putIndex] = OCCUPIED;
+        if (cacheHashes) {
+            hashes[putIndex] = hash;
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        int index = find(key);
+        if (index == -1) {
+            throw new NoSuchElementException("key does not exist");
+        }
+        V old = valueAt(index);
+        keys[index] = null;
+        values[index] = null;
+        states[index] = REMOVED;
+        size--;
+        return old;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        int index = find(key);
+        if (index == -1) {
+            throw new NoSuchElementException("key is not in the map");
+        }
+        return valueAt(index);
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Finds the slot holding the given key, skipping over removed slots.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return the index of the key, or -1 if it is not in the map
+     */
+    private int find(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        int hash = key.hashCode();
+        int index = Math.abs(hash % keys.length);
+        int count = 0;
+        while (states[index] != EMPTY && count < keys.length) {
+            if (states[index] == OCCUPIED && matches(index, key, hash)) {
+                return index;
+            }
+            index = (index + 1) % keys.length;
+            count++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the occupied slot at index holds the given key. With
+     * cached hashes, equals() is only called when the hashes agree.
+     *
+     * @param index an occupied slot
+     * @param key the key to compare with
+     * @param hash key.hashCode()
+     * @return whether the slot holds the key
+     */
+    private boolean matches(int index, K key, int hash) {
+        if (cacheHashes && hashes[index] != hash) {
+            return false;
+        }
+        return keys[index].equals(key);
+    }
+
+    /**
+     * Returns the key in a slot. Only put stores keys, and every one it
+     * stores is a K.
+     *
+     * @param index an occupied slot
+     * @return the key in the slot
+     */
+    @SuppressWarnings("unchecked")
+    private K keyAt(int index) {
+        return (K) keys[index];
+    }
+
+    /**
+     * Returns the value in a slot. Only put stores values, and every one it
+     * stores is a V.
+     *
+     * @param index an occupied slot
+     * @return the value in the slot
+     */
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Performs the given action for each entry in the map, in order of
+     * increasing index.
+     *
+     * @param action the action to perform on each key and value
+     * @throws IllegalArgumentException if action is null
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == OCCUPIED) {
+                action.accept(keyAt(i), valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * Returns a Set of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        Set<K> keySet = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == OCCUPIED) {
+                keySet.add(keyAt(i));
+            }
+        }
+        return keySet;
+    }
+
+    /**
+     * Returns a List of the values contained in this map, in order of
+     * increasing index.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        List<V> valueList = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == OCCUPIED) {
+                valueList.add(valueAt(i));
+            }
+        }
+        return valueList;
+    }
+
+    /**
+     * Resize the backing arrays to {@code length}, dropping every removed
+     * slot on the way. With cached hashes no hashCode() is called.
+     *
+     * @param length new length of the backing arrays
+     * @throws IllegalArgumentException if length is non-positive or less than
+     * the number of items in the map.
+     */
+    public void resizeBackingTable(int length) {
+        if (length <= 0 || length < size) {
+            throw new IllegalArgumentException("Length given is not proper");
+        }
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldStates = states;
+        int[] oldHashes = hashes;
+        allocate(length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == OCCUPIED) {
+                int hash = cacheHashes ? oldHashes[i] : oldKeys[i].hashCode();
+                int index = Math.abs(hash % length);
+                while (states[index] != EMPTY) {
+                    index = (index + 1) % length;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                states[index] = OCCUPIED;
+                if (cacheHashes) {
+                    hashes[index] = hash;
+                }
+            }
+        }
+    }
+
+    /**
+     * Allocates empty backing arrays of the given length.
+     *
+     * @param length length of the new arrays
+     */
+    private void allocate(int length) {
+        keys = new Object[length];
+        values = new Object[length];
+        states = new byte[length];
+        if (cacheHashes) {
+            hashes = new int[length];
+        }
+    }
+
+    /**
+     * Clears the map and resets it to the default length.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the backing arrays.
+     *
+     * @return capacity of the map
+     */
+    public int capacity() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.Random;
+
+/**
+ * Compares get throughput of HashMap, whose table holds MapEntry
+ * references, against FlatHashMap with and without cached hashes. The
+ * default sizes of 10K, 1M and 50M entries put the table roughly in L1/L2,
+ * in the last level cache and in main memory respectively. 50M entries
+ * needs a heap of about 8 GB.
+ *
+ * Run with {@code java -Xmx8g FlatHashMapBenchmark [entries...]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class FlatHashMapBenchmark {
+
+    private static final int LOOKUPS = 1 << 22;
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    private static volatile long sink;
+
+    /**
+     * A map under test, reduced to the one operation being timed.
+     */
+    private interface Lookup {
+        /**
+         * Looks up a key that is in the map.
+         *
+         * @param key the key
+         * @return its value
+         */
+        int get(Integer key);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional entry counts, default 10,000 1,000,000 50,000,000
+     */
+    public static void main(String[] args) {
+        int[] sizes = {10_000, 1_000_000, 50_000_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int n : sizes) {
+            Random random = new Random(42);
+            Integer[] keys = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextInt();
+            }
+            Integer[] lookups = new Integer[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) {
+                lookups[i] = keys[random.nextInt(n)];
+            }
+            int capacity = (int) (n / HashMap.MAX_LOAD_FACTOR) + 1;
+
+            HashMap<Integer, Integer> entries = new HashMap<>(capacity);
+            for (Integer key : keys) {
+                entries.put(key, key);
+            }
+            run(n, "MapEntry[]", lookups, entries::get);
+            entries = null;
+
+            FlatHashMap<Integer, Integer> flat =
+                    new FlatHashMap<>(capacity, false);
+            for (Integer key : keys) {
+                flat.put(key, key);
+            }
+            run(n, "flat", lookups, flat::get);
+            flat = null;
+
+            FlatHashMap<Integer, Integer> cached =
+                    new FlatHashMap<>(capacity, true);
+            for (Integer key : keys) {
+                cached.put(key, key);
+            }
+            run(n, "flat + hashes", lookups, cached::get);
+        }
+    }
+
+    /**
+     * Times looking up every key in lookups and reports the best round.
+     *
+     * @param n number of entries in the map
+     * @param label name of the layout
+     * @param lookups keys to look up, all in the map
+     * @param map the map under test
+     */
+    private static void run(int n, String label, Integer[] lookups,
+                            Lookup map) {
+        double best = 0;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            long sum = 0;
+            for (Integer key : lookups) {
+                sum += map.get(key);
+            }
+            long elapsed = System.nanoTime() - start;
+            sink += sum;
+            if (round >= WARMUP) {
+                best = Math.max(best, lookups.length * 1000.0 / elapsed);
+            }
+        }
+        System.out.printf("%,11d entries  %-14s get %6.1f ops/us%n", n, label,
+                best);
+    }
+}
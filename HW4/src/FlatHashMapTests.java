@@ -0,0 +1,104 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for FlatHashMap, with and without cached hashes.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class FlatHashMapTests {
+
+    private FlatHashMap<Integer, String> map;
+    private FlatHashMap<Integer, String> uncached;
+    private static final int TIMEOUT = 200;
+
+    @Before
+    public void setUp() {
+        map = new FlatHashMap<>();
+        uncached = new FlatHashMap<>(FlatHashMap.INITIAL_CAPACITY, false);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutGetRemove() {
+        for (FlatHashMap<Integer, String> m : Arrays.asList(map, uncached)) {
+            assertNull(m.put(0, "A"));
+            assertNull(m.put(13, "B"));
+            assertEquals("A", m.put(0, "C"));
+            assertEquals("B", m.get(13));
+            assertEquals("C", m.remove(0));
+            assertFalse(m.containsKey(0));
+            assertTrue(m.containsKey(13));
+            assertEquals(1, m.size());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTombstoneReuse() {
+        map.put(0, "A");
+        map.put(13, "B");
+        map.remove(0);
+        map.put(26, "C");
+        assertEquals("C", map.get(26));
+        assertEquals("B", map.get(13));
+        assertEquals(new ArrayList<>(Arrays.asList("C", "B")), map.values());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEqualHashesDifferentKeys() {
+        FlatHashMap<String, Integer> strings = new FlatHashMap<>();
+        // "Aa" and "BB" have the same hashCode
+        strings.put("Aa", 1);
+        strings.put("BB", 2);
+        assertEquals((Integer) 1, strings.get("Aa"));
+        assertEquals((Integer) 2, strings.get("BB"));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGrowsLikeHashMap() {
+        HashMap<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 7, "v" + i);
+            uncached.put(i * 7, "v" + i);
+            expected.put(i * 7, "v" + i);
+        }
+        assertEquals(expected.getTable().length, map.capacity());
+        assertEquals(expected.values(), map.values());
+        assertEquals(expected.values(), uncached.values());
+        assertEquals(new HashSet<>(expected.keySet()), map.keySet());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testForEachAndClear() {
+        map.put(1, "A");
+        map.put(2, "B");
+        List<String> seen = new ArrayList<>();
+        map.forEach((key, value) -> seen.add(key + value));
+        assertEquals(Arrays.asList("1A", "2B"), seen);
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(FlatHashMap.INITIAL_CAPACITY, map.capacity());
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testGetMissing() {
+        map.put(0, "A");
+        map.get(13);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullKey() {
+        map.put(null, "A");
+    }
+}
@@ -1,8 +1,13 @@
-import java.util.HashSet;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 
 /**
  * Your implementation of HashMap.
@@ -12,11 +17,109 @@ import java.util.NoSuchElementException;
  */
 public class HashMap<K, V> {
 
-    // DO NOT MODIFY OR ADD NEW GLOBAL/INSTANCE VARIABLES
     public static final int INITIAL_CAPACITY = 13;
     public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final int MIGRATION_STEP = 8;
+    private static final MapEntry<Object, Object> MOVED =
+            new MapEntry<>(null, null);
+    static {
+        MOVED.setRemoved(true);
+    }
     private MapEntry<K, V>[] table;
     private int size;
+    private final Sizing sizing;
+    private final Probing probing;
+    private int[] distances;
+    private final Resizing resizing;
+    private MapEntry<K, V>[] oldTable;
+    private int[] oldDistances;
+    private int migrateIndex;
+    private int modCount;
+    private Set<K> keySetView;
+    private Collection<V> valueView;
+    private boolean metricsEnabled;
+    private long[] operations;
+    private long[] probes;
+    private int maxProbe;
+    private long resizes;
+    private long resizeNanos;
+    private long maxResizeNanos;
+    private ResizeListener resizeListener;
+
+    /**
+     * How the backing table is sized and how a key's hash is turned into an
+     * index.
+     */
+    public enum Sizing {
+        /**
+         * Any table length. The index is {@code |hashCode % length|} and the
+         * table regrows to 2 * old length + 1.
+         */
+        MODULO,
+        /**
+         * Power of two table lengths. The hashCode is run through a bit
+         * mixer first so keys that only differ in their high bits (or
+         * sequential keys) still spread over the table, and the index is
+         * taken with a mask instead of a division. The table regrows to
+         * 2 * old length.
+         */
+        POWER_OF_TWO
+    }
+
+    /**
+     * How collisions are resolved.
+     */
+    public enum Probing {
+        /**
+         * Plain linear probing. Removed entries stay in the table as
+         * tombstones until the next resize.
+         */
+        LINEAR,
+        /**
+         * Robin Hood linear probing. Every slot records how far its entry is
+         * from its home index, and an insert takes the slot of any entry
+         * that is closer to home than the new one. Lookups stop as soon as
+         * they pass an entry closer to home than the key could be, and
+         * remove shifts the following entries back one slot instead of
+         * leaving a tombstone.
+         */
+        ROBIN_HOOD
+    }
+
+    /**
+     * How the table grows once the load factor is exceeded.
+     */
+    public enum Resizing {
+        /**
+         * The put that crosses the load factor rehashes every entry into
+         * the new table before returning.
+         */
+        EAGER,
+        /**
+         * The put that crosses the load factor only allocates the new table.
+         * The old table stays live, and every later put, remove, get and
+         * containsKey moves the entries of the next {@code MIGRATION_STEP}
+         * old slots across, so no single call pays for the whole rehash.
+         * Lookups check both tables until the move is done.
+         */
+        INCREMENTAL
+    }
+
+    /**
+     * Told about every resize while metrics are enabled, for example to turn
+     * them into log lines or profiler events.
+     */
+    public interface ResizeListener {
+        /**
+         * Called after the backing table was replaced.
+         *
+         * @param oldLength length of the table before the resize
+         * @param newLength length of the table after the resize
+         * @param nanos time the resize took; for an incremental resize only
+         * the allocation of the new table
+         */
+        void resized(int oldLength, int newLength, long nanos);
+    }
 
     /**
      * Create a hash map with no entries. The backing array has an initial
@@ -38,7 +141,56 @@ public class HashMap<K, V> {
      * @param initialCapacity initial capacity of the backing array
      */
     public HashMap(int initialCapacity) {
-        table = (MapEntry<K, V>[]) new MapEntry[initialCapacity];
+        this(initialCapacity, Sizing.MODULO);
+    }
+    /**
+     * Create a hash map with no entries using the given sizing mode. With
+     * {@code Sizing.POWER_OF_TWO} the capacity is rounded up to the next
+     * power of two.
+     *
+     * @param initialCapacity initial capacity of the backing array
+     * @param sizing how the backing table is sized and indexed
+     * @throws IllegalArgumentException if initialCapacity is non-positive or
+     * sizing is null
+     */
+    public HashMap(int initialCapacity, Sizing sizing) {
+        this(initialCapacity, sizing, Probing.LINEAR);
+    }
+    /**
+     * Create a hash map with no entries using the given sizing and probing
+     * modes.
+     *
+     * @param initialCapacity initial capacity of the backing array
+     * @param sizing how the backing table is sized and indexed
+     * @param probing how collisions are resolved
+     * @throws IllegalArgumentException if initialCapacity is non-positive or
+     * sizing or probing is null
+     */
+    public HashMap(int initialCapacity, Sizing sizing, Probing probing) {
+        this(initialCapacity, sizing, probing, Resizing.EAGER);
+    }
+    /**
+     * Create a hash map with no entries using the given sizing, probing and
+     * resizing modes.
+     *
+     * @param initialCapacity initial capacity of the backing array
+     * @param sizing how the backing table is sized and indexed
+     * @param probing how collisions are resolved
+     * @param resizing how the table grows
+     * @throws IllegalArgumentException if initialCapacity is non-positive or
+     * any of the modes is null
+     */
+    public HashMap(int initialCapacity, Sizing sizing, Probing probing,
+                   Resizing resizing) {
+        if (initialCapacity <= 0 || sizing == null || probing == null
+                || resizing == null) {
+            throw new IllegalArgumentException("Capacity must be positive and "
+                    + "the modes cannot be null");
+        }
+        this.sizing = sizing;
+        this.probing = probing;
+        this.resizing = resizing;
+        allocateTable(capacityFor(initialCapacity));
         size = 0;
     }
 
@@ -73,36 +225,62 @@ public class HashMap<K, V> {
         if (key == null || value == null) {
             throw new IllegalArgumentException("key and value cannot be null");
         }
+        migrate(MIGRATION_STEP);
         if ((double) (size) / (double) table.length > MAX_LOAD_FACTOR) {
-            resizeBackingTable(table.length * 2 + 1);
+            if (resizing == Resizing.INCREMENTAL) {
+                startMigration();
+            } else {
+                resizeBackingTable(grownLength(table.length));
+            }
+        }
+        if (oldTable != null) {
+            int oldIndex = indexInOld(key);
+            if (oldIndex != -1) {
+                resizePut(oldTable[oldIndex]);
+                oldTable[oldIndex] = (MapEntry<K, V>) (MapEntry<?, ?>) MOVED;
+            }
+        }
+        if (metricsEnabled) {
+            V putReturn = putHashed(key, value, hash(key));
+            recordProbe(HashMapMetrics.Operation.PUT, key);
+            return putReturn;
+        }
+        return putHashed(key, value, hash(key));
+    }
+    /**
+     * The part of put that runs once the load factor is checked and the key
+     * is known not to be in an old table.
+     *
+     * @param key key to add into the HashMap
+     * @param value value to add into the HashMap
+     * @param hash hash(key)
+     * @return null if the key was not already in the map, otherwise the old
+     * value associated with it
+     */
+    private V putHashed(K key, V value, int hash) {
+        if (probing == Probing.ROBIN_HOOD) {
+            return robinHoodPut(key, value, hash);
         }
-        int hashPut = Math.abs(key.hashCode() % table.length);
+        int hashPut = indexFor(hash, table.length);
         int countPut = 0;
-        boolean ifRemove = false;
         int hashRemoved = -1;
         while (table[hashPut] != null && countPut < table.length) {
-            if (table[hashPut].isRemoved() && !ifRemove) {
-                ifRemove = true;
-                hashRemoved = hashPut;
-                hashPut = (hashPut + 1) % table.length;
-                countPut++;
-            } else if (table[hashPut].isRemoved() && ifRemove) {
-                hashPut = (hashPut + 1) % table.length;
-                countPut++;
-            }    else if (table[hashPut].getKey().equals(key)) {
+            if (table[hashPut].isRemoved()) {
+                if (hashRemoved == -1) {
+                    hashRemoved = hashPut;
+                }
+            } else if (table[hashPut].getKey().equals(key)) {
                 V putReturn = table[hashPut].getValue();
                 table[hashPut] = new MapEntry<>(key, value);
-                table[hashPut].setRemoved(false);
                 return putReturn;
-            } else {
-                hashPut = (hashPut + 1) % table.length;
-                countPut++;
             }
+            hashPut = nextIndex(hashPut, table.length);
+            countPut++;
         }
-        int putIndex = ifRemove ? hashRemoved : hashPut;
+        int putIndex = hashRemoved != -1 ? hashRemoved : hashPut;
         table[putIndex] = new MapEntry<>(key, value);
-        table[putIndex].setRemoved(false);
         size++;
+        modCount++;
         return null;
     }
     /**
@@ -117,25 +295,34 @@ public class HashMap<K, V> {
         if (key == null) {
             throw new IllegalArgumentException("key cannot be null");
         }
-        int hashRemove = Math.abs(key.hashCode()) % table.length;
-        int countRemove = 0;
-        while (table[hashRemove] != null && countRemove < table.length) {
-            if (table[hashRemove].isRemoved()) {
-                hashRemove = (hashRemove + 1) % table.length;
-                countRemove++;
-            } else if (table[hashRemove].getKey().equals(key)) {
-                V removeReturn = table[hashRemove].getValue();
-                //table[hashRemove].setKey(null);
-                table[hashRemove].setValue(null);
-                table[hashRemove].setRemoved(true);
+        migrate(MIGRATION_STEP);
+        int hashRemove = indexOf(key);
+        if (metricsEnabled) {
+            recordProbe(HashMapMetrics.Operation.REMOVE, key);
+        }
+        if (hashRemove == -1 && oldTable != null) {
+            int oldIndex = indexInOld(key);
+            if (oldIndex != -1) {
+                V removeReturn = oldTable[oldIndex].getValue();
+                oldTable[oldIndex] = (MapEntry<K, V>) (MapEntry<?, ?>) MOVED;
                 size--;
+                modCount++;
                 return removeReturn;
-            } else {
-                hashRemove = (hashRemove + 1) % table.length;
-                countRemove++;
             }
         }
-        throw new NoSuchElementException("key does not exist");
+        if (hashRemove == -1) {
+            throw new NoSuchElementException("key does not exist");
+        }
+        V removeReturn = table[hashRemove].getValue();
+        if (probing == Probing.ROBIN_HOOD) {
+            shiftBack(hashRemove);
+        } else {
+            table[hashRemove].setValue(null);
+            table[hashRemove].setRemoved(true);
+        }
+        size--;
+        modCount++;
+        return removeReturn;
     }
     /**
      * Gets the value associated with the given key.
@@ -149,20 +336,51 @@ public class HashMap<K, V> {
         if (key == null) {
             throw new IllegalArgumentException("key cannot be null");
         }
-        int hashGet = Math.abs(key.hashCode()) % table.length;
-        int countGet = 0;
-        while (table[hashGet] != null && countGet < table.length) {
-            if (table[hashGet].isRemoved()) {
-                hashGet = (hashGet + 1) % table.length;
-                countGet++;
-            } else if (table[hashGet].getKey().equals(key)) {
-                return table[hashGet].getValue();
-            } else {
-                hashGet = (hashGet + 1) % table.length;
-                countGet++;
+        migrate(MIGRATION_STEP);
+        int hashGet = indexOf(key);
+        if (metricsEnabled) {
+            recordProbe(HashMapMetrics.Operation.GET, key);
+        }
+        if (hashGet == -1 && oldTable != null) {
+            int oldIndex = indexInOld(key);
+            if (oldIndex != -1) {
+                return oldTable[oldIndex].getValue();
+            }
+        }
+        if (hashGet == -1) {
+            throw new NoSuchElementException("key is not in the map");
+        }
+        return table[hashGet].getValue();
+    }
+    /**
+     * Gets the value associated with the given key, or defaultValue if the
+     * key is not in the map. Unlike get, a missing key does not throw, so a
+     * caller that expects misses needs only one lookup.
+     *
+     * @param key the key to search for
+     * @param defaultValue the value to return if the key is not in the map
+     * @throws IllegalArgumentException if key is null
+     * @return the value associated with the key, or defaultValue
+     */
+    public V getOrDefault(K key, V defaultValue) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        migrate(MIGRATION_STEP);
+        int index = indexOf(key);
+        if (metricsEnabled) {
+            recordProbe(HashMapMetrics.Operation.GET, key);
+        }
+        if (index != -1) {
+            return table[index].getValue();
+        }
+        if (oldTable != null) {
+            int oldIndex = indexInOld(key);
+            if (oldIndex != -1) {
+                return oldTable[oldIndex].getValue();
             }
         }
-        throw new NoSuchElementException("key is not in the map");
+        return defaultValue;
     }
     /**
      * Returns whether or not the key is in the map.
@@ -175,43 +393,728 @@ public class HashMap<K, V> {
         if (key == null) {
             throw new IllegalArgumentException("key cannot be null");
         }
-        int hashContains = Math.abs(key.hashCode()) % table.length;
-        int countRemove = 0;
-        while (table[hashContains] != null && countRemove < table.length) {
-            if (table[hashContains].isRemoved()) {
-                hashContains = (hashContains + 1) % table.length;
-                countRemove++;
-            } else if (table[hashContains].getKey().equals(key)) {
-                return true;
-            } else {
-                hashContains = (hashContains + 1) % table.length;
-                countRemove++;
+        migrate(MIGRATION_STEP);
+        int index = indexOf(key);
+        if (metricsEnabled) {
+            recordProbe(HashMapMetrics.Operation.GET, key);
+        }
+        return index != -1 || (oldTable != null && indexInOld(key) != -1);
+    }
+    /**
+     * Adds every key-value pair, as if put were called for each index in
+     * order. The whole batch is checked before anything is added, and the
+     * table is grown once up front to fit all of it instead of regrowing
+     * as it fills. Each key is then placed exactly as put would place it.
+     *
+     * A running incremental resize is finished first.
+     *
+     * @param keys keys to add into the HashMap
+     * @param values values to add, values[i] going with keys[i]
+     * @throws IllegalArgumentException if either array or any element is
+     * null, or the arrays differ in length. Nothing is added in that case.
+     */
+    public void putAll(K[] keys, V[] values) {
+        if (keys == null || values == null || keys.length != values.length) {
+            throw new IllegalArgumentException("Arrays cannot be null and must "
+                    + "have the same length");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null || values[i] == null) {
+                throw new IllegalArgumentException("key and value cannot be "
+                        + "null");
+            }
+        }
+        migrate(Integer.MAX_VALUE);
+        int length = table.length;
+        while ((double) (size + keys.length) / (double) length
+                > MAX_LOAD_FACTOR) {
+            length = grownLength(length);
+        }
+        if (length != table.length) {
+            resizeBackingTable(length);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            putHashed(keys[i], values[i], hash(keys[i]));
+            if (metricsEnabled) {
+                recordProbe(HashMapMetrics.Operation.PUT, keys[i]);
             }
         }
-        return false;
     }
     /**
-     * Returns a Set view of the keys contained in this map.
-     * Use {@code java.util.HashSet}.
+     * Looks up every key, as if get were called for each index in order.
+     * Unlike get, a missing key does not throw; its result is null. This is
+     * a convenience only: it does the same work as a loop of get calls and
+     * is no faster.
      *
-     * @return set of keys in this map
+     * A running incremental resize is finished first.
+     *
+     * @param keys keys to search for
+     * @param results array that receives the value of keys[i] at index i, or
+     * null if keys[i] is not in the map
+     * @throws IllegalArgumentException if either array or any key is null,
+     * or results is shorter than keys
+     * @return the number of keys found
      */
-    public Set<K> keySet() {
-        Set<K> keySet = new HashSet<>();
+    public int getAll(K[] keys, V[] results) {
+        if (keys == null || results == null || results.length < keys.length) {
+            throw new IllegalArgumentException("Arrays cannot be null and "
+                    + "results must fit every key");
+        }
+        migrate(Integer.MAX_VALUE);
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                throw new IllegalArgumentException("key cannot be null");
+            }
+            int index = indexOf(keys[i]);
+            if (metricsEnabled) {
+                recordProbe(HashMapMetrics.Operation.GET, keys[i]);
+            }
+            results[i] = index == -1 ? null : table[index].getValue();
+            if (index != -1) {
+                found++;
+            }
+        }
+        return found;
+    }
+    /**
+     * Returns whether or not every key is in the map, checking them in
+     * order and stopping at the first one that is missing. Like getAll, it
+     * is a convenience and no faster than a loop of containsKey calls.
+     *
+     * A running incremental resize is finished first.
+     *
+     * @param keys keys to search for
+     * @throws IllegalArgumentException if the array or any key is null
+     * @return whether or not every key is in the map
+     */
+    public boolean containsAll(K[] keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+        migrate(Integer.MAX_VALUE);
+        for (K key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("key cannot be null");
+            }
+            int index = indexOf(key);
+            if (metricsEnabled) {
+                recordProbe(HashMapMetrics.Operation.GET, key);
+            }
+            if (index == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Finds the slot holding the given key, skipping over removed entries.
+     *
+     * @param key the key to search for
+     * @return the index of the key's entry, or -1 if it is not in the map
+     */
+    private int indexOf(K key) {
+        return indexOfHashed(key, hash(key));
+    }
+    /**
+     * Finds the slot holding the given key in the table, given its hash.
+     *
+     * @param key the key to search for
+     * @param hash hash(key)
+     * @return the index of the key's entry, or -1 if it is not in the table
+     */
+    private int indexOfHashed(K key, int hash) {
+        int index = indexFor(hash, table.length);
+        if (probing == Probing.ROBIN_HOOD) {
+            int distance = 0;
+            while (table[index] != null && distance <= distances[index]) {
+                if (table[index].getKey().equals(key)) {
+                    return index;
+                }
+                index = nextIndex(index, table.length);
+                distance++;
+            }
+            return -1;
+        }
+        int count = 0;
+        while (table[index] != null && count < table.length) {
+            if (!table[index].isRemoved() && table[index].getKey().equals(key)) {
+                return index;
+            }
+            index = nextIndex(index, table.length);
+            count++;
+        }
+        return -1;
+    }
+    /**
+     * Finds the slot of the old table holding the given key while an
+     * incremental resize is running. The old table is never rearranged:
+     * entries that have been moved or removed are replaced by a removed
+     * marker, and in Robin Hood mode the old probe distances are kept, so
+     * the usual early exit still works.
+     *
+     * @param key the key to search for
+     * @return the index of the key's entry in the old table, or -1
+     */
+    private int indexInOld(K key) {
+        int index = indexFor(hash(key), oldTable.length);
+        int distance = 0;
+        while (oldTable[index] != null && distance < oldTable.length
+                && (probing == Probing.LINEAR
+                || distance <= oldDistances[index])) {
+            if (!oldTable[index].isRemoved()
+                    && oldTable[index].getKey().equals(key)) {
+                return index;
+            }
+            index = nextIndex(index, oldTable.length);
+            distance++;
+        }
+        return -1;
+    }
+    /**
+     * Starts an incremental resize: the current table becomes the old table
+     * and an empty table of the grown length takes its place.
+     */
+    private void startMigration() {
+        migrate(Integer.MAX_VALUE);
+        long start = metricsEnabled ? System.nanoTime() : 0;
+        int length = capacityFor(grownLength(table.length));
+        oldTable = table;
+        oldDistances = distances;
+        migrateIndex = 0;
+        allocateTable(length);
+        if (metricsEnabled) {
+            recordResize(oldTable.length, start);
+        }
+    }
+    /**
+     * Moves the entries of up to {@code slots} more old table slots into the
+     * table, reusing the MapEntry objects. Does nothing if no incremental
+     * resize is running.
+     *
+     * @param slots the most old table slots to move
+     */
+    private void migrate(int slots) {
+        if (oldTable == null) {
+            return;
+        }
+        int end = slots >= oldTable.length - migrateIndex ? oldTable.length
+                : migrateIndex + slots;
+        for (; migrateIndex < end; migrateIndex++) {
+            MapEntry<K, V> entry = oldTable[migrateIndex];
+            if (entry != null && !entry.isRemoved()) {
+                resizePut(entry);
+                oldTable[migrateIndex] =
+                        (MapEntry<K, V>) (MapEntry<?, ?>) MOVED;
+            }
+        }
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+            oldDistances = null;
+        }
+    }
+    /**
+     * Robin Hood version of put, called once the load factor is checked.
+     *
+     * @param key key to add into the HashMap
+     * @param value value to add into the HashMap
+     * @param hash hash(key)
+     * @return null if the key was not already in the map, otherwise the old
+     * value associated with it
+     */
+    private V robinHoodPut(K key, V value, int hash) {
+        int index = indexFor(hash, table.length);
+        int distance = 0;
+        while (table[index] != null && distance <= distances[index]) {
+            if (table[index].getKey().equals(key)) {
+                V putReturn = table[index].getValue();
+                table[index] = new MapEntry<>(key, value);
+                return putReturn;
+            }
+            index = nextIndex(index, table.length);
+            distance++;
+        }
+        robinHoodInsert(new MapEntry<>(key, value), index, distance);
+        size++;
+        modCount++;
+        return null;
+    }
+    /**
+     * Places an entry known not to be in the table, starting at the given
+     * slot. Whenever the slot holds an entry closer to its home than the one
+     * being placed, the two are swapped and the displaced entry carries on.
+     *
+     * @param entry the entry to place
+     * @param index the slot to start at
+     * @param distance how far index is from the entry's home
+     */
+    private void robinHoodInsert(MapEntry<K, V> entry, int index,
+                                 int distance) {
+        while (table[index] != null) {
+            if (distances[index] < distance) {
+                MapEntry<K, V> displaced = table[index];
+                int displacedDistance = distances[index];
+                table[index] = entry;
+                distances[index] = distance;
+                entry = displaced;
+                distance = displacedDistance;
+            }
+            index = nextIndex(index, table.length);
+            distance++;
+        }
+        table[index] = entry;
+        distances[index] = distance;
+    }
+    /**
+     * Removes the entry at index by shifting every following entry of the
+     * same cluster back one slot, until an empty slot or an entry already
+     * at its home index is reached.
+     *
+     * @param index the slot to empty
+     */
+    private void shiftBack(int index) {
+        int start = index;
+        int next = nextIndex(index, table.length);
+        while (next != start && table[next] != null && distances[next] > 0) {
+            table[index] = table[next];
+            distances[index] = distances[next] - 1;
+            index = next;
+            next = nextIndex(next, table.length);
+        }
+        table[index] = null;
+        distances[index] = 0;
+    }
+    /**
+     * Turns the metrics counters on or off. Turning them on resets every
+     * counter. While they are off the only cost is one branch per
+     * operation.
+     *
+     * @param enabled whether to count probes and resizes
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metricsEnabled = enabled;
+        if (enabled) {
+            operations = new long[HashMapMetrics.Operation.values().length];
+            probes = new long[operations.length];
+            maxProbe = 0;
+            resizes = 0;
+            resizeNanos = 0;
+            maxResizeNanos = 0;
+        }
+    }
+    /**
+     * Sets the listener told about each resize while metrics are enabled.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setResizeListener(ResizeListener listener) {
+        resizeListener = listener;
+    }
+    /**
+     * Returns a snapshot of the metrics. The size, capacity and tombstone
+     * count are always filled in; the tombstones are counted by scanning the
+     * table. The counters are zero unless metrics were enabled.
+     *
+     * @return a snapshot of the map's metrics
+     */
+    public HashMapMetrics getMetrics() {
+        int tombstones = 0;
+        for (MapEntry<K, V> entry : table) {
+            if (entry != null && entry.isRemoved()) {
+                tombstones++;
+            }
+        }
+        long[] counts = operations;
+        long[] totals = probes;
+        if (counts == null) {
+            counts = new long[HashMapMetrics.Operation.values().length];
+            totals = counts;
+        }
+        return new HashMapMetrics(size, table.length, tombstones, counts,
+                totals, maxProbe, resizes, resizeNanos, maxResizeNanos);
+    }
+    /**
+     * Counts an operation on a key. The probe loops themselves keep no
+     * count, so they run the same code whether metrics are on or off;
+     * instead the key's probe is walked again here, which doubles the probe
+     * work only while metrics are on. A put is counted once the key is in
+     * place, so a new key that reused a removed slot counts the probe to
+     * that slot.
+     *
+     * @param operation the kind of operation
+     * @param key the key the operation was on
+     */
+    private void recordProbe(HashMapMetrics.Operation operation, K key) {
+        int probe = probeLength(key);
+        operations[operation.ordinal()]++;
+        probes[operation.ordinal()] += probe;
+        if (probe > maxProbe) {
+            maxProbe = probe;
+        }
+    }
+    /**
+     * Counts the slots of the table a lookup of the key examines, the same
+     * walk indexOf takes.
+     *
+     * @param key the key to search for
+     * @return the number of slots examined
+     */
+    private int probeLength(K key) {
+        int index = indexFor(hash(key), table.length);
+        int count = 0;
+        while (table[index] != null && count < table.length
+                && (probing == Probing.LINEAR || count <= distances[index])) {
+            if (!table[index].isRemoved()
+                    && table[index].getKey().equals(key)) {
+                break;
+            }
+            index = nextIndex(index, table.length);
+            count++;
+        }
+        return count + 1;
+    }
+    /**
+     * Counts a resize and tells the listener about it.
+     *
+     * @param oldLength length of the table before the resize
+     * @param start System.nanoTime() when the resize started
+     */
+    private void recordResize(int oldLength, long start) {
+        long nanos = System.nanoTime() - start;
+        resizes++;
+        resizeNanos += nanos;
+        maxResizeNanos = Math.max(maxResizeNanos, nanos);
+        if (resizeListener != null) {
+            resizeListener.resized(oldLength, table.length, nanos);
+        }
+    }
+    /**
+     * Returns a histogram of how far each entry sits from its home index.
+     * Entry i of the result is the number of entries found i slots past
+     * their home, so a lookup of that key probes i + 1 slots. While an
+     * incremental resize is running only the new table is counted.
+     *
+     * @return the probe length histogram
+     */
+    public int[] probeLengthHistogram() {
+        int[] counts = new int[table.length];
+        int longest = 0;
         for (int i = 0; i < table.length; i++) {
             if (table[i] != null && !table[i].isRemoved()) {
-                keySet.add(table[i].getKey());
+                int home = indexFor(hash(table[i].getKey()), table.length);
+                int distance = (i - home + table.length) % table.length;
+                counts[distance]++;
+                longest = Math.max(longest, distance);
             }
         }
-        return keySet;
+        int[] histogram = new int[longest + 1];
+        System.arraycopy(counts, 0, histogram, 0, histogram.length);
+        return histogram;
+    }
+    /**
+     * Allocates an empty backing table of the given length.
+     *
+     * @param length length of the new table
+     */
+    private void allocateTable(int length) {
+        table = (MapEntry<K, V>[]) new MapEntry[length];
+        modCount++;
+        if (probing == Probing.ROBIN_HOOD) {
+            distances = new int[length];
+        }
+    }
+    /**
+     * Computes the hash used to place a key. In power of two mode the
+     * hashCode is mixed (the murmur3 32-bit finalizer) so that every bit of
+     * it affects the low bits picked by the mask.
+     *
+     * @param key the key to hash
+     * @return the hash of the key
+     */
+    private int hash(K key) {
+        int h = key.hashCode();
+        if (sizing == Sizing.POWER_OF_TWO) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+        }
+        return h;
     }
     /**
-     * Returns a List view of the values contained in this map.
+     * Maps a hash to its home index in a table of the given length.
      *
-     * Use {@code java.util.ArrayList} or {@code java.util.LinkedList}.
+     * @param hash the hash of the key
+     * @param length length of the table
+     * @return the home index of the hash
+     */
+    private int indexFor(int hash, int length) {
+        if (sizing == Sizing.POWER_OF_TWO) {
+            return hash & (length - 1);
+        }
+        return Math.abs(hash % length);
+    }
+    /**
+     * Returns the next index in the probe sequence, wrapping around.
+     *
+     * @param index the current index
+     * @param length length of the table
+     * @return the next index to probe
+     */
+    private int nextIndex(int index, int length) {
+        if (sizing == Sizing.POWER_OF_TWO) {
+            return (index + 1) & (length - 1);
+        }
+        return (index + 1) % length;
+    }
+    /**
+     * Returns the length a table of the given length grows to once the load
+     * factor is exceeded.
      *
-     * You should iterate over the table in order of increasing index and add
-     * entries to the List in the order in which they are traversed.
+     * @param length the current length
+     * @return the new table length
+     */
+    private int grownLength(int length) {
+        if (sizing == Sizing.POWER_OF_TWO) {
+            return length * 2;
+        }
+        return length * 2 + 1;
+    }
+    /**
+     * Returns the table length to use for a requested length. Power of two
+     * mode rounds up to the next power of two.
+     *
+     * @param length the requested length
+     * @return the actual table length
+     */
+    private int capacityFor(int length) {
+        if (sizing == Sizing.POWER_OF_TWO && Integer.bitCount(length) != 1) {
+            return Integer.highestOneBit(length) << 1;
+        }
+        return length;
+    }
+    /**
+     * Returns a Set view of the keys contained in this map. The view reads
+     * the backing table directly instead of copying it, so it reflects later
+     * changes to the map. It does not support removal, and its iterators are
+     * fail-fast.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        if (keySetView == null) {
+            keySetView = new AbstractSet<K>() {
+                @Override
+                public Iterator<K> iterator() {
+                    return new TableIterator<K>() {
+                        @Override
+                        public K next() {
+                            nextEntry();
+                            return getKey();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o != null && containsKey((K) o);
+                }
+            };
+        }
+        return keySetView;
+    }
+    /**
+     * Returns a Collection view of the values contained in this map, in
+     * table order. Like keySet(), the view is backed by the table, does not
+     * support removal and has fail-fast iterators.
+     *
+     * @return collection of values in this map
+     */
+    public Collection<V> valueView() {
+        if (valueView == null) {
+            valueView = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new TableIterator<V>() {
+                        @Override
+                        public V next() {
+                            nextEntry();
+                            return getValue();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return valueView;
+    }
+    /**
+     * Performs the given action for each entry in the map, in table order,
+     * without allocating anything per entry.
+     *
+     * @param action the action to perform on each key and value
+     * @throws IllegalArgumentException if action is null
+     * @throws java.util.ConcurrentModificationException if the action adds or
+     * removes a key
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        migrate(Integer.MAX_VALUE);
+        int expectedModCount = modCount;
+        for (MapEntry<K, V> entry : table) {
+            if (entry != null && !entry.isRemoved()) {
+                action.accept(entry.getKey(), entry.getValue());
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
+    }
+    /**
+     * Returns a cursor positioned before the first entry of the map.
+     *
+     * @return a new cursor over this map
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+    /**
+     * Walks the backing table entry by entry. Unlike an iterator it hands out
+     * the key and value of the current entry separately, so a scan needs no
+     * object per entry. Any put of a new key, remove or resize after the
+     * cursor is created makes it throw ConcurrentModificationException.
+     */
+    public class Cursor {
+        private int index = -1;
+        private boolean onEntry;
+        private final int expectedModCount;
+
+        /**
+         * Creates a cursor before the first entry. Finishes any incremental
+         * resize first so that every entry is in the table being walked.
+         */
+        private Cursor() {
+            migrate(Integer.MAX_VALUE);
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Moves to the next entry.
+         *
+         * @return true if the cursor is on an entry, false if the end of the
+         * map was reached
+         * @throws java.util.ConcurrentModificationException if the map was
+         * structurally modified since the cursor was created
+         */
+        public boolean advance() {
+            checkModCount();
+            while (index + 1 < table.length) {
+                index++;
+                if (table[index] != null && !table[index].isRemoved()) {
+                    onEntry = true;
+                    return true;
+                }
+            }
+            onEntry = false;
+            return false;
+        }
+
+        /**
+         * Returns the key of the current entry.
+         *
+         * @return the current key
+         * @throws IllegalStateException if the cursor is not on an entry
+         * @throws java.util.ConcurrentModificationException if the map was
+         * structurally modified since the cursor was created
+         */
+        public K getKey() {
+            return current().getKey();
+        }
+
+        /**
+         * Returns the value of the current entry.
+         *
+         * @return the current value
+         * @throws IllegalStateException if the cursor is not on an entry
+         * @throws java.util.ConcurrentModificationException if the map was
+         * structurally modified since the cursor was created
+         */
+        public V getValue() {
+            return current().getValue();
+        }
+
+        /**
+         * Returns the entry the cursor is on.
+         *
+         * @return the current entry
+         */
+        private MapEntry<K, V> current() {
+            checkModCount();
+            if (!onEntry) {
+                throw new IllegalStateException("cursor is not on an entry");
+            }
+            return table[index];
+        }
+
+        /**
+         * Throws if the map was structurally modified since the cursor was
+         * created.
+         */
+        private void checkModCount() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+    /**
+     * Iterator for the views, built on a cursor that looks one entry ahead
+     * to answer hasNext().
+     *
+     * @param <T> the type handed out by next()
+     */
+    private abstract class TableIterator<T> extends Cursor
+            implements Iterator<T> {
+        private boolean ahead;
+        private boolean more;
+
+        @Override
+        public boolean hasNext() {
+            if (!ahead) {
+                more = advance();
+                ahead = true;
+            }
+            return more;
+        }
+
+        /**
+         * Moves onto the entry next() should return.
+         *
+         * @throws java.util.NoSuchElementException if there are no more
+         * entries
+         */
+        void nextEntry() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("no more entries");
+            }
+            ahead = false;
+        }
+    }
+    /**
+     * Returns a List of the values contained in this map, in table order.
+     * The list is a copy; use valueView(), forEach or cursor() to scan the
+     * map without allocating one.
      *
      * @return list of values in this map
      */
@@ -222,6 +1125,13 @@ public class HashMap<K, V> {
                 valueList.add(table[i].getValue());
             }
         }
+        if (oldTable != null) {
+            for (MapEntry<K, V> entry : oldTable) {
+                if (entry != null && !entry.isRemoved()) {
+                    valueList.add(entry.getValue());
+                }
+            }
+        }
         return valueList;
     }
     /**
@@ -249,45 +1159,45 @@ public class HashMap<K, V> {
         if (length <= 0 || length < size) {
             throw new IllegalArgumentException("Length given is not proper");
         }
+        migrate(Integer.MAX_VALUE);
+        long start = metricsEnabled ? System.nanoTime() : 0;
         MapEntry<K, V>[] tmpTable = table;
-        table = (MapEntry<K, V>[]) new MapEntry[length];
-        size = 0;
+        allocateTable(capacityFor(length));
         for (int i = 0; i < tmpTable.length; i++) {
             if (tmpTable[i] != null && !tmpTable[i].isRemoved()) {
-                resizePut(tmpTable[i].getKey(), tmpTable[i].getValue());
+                resizePut(tmpTable[i]);
             }
         }
+        if (metricsEnabled) {
+            recordResize(tmpTable.length, start);
+        }
     }
     /**
-     * Helper method for the resizeBackingTable method.
+     * Helper method for resizing.
      * It does not automatically increase the size of the HashMap based on
-     * the max load factor. It stores the mapentry to the appropriate location.
+     * the max load factor, and it does not change size. It stores the
+     * existing mapentry, without copying it, to the appropriate location.
      *
-     * @param key key to add into the HashMap
-     * @param value value to add into the HashMap
+     * @param entry entry whose key is not yet in the table
      */
-    private void resizePut(K key, V value) {
-        int hashPut = Math.abs(key.hashCode()) % table.length;
-        int countPut = 0;
-        while (table[hashPut] != null && countPut < table.length) {
-            if (table[hashPut].isRemoved()) {
-                table[hashPut] = new MapEntry<>(key, value);
-                table[hashPut].setRemoved(false);
-                size++;
-            } else {
-                hashPut = (hashPut + 1) % table.length;
-                countPut++;
-            }
+    private void resizePut(MapEntry<K, V> entry) {
+        int hashPut = indexFor(hash(entry.getKey()), table.length);
+        if (probing == Probing.ROBIN_HOOD) {
+            robinHoodInsert(entry, hashPut, 0);
+            return;
         }
-        table[hashPut] = new MapEntry<>(key, value);
-        table[hashPut].setRemoved(false);
-        size++;
+        while (table[hashPut] != null) {
+            hashPut = nextIndex(hashPut, table.length);
+        }
+        table[hashPut] = entry;
     }
     /**
      * Clears the table and resets it to the default length.
      */
     public void clear() {
-        table = (MapEntry<K, V>[]) new MapEntry[INITIAL_CAPACITY];
+        allocateTable(capacityFor(INITIAL_CAPACITY));
+        oldTable = null;
+        oldDistances = null;
         size = 0;
     }
     /**
@@ -0,0 +1,105 @@
+import java.util.Random;
+
+/**
+ * Compares HashMap's batch operations against calling get and put once per
+ * key, for batches of 16, 256 and 4096 keys drawn at random from a map too
+ * large for the CPU caches. putAll can gain from growing the table once;
+ * getAll does the same lookups as the get loop.
+ *
+ * Run with {@code java HashMapBatchBenchmark [entries]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapBatchBenchmark {
+
+    private static final int[] BATCH_SIZES = {16, 256, 4096};
+    private static final int KEYS_PER_ROUND = 1 << 20;
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of entries in the map, default 4,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        Random random = new Random(42);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+        HashMap<Integer, Integer> map = new HashMap<>(
+                HashMap.INITIAL_CAPACITY, HashMap.Sizing.POWER_OF_TWO);
+        map.putAll(keys, keys);
+
+        for (int batch : BATCH_SIZES) {
+            Integer[][] batches = new Integer[KEYS_PER_ROUND / batch][batch];
+            for (Integer[] b : batches) {
+                for (int j = 0; j < batch; j++) {
+                    b[j] = keys[random.nextInt(n)];
+                }
+            }
+            Integer[] results = new Integer[batch];
+            double single = 0;
+            double batched = 0;
+            for (int round = 0; round < WARMUP + ROUNDS; round++) {
+                long start = System.nanoTime();
+                long sum = 0;
+                for (Integer[] b : batches) {
+                    for (Integer key : b) {
+                        sum += map.get(key);
+                    }
+                }
+                long singleNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (Integer[] b : batches) {
+                    sum += map.getAll(b, results);
+                }
+                long batchNanos = System.nanoTime() - start;
+                sink += sum;
+                if (round >= WARMUP) {
+                    single = Math.max(single, rate(singleNanos));
+                    batched = Math.max(batched, rate(batchNanos));
+                }
+            }
+            System.out.printf("batch %4d  get loop %6.1f ops/us  getAll %6.1f "
+                    + "ops/us%n", batch, single, batched);
+
+            single = 0;
+            batched = 0;
+            for (int round = 0; round < WARMUP + ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (Integer[] b : batches) {
+                    for (Integer key : b) {
+                        map.put(key, key);
+                    }
+                }
+                long singleNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (Integer[] b : batches) {
+                    map.putAll(b, b);
+                }
+                long batchNanos = System.nanoTime() - start;
+                if (round >= WARMUP) {
+                    single = Math.max(single, rate(singleNanos));
+                    batched = Math.max(batched, rate(batchNanos));
+                }
+            }
+            System.out.printf("batch %4d  put loop %6.1f ops/us  putAll %6.1f "
+                    + "ops/us%n", batch, single, batched);
+        }
+    }
+
+    /**
+     * Converts the time for one round into operations per microsecond.
+     *
+     * @param nanos elapsed nanoseconds for KEYS_PER_ROUND operations
+     * @return operations per microsecond
+     */
+    private static double rate(long nanos) {
+        return KEYS_PER_ROUND * 1000.0 / nanos;
+    }
+}
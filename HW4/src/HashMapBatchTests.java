@@ -0,0 +1,120 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the batch operations of HashMap.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapBatchTests {
+
+    private HashMap<Integer, String> map;
+    private static final int TIMEOUT = 200;
+
+    @Before
+    public void setUp() {
+        map = new HashMap<>();
+        map.put(0, "A");
+        map.put(1, "B");
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutAllGrowsOnce() {
+        Integer[] keys = new Integer[40];
+        String[] values = new String[40];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i + 2;
+            values[i] = "v" + (i + 2);
+        }
+        map.putAll(keys, values);
+        // 42 entries need 13 -> 27 -> 55 -> 111 in one go
+        assertEquals(111, map.getTable().length);
+        assertEquals(42, map.size());
+        assertEquals("v41", map.get(41));
+        assertEquals("A", map.get(0));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutAllMatchesPut() {
+        HashMap<Integer, String> expected = new HashMap<>();
+        expected.put(0, "A");
+        expected.put(1, "B");
+        Integer[] keys = {13, 0, 26, 13, 5};
+        String[] values = {"C", "D", "E", "F", "G"};
+        for (int i = 0; i < keys.length; i++) {
+            expected.put(keys[i], values[i]);
+        }
+        map.putAll(keys, values);
+        assertArrayEquals(expected.getTable(), map.getTable());
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutAllRejectsBeforeAdding() {
+        try {
+            map.putAll(new Integer[] {5, null}, new String[] {"x", "y"});
+        } catch (IllegalArgumentException e) {
+            assertFalse(map.containsKey(5));
+            assertEquals(2, map.size());
+            return;
+        }
+        fail("expected IllegalArgumentException");
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testPutAllLengthMismatch() {
+        map.putAll(new Integer[] {5}, new String[0]);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGetAll() {
+        map.put(13, "C");
+        map.remove(0);
+        Integer[] keys = new Integer[40];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        String[] results = new String[40];
+        assertEquals(2, map.getAll(keys, results));
+        assertEquals(null, results[0]);
+        assertEquals("B", results[1]);
+        assertEquals("C", results[13]);
+        assertEquals(null, results[39]);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testContainsAll() {
+        assertTrue(map.containsAll(new Integer[] {1, 0}));
+        assertTrue(map.containsAll(new Integer[0]));
+        assertFalse(map.containsAll(new Integer[] {0, 1, 2}));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBatchInOtherModes() {
+        HashMap<Integer, String> robinHood = new HashMap<>(4,
+                HashMap.Sizing.POWER_OF_TWO, HashMap.Probing.ROBIN_HOOD,
+                HashMap.Resizing.INCREMENTAL);
+        for (int i = 0; i < 100; i++) {
+            robinHood.put(i, "v" + i);
+        }
+        Integer[] keys = new Integer[200];
+        String[] values = new String[200];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+            values[i] = "w" + i;
+        }
+        robinHood.putAll(keys, values);
+        String[] results = new String[200];
+        assertEquals(200, robinHood.getAll(keys, results));
+        assertArrayEquals(values, results);
+        assertTrue(robinHood.containsAll(keys));
+        assertEquals(200, robinHood.size());
+    }
+}
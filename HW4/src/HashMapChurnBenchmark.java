@@ -0,0 +1,103 @@
+import java.util.Random;
+
+/**
+ * Runs a steady put/remove churn against HashMap in LINEAR and ROBIN_HOOD
+ * probing modes and reports, after each round, the p50/p99/max probe length
+ * from probeLengthHistogram and the time taken by lookups of missing keys
+ * (which have to walk past every tombstone in linear mode).
+ *
+ * Run with {@code java HashMapChurnBenchmark [entries] [rounds]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapChurnBenchmark {
+
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional live entry count (default 100,000) and number of
+     *             churn rounds (default 10)
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        for (HashMap.Probing probing : HashMap.Probing.values()) {
+            run(n, rounds, probing);
+        }
+    }
+
+    /**
+     * Fills a map with n keys, then each round replaces every live key with
+     * a fresh one.
+     *
+     * @param n number of live entries
+     * @param rounds number of churn rounds
+     * @param probing the probing mode to test
+     */
+    private static void run(int n, int rounds, HashMap.Probing probing) {
+        HashMap<Integer, Integer> map = new HashMap<>(
+                HashMap.INITIAL_CAPACITY, HashMap.Sizing.POWER_OF_TWO,
+                probing);
+        Random random = new Random(42);
+        int[] live = new int[n];
+        for (int i = 0; i < n; i++) {
+            live[i] = random.nextInt();
+            while (map.containsKey(live[i])) {
+                live[i] = random.nextInt();
+            }
+            map.put(live[i], i);
+        }
+        System.out.println(probing);
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < n; i++) {
+                map.remove(live[i]);
+                int key = random.nextInt();
+                while (map.containsKey(key)) {
+                    key = random.nextInt();
+                }
+                live[i] = key;
+                map.put(key, i);
+            }
+            long start = System.nanoTime();
+            long hits = 0;
+            for (int i = 0; i < n; i++) {
+                if (map.containsKey(random.nextInt())) {
+                    hits++;
+                }
+            }
+            long missNanos = System.nanoTime() - start;
+            sink += hits;
+            int[] histogram = map.probeLengthHistogram();
+            System.out.printf("  round %2d  probe p50 %3d  p99 %3d  max %4d"
+                    + "  miss lookup %7.1f ns%n", round,
+                    percentile(histogram, 0.50), percentile(histogram, 0.99),
+                    histogram.length - 1, (double) missNanos / n);
+        }
+    }
+
+    /**
+     * Returns the smallest probe length that covers the given fraction of
+     * entries.
+     *
+     * @param histogram probe length histogram
+     * @param fraction fraction of entries, between 0 and 1
+     * @return the probe length at that percentile
+     */
+    private static int percentile(int[] histogram, double fraction) {
+        long total = 0;
+        for (int count : histogram) {
+            total += count;
+        }
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= fraction * total) {
+                return i;
+            }
+        }
+        return histogram.length - 1;
+    }
+}
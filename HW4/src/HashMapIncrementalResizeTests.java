@@ -0,0 +1,123 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the incremental resizing mode of HashMap.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapIncrementalResizeTests {
+
+    private HashMap<Integer, String> map;
+    private static final int TIMEOUT = 200;
+
+    @Before
+    public void setUp() {
+        map = new HashMap<>(HashMap.INITIAL_CAPACITY, HashMap.Sizing.MODULO,
+                HashMap.Probing.LINEAR, HashMap.Resizing.INCREMENTAL);
+        for (int i = 0; i < 9; i++) {
+            map.put(i, "v" + i);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutOverLoadFactorOnlyAllocates() {
+        assertNull(map.put(100, "x"));
+        assertEquals(27, map.getTable().length);
+        // the growing put moved one step of old slots and its own entry
+        assertTrue(count(map.getTable()) < 10);
+        assertEquals(10, map.size());
+        for (int i = 0; i < 9; i++) {
+            assertEquals("v" + i, map.get(i));
+        }
+        assertEquals(10, count(map.getTable()));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testOperationsDuringMigration() {
+        map.put(100, "x");
+        assertEquals("v8", map.put(8, "y"));
+        assertEquals("v7", map.remove(7));
+        assertFalse(map.containsKey(7));
+        assertEquals(9, map.size());
+        assertEquals(9, map.keySet().size());
+        assertEquals(9, map.values().size());
+        assertEquals("y", map.get(8));
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveTwiceDuringMigration() {
+        map.put(100, "x");
+        map.remove(2);
+        map.remove(2);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testResizeBackingTableFinishesMigration() {
+        map.put(100, "x");
+        map.resizeBackingTable(50);
+        assertEquals(50, map.getTable().length);
+        assertEquals(10, count(map.getTable()));
+    }
+
+    @Test(timeout = TIMEOUT * 5)
+    public void testMatchesJavaHashMapInEveryMode() {
+        for (HashMap.Sizing sizing : HashMap.Sizing.values()) {
+            for (HashMap.Probing probing : HashMap.Probing.values()) {
+                HashMap<Integer, String> actual = new HashMap<>(4, sizing,
+                        probing, HashMap.Resizing.INCREMENTAL);
+                java.util.HashMap<Integer, String> expected =
+                        new java.util.HashMap<>();
+                Random random = new Random(1332);
+                for (int i = 0; i < 4000; i++) {
+                    int key = random.nextInt(600) - 200;
+                    int op = random.nextInt(4);
+                    if (op < 2) {
+                        assertEquals(expected.put(key, "v" + i),
+                                actual.put(key, "v" + i));
+                    } else if (op == 2 && expected.containsKey(key)) {
+                        assertEquals(expected.remove(key), actual.remove(key));
+                    } else {
+                        assertEquals(expected.containsKey(key),
+                                actual.containsKey(key));
+                    }
+                }
+                assertEquals(expected.size(), actual.size());
+                assertEquals(expected.keySet(), actual.keySet());
+                List<String> values = actual.values();
+                List<String> expectedValues = new ArrayList<>(expected.values());
+                Collections.sort(values);
+                Collections.sort(expectedValues);
+                assertEquals(expectedValues, values);
+            }
+        }
+    }
+
+    /**
+     * Counts the live entries in a table.
+     *
+     * @param table the backing table
+     * @return the number of non-null, non-removed entries
+     */
+    private static int count(MapEntry<Integer, String>[] table) {
+        int count = 0;
+        for (MapEntry<Integer, String> entry : table) {
+            if (entry != null && !entry.isRemoved()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
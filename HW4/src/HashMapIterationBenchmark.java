@@ -0,0 +1,116 @@
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.BiConsumer;
+
+/**
+ * Measures how many bytes a full scan of a HashMap allocates per entry, and
+ * how long it takes, for the copying values() list against the keySet() and
+ * valueView() views, forEach and a cursor. Allocation is read from the
+ * HotSpot per-thread allocation counter, so a scan that allocates nothing
+ * per entry reports about 0 bytes per entry.
+ *
+ * Run with {@code java HashMapIterationBenchmark [entries]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapIterationBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 5;
+    private static final ThreadMXBean THREADS =
+            (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static long total;
+    private static final BiConsumer<Integer, Integer> SUM_VALUES =
+            (key, value) -> total += value;
+    private static volatile long sink;
+
+    /**
+     * A full scan of the map that returns something derived from every
+     * entry so the JIT cannot drop it.
+     */
+    private interface Scan {
+        /**
+         * Scans the map.
+         *
+         * @param map the map to scan
+         * @return a sum over the scanned entries
+         */
+        long run(HashMap<Integer, Integer> map);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of entries, default 10,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            map.put(i, i);
+        }
+        run("values() copy", map, m -> {
+            long sum = 0;
+            for (Integer value : m.values()) {
+                sum += value;
+            }
+            return sum;
+        });
+        run("keySet() view", map, m -> {
+            long sum = 0;
+            for (Integer key : m.keySet()) {
+                sum += key;
+            }
+            return sum;
+        });
+        run("valueView()", map, m -> {
+            long sum = 0;
+            for (Integer value : m.valueView()) {
+                sum += value;
+            }
+            return sum;
+        });
+        run("forEach", map, m -> {
+            total = 0;
+            m.forEach(SUM_VALUES);
+            return total;
+        });
+        run("cursor", map, m -> {
+            long sum = 0;
+            HashMap<Integer, Integer>.Cursor cursor = m.cursor();
+            while (cursor.advance()) {
+                sum += cursor.getValue();
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Times one kind of scan and reports the best round.
+     *
+     * @param label name of the scan
+     * @param map the map to scan
+     * @param scan the scan to run
+     */
+    private static void run(String label, HashMap<Integer, Integer> map,
+                            Scan scan) {
+        long thread = Thread.currentThread().getId();
+        double bestNanos = Double.MAX_VALUE;
+        double bestBytes = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long bytes = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            sink += scan.run(map);
+            long elapsed = System.nanoTime() - start;
+            bytes = THREADS.getThreadAllocatedBytes(thread) - bytes;
+            if (round >= WARMUP) {
+                bestNanos = Math.min(bestNanos, (double) elapsed / map.size());
+                bestBytes = Math.min(bestBytes, (double) bytes / map.size());
+            }
+        }
+        System.out.printf("%-14s %8.3f bytes/entry %8.2f ns/entry%n", label,
+                bestBytes, bestNanos);
+    }
+}
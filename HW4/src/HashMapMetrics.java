@@ -0,0 +1,174 @@
+/**
+ * A snapshot of the counters a HashMap keeps while its metrics are enabled,
+ * taken by {@code HashMap.getMetrics()}. Probe lengths count the table slots
+ * examined by one operation, so a key found or placed in its home slot has
+ * a probe length of 1.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public final class HashMapMetrics {
+
+    private final int size;
+    private final int capacity;
+    private final int tombstones;
+    private final long[] operations;
+    private final long[] probes;
+    private final int maxProbe;
+    private final long resizes;
+    private final long resizeNanos;
+    private final long maxResizeNanos;
+
+    /**
+     * Kinds of operation that probe lengths are kept for. containsKey,
+     * getOrDefault, getAll and containsAll count as GET; putAll counts as
+     * PUT.
+     */
+    public enum Operation {
+        PUT, GET, REMOVE
+    }
+
+    /**
+     * Creates a snapshot. Only HashMap creates these.
+     *
+     * @param size number of entries in the map
+     * @param capacity length of the backing table
+     * @param tombstones number of removed entries still in the table
+     * @param operations operation counts, indexed by Operation ordinal
+     * @param probes total probe lengths, indexed by Operation ordinal
+     * @param maxProbe the longest single probe seen
+     * @param resizes number of resizes started
+     * @param resizeNanos total time spent starting resizes
+     * @param maxResizeNanos the longest single resize
+     */
+    HashMapMetrics(int size, int capacity, int tombstones, long[] operations,
+                   long[] probes, int maxProbe, long resizes,
+                   long resizeNanos, long maxResizeNanos) {
+        this.size = size;
+        this.capacity = capacity;
+        this.tombstones = tombstones;
+        this.operations = operations.clone();
+        this.probes = probes.clone();
+        this.maxProbe = maxProbe;
+        this.resizes = resizes;
+        this.resizeNanos = resizeNanos;
+        this.maxResizeNanos = maxResizeNanos;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the size of the map
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the backing table.
+     *
+     * @return the capacity of the map
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of removed entries still occupying slots.
+     *
+     * @return the number of tombstones
+     */
+    public int getTombstones() {
+        return tombstones;
+    }
+
+    /**
+     * Returns the fraction of the table taken up by removed entries.
+     *
+     * @return tombstones divided by capacity
+     */
+    public double getTombstoneRatio() {
+        return (double) tombstones / capacity;
+    }
+
+    /**
+     * Returns the fraction of the table taken up by live entries.
+     *
+     * @return size divided by capacity
+     */
+    public double getLoadFactor() {
+        return (double) size / capacity;
+    }
+
+    /**
+     * Returns how many operations of a kind were counted.
+     *
+     * @param operation the kind of operation
+     * @return the number of operations
+     */
+    public long getOperations(Operation operation) {
+        return operations[operation.ordinal()];
+    }
+
+    /**
+     * Returns the average probe length for a kind of operation.
+     *
+     * @param operation the kind of operation
+     * @return the average probe length, or 0 if there were none
+     */
+    public double getAverageProbe(Operation operation) {
+        long count = operations[operation.ordinal()];
+        return count == 0 ? 0 : (double) probes[operation.ordinal()] / count;
+    }
+
+    /**
+     * Returns the longest probe of any operation.
+     *
+     * @return the longest probe length
+     */
+    public int getMaxProbe() {
+        return maxProbe;
+    }
+
+    /**
+     * Returns how many times the backing table was grown or resized.
+     *
+     * @return the number of resizes
+     */
+    public long getResizes() {
+        return resizes;
+    }
+
+    /**
+     * Returns the total time spent resizing. For an incremental resize only
+     * the start is timed, not the slots moved by later operations.
+     *
+     * @return total resize time in nanoseconds
+     */
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    /**
+     * Returns the time taken by the longest resize.
+     *
+     * @return the longest resize in nanoseconds
+     */
+    public long getMaxResizeNanos() {
+        return maxResizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("size=%d capacity=%d tombstones=%d",
+                size, capacity, tombstones));
+        for (Operation operation : Operation.values()) {
+            builder.append(String.format(" %s=%d/%.2f", operation,
+                    getOperations(operation), getAverageProbe(operation)));
+        }
+        builder.append(String.format(" maxProbe=%d resizes=%d resizeNanos=%d",
+                maxProbe, resizes, resizeNanos));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks what the metrics mode of HashMap costs. Each run times one
+ * configuration, filling a map with random keys and then looking every key
+ * up, and prints the median, fastest and slowest of its rounds. Only one
+ * configuration runs per JVM, so the JIT never sees metrics on and off in
+ * the same process.
+ *
+ * Run with {@code java HashMapMetricsBenchmark [entries] [off|on]}. In
+ * {@code off} mode, the default, the metrics API is never touched, so the
+ * same benchmark also runs against the HashMap from before the metrics
+ * mode. To compare against it, compile that version into its own directory
+ * and put it first on the classpath:
+ *
+ * <pre>
+ * git show 3730eb3:HW4/src/HashMap.java &gt; old/HashMap.java
+ * javac -d old/classes old/HashMap.java MapEntry.java
+ * java -cp old/classes:. HashMapMetricsBenchmark 1000000 off
+ * </pre>
+ *
+ * @author Dasom Eom
+ * @version 1.2
+ */
+public class HashMapMetricsBenchmark {
+
+    private static final int WARMUP = 10;
+    private static final int ROUNDS = 20;
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of entries, default 1,000,000, and
+     *             optional mode, off or on, default off
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        boolean metrics = args.length > 1 && args[1].equals("on");
+        Integer[] keys = new Integer[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+        double[] put = new double[ROUNDS];
+        double[] get = new double[ROUNDS];
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            HashMap<Integer, Integer> map = new HashMap<>();
+            if (metrics) {
+                map.setMetricsEnabled(true);
+            }
+            long start = System.nanoTime();
+            for (Integer key : keys) {
+                map.put(key, key);
+            }
+            long putNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            long sum = 0;
+            for (Integer key : keys) {
+                sum += map.get(key);
+            }
+            long getNanos = System.nanoTime() - start;
+            sink += sum;
+            if (round >= WARMUP) {
+                put[round - WARMUP] = n * 1000.0 / putNanos;
+                get[round - WARMUP] = n * 1000.0 / getNanos;
+            }
+        }
+        System.out.printf("metrics %-3s put %s  get %s%n",
+                metrics ? "on" : "off", summary(put), summary(get));
+    }
+
+    /**
+     * Summarizes the rates of the timed rounds.
+     *
+     * @param rates operations per microsecond of each round
+     * @return the median followed by the range, in ops/us
+     */
+    private static String summary(double[] rates) {
+        double[] sorted = rates.clone();
+        Arrays.sort(sorted);
+        return String.format("%5.2f ops/us [%5.2f, %5.2f]",
+                sorted[sorted.length / 2], sorted[0],
+                sorted[sorted.length - 1]);
+    }
+}
@@ -0,0 +1,117 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the metrics mode of HashMap.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapMetricsTests {
+
+    private HashMap<Integer, String> map;
+    private static final int TIMEOUT = 200;
+    private static final double DELTA = 1e-9;
+
+    @Before
+    public void setUp() {
+        map = new HashMap<>();
+        map.setMetricsEnabled(true);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testProbeLengths() {
+        map.put(0, "A");
+        map.put(13, "B");
+        map.get(13);
+        map.containsKey(26);
+        map.remove(0);
+        HashMapMetrics metrics = map.getMetrics();
+        assertEquals(2, metrics.getOperations(HashMapMetrics.Operation.PUT));
+        assertEquals(1.5,
+                metrics.getAverageProbe(HashMapMetrics.Operation.PUT), DELTA);
+        assertEquals(2, metrics.getOperations(HashMapMetrics.Operation.GET));
+        assertEquals(2.5,
+                metrics.getAverageProbe(HashMapMetrics.Operation.GET), DELTA);
+        assertEquals(1.0,
+                metrics.getAverageProbe(HashMapMetrics.Operation.REMOVE),
+                DELTA);
+        assertEquals(3, metrics.getMaxProbe());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTombstones() {
+        map.put(0, "A");
+        map.put(1, "B");
+        map.remove(0);
+        HashMapMetrics metrics = map.getMetrics();
+        assertEquals(1, metrics.getSize());
+        assertEquals(13, metrics.getCapacity());
+        assertEquals(1, metrics.getTombstones());
+        assertEquals(1.0 / 13, metrics.getTombstoneRatio(), DELTA);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testResizeEvents() {
+        List<String> events = new ArrayList<>();
+        map.setResizeListener((oldLength, newLength, nanos) ->
+                events.add(oldLength + "->" + newLength));
+        for (int i = 0; i < 10; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals(1, events.size());
+        assertEquals("13->27", events.get(0));
+        assertEquals(1, map.getMetrics().getResizes());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDisabled() {
+        List<String> events = new ArrayList<>();
+        map.setMetricsEnabled(false);
+        map.setResizeListener((oldLength, newLength, nanos) ->
+                events.add(oldLength + "->" + newLength));
+        for (int i = 0; i < 10; i++) {
+            map.put(i, "v" + i);
+        }
+        map.remove(3);
+        HashMapMetrics metrics = map.getMetrics();
+        assertEquals(0, events.size());
+        assertEquals(0, metrics.getOperations(HashMapMetrics.Operation.PUT));
+        assertEquals(0, metrics.getResizes());
+        assertEquals(9, metrics.getSize());
+        assertEquals(1, metrics.getTombstones());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEnablingResets() {
+        map.put(0, "A");
+        map.setMetricsEnabled(true);
+        assertEquals(0,
+                map.getMetrics().getOperations(HashMapMetrics.Operation.PUT));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRobinHoodAndBatch() {
+        HashMap<Integer, String> robinHood = new HashMap<>(
+                HashMap.INITIAL_CAPACITY, HashMap.Sizing.MODULO,
+                HashMap.Probing.ROBIN_HOOD);
+        robinHood.setMetricsEnabled(true);
+        robinHood.putAll(new Integer[] {0, 13, 26}, new String[] {"A", "B",
+            "C"});
+        robinHood.remove(13);
+        String[] results = new String[2];
+        robinHood.getAll(new Integer[] {0, 26}, results);
+        HashMapMetrics metrics = robinHood.getMetrics();
+        assertEquals(2.0,
+                metrics.getAverageProbe(HashMapMetrics.Operation.PUT), DELTA);
+        assertEquals(2, metrics.getOperations(HashMapMetrics.Operation.GET));
+        assertEquals(1.5,
+                metrics.getAverageProbe(HashMapMetrics.Operation.GET), DELTA);
+        assertEquals(0, metrics.getTombstones());
+    }
+}
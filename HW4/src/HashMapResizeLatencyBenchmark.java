@@ -0,0 +1,52 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the latency of every single put while a HashMap grows from empty,
+ * in EAGER and INCREMENTAL resizing modes, and reports the median, p99,
+ * p99.9 and max put latency. The max also includes GC pauses and the
+ * zeroing of the new table's array, which neither mode avoids, so compare
+ * it across several rounds or with GC logging on.
+ *
+ * Run with {@code java HashMapResizeLatencyBenchmark [entries]}. Use a large
+ * heap for the default size, e.g. {@code -Xmx4g}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapResizeLatencyBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of entries, default 4,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        Integer[] keys = new Integer[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+        long[] latencies = new long[n];
+        for (int round = 0; round < ROUNDS; round++) {
+            for (HashMap.Resizing resizing : HashMap.Resizing.values()) {
+                HashMap<Integer, Integer> map = new HashMap<>(
+                        HashMap.INITIAL_CAPACITY, HashMap.Sizing.POWER_OF_TWO,
+                        HashMap.Probing.LINEAR, resizing);
+                for (int i = 0; i < n; i++) {
+                    long start = System.nanoTime();
+                    map.put(keys[i], i);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(latencies);
+                System.out.printf("round %d %-11s put latency ns  p50 %6d  "
+                        + "p99 %6d  p99.9 %8d  max %10d%n", round, resizing,
+                        latencies[n / 2], latencies[(int) (n * 0.99)],
+                        latencies[(int) (n * 0.999)], latencies[n - 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the Robin Hood probing mode of HashMap.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapRobinHoodTests {
+
+    private HashMap<Integer, String> map;
+    private static final int TIMEOUT = 200;
+
+    @Before
+    public void setUp() {
+        map = new HashMap<>(HashMap.INITIAL_CAPACITY, HashMap.Sizing.MODULO,
+                HashMap.Probing.ROBIN_HOOD);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRicherEntryIsDisplaced() {
+        map.put(0, "A");
+        map.put(13, "B");
+        map.put(1, "C");
+        // 13 is one slot from home, so 1 (home 1) has to move past it
+        MapEntry<Integer, String>[] table = map.getTable();
+        assertEquals((Integer) 0, table[0].getKey());
+        assertEquals((Integer) 13, table[1].getKey());
+        assertEquals((Integer) 1, table[2].getKey());
+        map.put(26, "D");
+        // 26 (home 0) is two slots out at index 2, which is further than 1
+        assertEquals((Integer) 26, table[2].getKey());
+        assertEquals((Integer) 1, table[3].getKey());
+        assertArrayEquals(new int[] {1, 1, 2}, map.probeLengthHistogram());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRemoveShiftsBack() {
+        map.put(0, "A");
+        map.put(13, "B");
+        map.put(26, "C");
+        map.put(5, "D");
+        assertEquals("A", map.remove(0));
+        MapEntry<Integer, String>[] table = map.getTable();
+        assertEquals((Integer) 13, table[0].getKey());
+        assertEquals((Integer) 26, table[1].getKey());
+        assertNull(table[2]);
+        assertEquals((Integer) 5, table[5].getKey());
+        assertEquals("C", map.get(26));
+        assertFalse(map.containsKey(0));
+        assertEquals(3, map.size());
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() {
+        map.put(0, "A");
+        map.remove(13);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testChurnLeavesNoTombstones() {
+        Random random = new Random(1332);
+        java.util.HashMap<Integer, String> expected = new java.util.HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+            } else if (expected.containsKey(key)) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertFalse(map.containsKey(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.keySet(), map.keySet());
+        for (MapEntry<Integer, String> entry : map.getTable()) {
+            assertTrue(entry == null || !entry.isRemoved());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPowerOfTwoRobinHood() {
+        HashMap<Integer, String> mixed = new HashMap<>(4,
+                HashMap.Sizing.POWER_OF_TWO, HashMap.Probing.ROBIN_HOOD);
+        for (int i = 0; i < 1000; i++) {
+            mixed.put(i * 64, "v" + i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            mixed.remove(i * 64);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, mixed.containsKey(i * 64));
+        }
+        assertEquals(500, mixed.size());
+        int[] histogram = mixed.probeLengthHistogram();
+        int total = 0;
+        for (int count : histogram) {
+            total += count;
+        }
+        assertEquals(500, total);
+    }
+}
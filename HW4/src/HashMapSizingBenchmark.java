@@ -0,0 +1,73 @@
+import java.util.Random;
+
+/**
+ * Compares the MODULO and POWER_OF_TWO sizing modes of HashMap on
+ * sequential and random Integer keys.
+ *
+ * Run with {@code java HashMapSizingBenchmark [entries]}. Each timed section
+ * is repeated a few times first so the JIT has compiled it.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapSizingBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of entries, default 1,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] sequential = new Integer[n];
+        Integer[] random = new Integer[n];
+        Random rng = new Random(42);
+        for (int i = 0; i < n; i++) {
+            sequential[i] = i;
+            random[i] = rng.nextInt();
+        }
+        for (HashMap.Sizing sizing : HashMap.Sizing.values()) {
+            run("sequential", sequential, sizing);
+            run("random", random, sizing);
+        }
+    }
+
+    /**
+     * Times filling a map with the keys and then looking every key up.
+     *
+     * @param label name of the key distribution
+     * @param keys the keys to insert
+     * @param sizing the sizing mode to test
+     */
+    private static void run(String label, Integer[] keys,
+                            HashMap.Sizing sizing) {
+        double bestPut = 0;
+        double bestGet = 0;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            HashMap<Integer, Integer> map =
+                    new HashMap<>(HashMap.INITIAL_CAPACITY, sizing);
+            long start = System.nanoTime();
+            for (Integer key : keys) {
+                map.put(key, key);
+            }
+            long put = System.nanoTime() - start;
+            start = System.nanoTime();
+            long sum = 0;
+            for (Integer key : keys) {
+                sum += map.get(key);
+            }
+            long get = System.nanoTime() - start;
+            sink += sum;
+            if (round >= WARMUP) {
+                bestPut = Math.max(bestPut, keys.length * 1000.0 / put);
+                bestGet = Math.max(bestGet, keys.length * 1000.0 / get);
+            }
+        }
+        System.out.printf("%-12s %-10s put %6.1f ops/us  get %6.1f ops/us%n",
+                sizing, label, bestPut, bestGet);
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the power of two sizing mode of HashMap.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapSizingTests {
+
+    private HashMap<Integer, String> map;
+    private static final int TIMEOUT = 200;
+
+    @Before
+    public void setUp() {
+        map = new HashMap<>(HashMap.INITIAL_CAPACITY,
+                HashMap.Sizing.POWER_OF_TWO);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCapacityRoundsUp() {
+        assertEquals(16, map.getTable().length);
+        assertEquals(8, new HashMap<Integer, String>(8,
+                HashMap.Sizing.POWER_OF_TWO).getTable().length);
+        map.resizeBackingTable(33);
+        assertEquals(64, map.getTable().length);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRegrowDoubles() {
+        for (int i = 0; i < 12; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals(32, map.getTable().length);
+        for (int i = 0; i < 12; i++) {
+            assertEquals("v" + i, map.get(i));
+        }
+        map.clear();
+        assertEquals(16, map.getTable().length);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutRemoveGet() {
+        for (int i = -50; i < 50; i++) {
+            assertNull(map.put(i, "v" + i));
+        }
+        assertEquals("v3", map.put(3, "x"));
+        assertEquals("x", map.remove(3));
+        assertFalse(map.containsKey(3));
+        assertTrue(map.containsKey(-50));
+        assertEquals(99, map.size());
+        assertNull(map.put(3, "y"));
+        assertEquals("y", map.get(3));
+        assertEquals(100, map.keySet().size());
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testGetMissing() {
+        map.put(1, "a");
+        map.get(17);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testStridedKeysDoNotCluster() {
+        // Without mixing, every multiple of 1024 would share index 0.
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 1024, "v");
+        }
+        assertTrue(longestRun(map.getTable()) < 40);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSequentialKeysDoNotCluster() {
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, "v");
+        }
+        assertTrue(longestRun(map.getTable()) < 60);
+    }
+
+    /**
+     * Returns the length of the longest run of occupied slots.
+     *
+     * @param table the backing table
+     * @return the longest run of non-null slots
+     */
+    private static int longestRun(MapEntry<Integer, String>[] table) {
+        int longest = 0;
+        int run = 0;
+        for (MapEntry<Integer, String> entry : table) {
+            run = entry == null ? 0 : run + 1;
+            longest = Math.max(longest, run);
+        }
+        return longest;
+    }
+}
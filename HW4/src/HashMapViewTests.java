@@ -0,0 +1,127 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the live views, forEach and cursor of HashMap.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class HashMapViewTests {
+
+    private HashMap<Integer, String> map;
+    private static final int TIMEOUT = 200;
+
+    @Before
+    public void setUp() {
+        map = new HashMap<>();
+        map.put(0, "A");
+        map.put(13, "B");
+        map.put(5, "C");
+        map.remove(0);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testKeySetIsLive() {
+        Set<Integer> keys = map.keySet();
+        assertSame(keys, map.keySet());
+        assertEquals(2, keys.size());
+        assertTrue(keys.contains(13));
+        assertFalse(keys.contains(0));
+        assertFalse(keys.contains(null));
+        map.put(7, "D");
+        Set<Integer> expected = new HashSet<>();
+        expected.add(13);
+        expected.add(5);
+        expected.add(7);
+        assertEquals(expected, keys);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testValueViewInTableOrder() {
+        Collection<String> values = map.valueView();
+        List<String> copy = new ArrayList<>(values);
+        assertEquals(map.values(), copy);
+        map.put(13, "E");
+        assertEquals("[E, C]", values.toString());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testForEach() {
+        StringBuilder seen = new StringBuilder();
+        map.forEach((key, value) -> seen.append(key).append(value));
+        assertEquals("13B5C", seen.toString());
+    }
+
+    @Test(timeout = TIMEOUT, expected = ConcurrentModificationException.class)
+    public void testForEachFailFast() {
+        map.forEach((key, value) -> map.put(key + 1, value));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCursor() {
+        HashMap<Integer, String>.Cursor cursor = map.cursor();
+        assertTrue(cursor.advance());
+        assertEquals((Integer) 13, cursor.getKey());
+        assertEquals("B", cursor.getValue());
+        map.put(13, "E");
+        assertEquals("E", cursor.getValue());
+        assertTrue(cursor.advance());
+        assertEquals((Integer) 5, cursor.getKey());
+        assertFalse(cursor.advance());
+        assertFalse(cursor.advance());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalStateException.class)
+    public void testCursorBeforeFirst() {
+        map.cursor().getKey();
+    }
+
+    @Test(timeout = TIMEOUT, expected = ConcurrentModificationException.class)
+    public void testIteratorFailFast() {
+        Iterator<Integer> iterator = map.keySet().iterator();
+        iterator.next();
+        map.remove(5);
+        iterator.next();
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testIteratorExhausted() {
+        Iterator<String> iterator = map.valueView().iterator();
+        iterator.next();
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testViewsDuringIncrementalResize() {
+        HashMap<Integer, Integer> resizing = new HashMap<>(
+                HashMap.INITIAL_CAPACITY, HashMap.Sizing.MODULO,
+                HashMap.Probing.ROBIN_HOOD, HashMap.Resizing.INCREMENTAL);
+        for (int i = 0; i < 100; i++) {
+            resizing.put(i, i);
+        }
+        int[] sum = new int[1];
+        resizing.forEach((key, value) -> sum[0] += value);
+        assertEquals(4950, sum[0]);
+        int count = 0;
+        for (Integer key : resizing.keySet()) {
+            count++;
+        }
+        assertEquals(100, count);
+    }
+}
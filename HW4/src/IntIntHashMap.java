@@ -0,0 +1,244 @@
+import java.util.NoSuchElementException;
+
+/**
+ * A primitive int to int version of HashMap.
+ *
+ * Keys, values and slot states live in parallel primitive arrays, so there
+ * is no boxing and no MapEntry object per mapping. Probing, removal and
+ * regrowth follow HashMap exactly: linear probing, removed slots are kept
+ * as tombstones and reused by put, and the table grows to 2 * length + 1
+ * once the load factor goes over {@code MAX_LOAD_FACTOR}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class IntIntHashMap {
+
+    public static final int INITIAL_CAPACITY = HashMap.INITIAL_CAPACITY;
+    public static final double MAX_LOAD_FACTOR = HashMap.MAX_LOAD_FACTOR;
+
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte REMOVED = 2;
+
+    private int[] keys;
+    private int[] values;
+    private byte[] states;
+    private int size;
+
+    /**
+     * Create a map with no entries. The backing arrays have an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public IntIntHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a map with no entries. The backing arrays have an initial
+     * capacity of {@code initialCapacity}.
+     *
+     * @param initialCapacity initial capacity of the backing arrays
+     * @throws IllegalArgumentException if initialCapacity is non-positive
+     */
+    public IntIntHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        keys = new int[initialCapacity];
+        values = new int[initialCapacity];
+        states = new byte[initialCapacity];
+        size = 0;
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If the key is already in the
+     * map its value is replaced.
+     *
+     * Since a primitive cannot be null, 0 is returned when the key was not
+     * already in the map. Use containsKey to tell the two cases apart.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @return the old value associated with the key, or 0 if there was none
+     */
+    public int put(int key, int value) {
+        if ((double) size / (double) keys.length > MAX_LOAD_FACTOR) {
+            resizeBackingTable(keys.length * 2 + 1);
+        }
+        int index = Math.abs(key % keys.length);
+        int removedIndex = -1;
+        int count = 0;
+        while (states[index] != EMPTY && count < keys.length) {
+            if (states[index] == REMOVED) {
+                if (removedIndex == -1) {
+                    removedIndex = index;
+                }
+            } else if (keys[index] == key) {
+                int old = values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) % keys.length;
+            count++;
+        }
+        int putIndex = removedIndex != -1 ? removedIndex : index;
+        keys[putIndex] = key;
+        values[putIndex] = value;
+        states[putIndex] = OCCUPIED;
+        size++;
+        return 0;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public int remove(int key) {
+        int index = find(key);
+        if (index == -1) {
+            throw new NoSuchElementException("key does not exist");
+        }
+        states[index] = REMOVED;
+        size--;
+        return values[index];
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public int get(int key) {
+        int index = find(key);
+        if (index == -1) {
+            throw new NoSuchElementException("key is not in the map");
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(int key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Finds the slot holding the given key, skipping over removed slots.
+     *
+     * @param key the key to search for
+     * @return the index of the key, or -1 if it is not in the map
+     */
+    private int find(int key) {
+        int index = Math.abs(key % keys.length);
+        int count = 0;
+        while (states[index] != EMPTY && count < keys.length) {
+            if (states[index] == OCCUPIED && keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) % keys.length;
+            count++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the keys contained in this map, in order of increasing index.
+     *
+     * @return array of keys in this map
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == OCCUPIED) {
+                result[j++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values contained in this map, in order of increasing index.
+     *
+     * @return array of values in this map
+     */
+    public int[] values() {
+        int[] result = new int[size];
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == OCCUPIED) {
+                result[j++] = values[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resize the backing arrays to {@code length}, dropping every removed
+     * slot on the way.
+     *
+     * @param length new length of the backing arrays
+     * @throws IllegalArgumentException if length is non-positive or less than
+     * the number of items in the map.
+     */
+    public void resizeBackingTable(int length) {
+        if (length <= 0 || length < size) {
+            throw new IllegalArgumentException("Length given is not proper");
+        }
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        byte[] oldStates = states;
+        keys = new int[length];
+        values = new int[length];
+        states = new byte[length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == OCCUPIED) {
+                int index = Math.abs(oldKeys[i] % length);
+                while (states[index] != EMPTY) {
+                    index = (index + 1) % length;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                states[index] = OCCUPIED;
+            }
+        }
+    }
+
+    /**
+     * Clears the map and resets it to the default length.
+     */
+    public void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        states = new byte[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the backing arrays.
+     *
+     * @return capacity of the map
+     */
+    public int capacity() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares IntIntHashMap against HashMap&lt;Integer, Integer&gt; for retained
+ * heap per entry and put/get throughput.
+ *
+ * Run with {@code java IntIntHashMapBenchmark [entries]}. Each timed section
+ * is repeated a few times first so the JIT has compiled it.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class IntIntHashMapBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of entries, default 1,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] keys = new Random(42).ints(n).toArray();
+
+        long boxed = retained(() -> {
+            HashMap<Integer, Integer> map = new HashMap<>();
+            for (int key : keys) {
+                map.put(key, key);
+            }
+            return map;
+        });
+        long primitive = retained(() -> {
+            IntIntHashMap map = new IntIntHashMap();
+            for (int key : keys) {
+                map.put(key, key);
+            }
+            return map;
+        });
+        System.out.printf("bytes/entry  HashMap %.1f  IntIntHashMap %.1f%n",
+                (double) boxed / n, (double) primitive / n);
+
+        HashMap<Integer, Integer> boxedMap = new HashMap<>();
+        IntIntHashMap primitiveMap = new IntIntHashMap();
+        for (int i = 0; i < WARMUP + ROUNDS; i++) {
+            long boxedPut = time(() -> {
+                boxedMap.clear();
+                for (int key : keys) {
+                    boxedMap.put(key, key);
+                }
+            });
+            long primitivePut = time(() -> {
+                primitiveMap.clear();
+                for (int key : keys) {
+                    primitiveMap.put(key, key);
+                }
+            });
+            long boxedGet = time(() -> {
+                long sum = 0;
+                for (int key : keys) {
+                    sum += boxedMap.get(key);
+                }
+                consume(sum);
+            });
+            long primitiveGet = time(() -> {
+                long sum = 0;
+                for (int key : keys) {
+                    sum += primitiveMap.get(key);
+                }
+                consume(sum);
+            });
+            if (i >= WARMUP) {
+                System.out.printf("put ops/us  HashMap %.1f  IntIntHashMap %.1f"
+                        + "   get ops/us  HashMap %.1f  IntIntHashMap %.1f%n",
+                        rate(n, boxedPut), rate(n, primitivePut),
+                        rate(n, boxedGet), rate(n, primitiveGet));
+            }
+        }
+    }
+
+    /**
+     * Measures the heap retained by whatever the builder returns.
+     *
+     * @param builder builds the structure to measure
+     * @return bytes of heap still in use while the structure is reachable
+     */
+    private static long retained(Supplier<Object> builder) {
+        long before = usedHeap();
+        Object held = builder.get();
+        long after = usedHeap();
+        consume(held.hashCode());
+        return after - before;
+    }
+
+    /**
+     * Returns the heap in use after asking for a full collection.
+     *
+     * @return used heap in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Times a single run of the task.
+     *
+     * @param task the work to time
+     * @return elapsed nanoseconds
+     */
+    private static long time(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Converts an operation count and elapsed time into operations per
+     * microsecond.
+     *
+     * @param ops number of operations
+     * @param nanos elapsed nanoseconds
+     * @return operations per microsecond
+     */
+    private static double rate(int ops, long nanos) {
+        return ops * 1000.0 / nanos;
+    }
+
+    /**
+     * Keeps a result alive so the JIT cannot drop the work producing it.
+     *
+     * @param value the result to keep
+     */
+    private static void consume(long value) {
+        sink += value;
+    }
+}
@@ -0,0 +1,112 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for IntIntHashMap and LongLongHashMap.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class IntIntHashMapTests {
+
+    private IntIntHashMap map;
+    private static final int TIMEOUT = 200;
+
+    @Before
+    public void setUp() {
+        map = new IntIntHashMap();
+        map.put(0, 10);
+        map.put(1, 11);
+        map.put(2, 12);
+        map.put(3, 13);
+        map.put(4, 14);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutAndGet() {
+        assertEquals(0, map.put(6, 16));
+        assertEquals(16, map.get(6));
+        assertEquals(13, map.put(3, 23));
+        assertEquals(23, map.get(3));
+        assertEquals(6, map.size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testNegativeKeys() {
+        map.put(-13, 1);
+        map.put(Integer.MIN_VALUE, 2);
+        assertEquals(1, map.get(-13));
+        assertEquals(2, map.get(Integer.MIN_VALUE));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRemoveReusesTombstone() {
+        assertEquals(13, map.remove(3));
+        assertFalse(map.containsKey(3));
+        assertEquals(4, map.size());
+        // 16 hashes to 3 in a table of 13 and lands on the removed slot
+        map.put(16, 26);
+        assertArrayEquals(new int[] {0, 1, 2, 16, 4}, map.keys());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutPastTombstoneFindsDuplicate() {
+        map.put(17, 27);
+        map.remove(4);
+        assertEquals(27, map.put(17, 37));
+        assertEquals(5, map.size());
+        assertEquals(37, map.get(17));
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testGetMissing() {
+        map.get(5);
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() {
+        map.remove(3);
+        map.remove(3);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRegrow() {
+        for (int i = 5; i < 10; i++) {
+            map.put(i, i + 10);
+        }
+        assertEquals(27, map.capacity());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 10, map.get(i));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testClear() {
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(IntIntHashMap.INITIAL_CAPACITY, map.capacity());
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLongMap() {
+        LongLongHashMap longMap = new LongLongHashMap();
+        for (long i = 0; i < 100; i++) {
+            longMap.put(i << 32, i);
+        }
+        assertEquals(100, longMap.size());
+        assertEquals(7L, longMap.remove(7L << 32));
+        assertFalse(longMap.containsKey(7L << 32));
+        assertTrue(longMap.containsKey(8L << 32));
+        assertEquals(99L, longMap.get(99L << 32));
+        assertEquals(0L, longMap.put(-1L, 5L));
+        assertEquals(5L, longMap.put(-1L, 6L));
+    }
+}
@@ -0,0 +1,490 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * A long to long version of HashMap that lives in a memory-mapped file
+ * instead of on the Java heap.
+ *
+ * The table uses HashMap's scheme: the home index is
+ * {@code |hash % capacity|}, collisions are resolved with linear probing,
+ * removed slots are kept as tombstones and reused by put, and the table
+ * grows to 2 * capacity + 1 once the load factor goes over
+ * {@code MAX_LOAD_FACTOR}.
+ *
+ * File layout, all numbers big-endian:
+ * <pre>
+ *   0   magic            long
+ *   8   version          int
+ *   16  capacity         long
+ *   24  size             long
+ *   64  slot states      one byte per slot (empty, occupied, removed)
+ *   ..  slot records     16 bytes per slot (key, value), 16-byte aligned
+ * </pre>
+ * The file is mapped in segments of {@code SEGMENT_SIZE} bytes, so a table
+ * can be larger than both the heap and the 2GB limit of one buffer.
+ * Reopening a table only reads the header, so it takes the same time no
+ * matter how many entries it holds.
+ *
+ * Growing writes a new table next to the file, moves it over the old one
+ * and maps it again. Writes are not crash-safe; call flush to force them to
+ * disk.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class MappedLongHashMap implements Closeable {
+
+    public static final int INITIAL_CAPACITY = HashMap.INITIAL_CAPACITY;
+    public static final double MAX_LOAD_FACTOR = HashMap.MAX_LOAD_FACTOR;
+    public static final int SEGMENT_SHIFT = 30;
+    public static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+    private static final long MAGIC = 0x484d41504c4f4e47L;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+    private static final int RECORD_SIZE = 16;
+
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte REMOVED = 2;
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer[] segments;
+    private long capacity;
+    private long size;
+    private long recordsStart;
+
+    /**
+     * Maps an existing table file.
+     *
+     * @param path the table file
+     * @throws IOException if the file cannot be opened or is not a table
+     */
+    private MappedLongHashMap(Path path) throws IOException {
+        this.path = path;
+        map();
+    }
+
+    /**
+     * Creates a new, empty table file, replacing any file at path.
+     *
+     * @param path where to create the table
+     * @param initialCapacity number of slots
+     * @return the new table
+     * @throws IllegalArgumentException if path is null or initialCapacity is
+     * non-positive
+     * @throws IOException if the file cannot be written
+     */
+    public static MappedLongHashMap create(Path path, long initialCapacity)
+            throws IOException {
+        if (path == null || initialCapacity <= 0) {
+            throw new IllegalArgumentException("Path cannot be null and "
+                    + "capacity must be positive");
+        }
+        writeEmptyTable(path, initialCapacity);
+        return new MappedLongHashMap(path);
+    }
+
+    /**
+     * Opens a table file written earlier by this class.
+     *
+     * @param path the table file
+     * @return the table
+     * @throws IllegalArgumentException if path is null
+     * @throws IOException if the file cannot be read or is not a table
+     */
+    public static MappedLongHashMap open(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        return new MappedLongHashMap(path);
+    }
+
+    /**
+     * Adds the given key-value pair to the table. If the key is already in
+     * the table its value is replaced.
+     *
+     * @param key key to add
+     * @param value value to add
+     * @return the old value associated with the key, or 0 if there was none
+     * @throws UncheckedIOException if growing the table fails
+     */
+    public long put(long key, long value) {
+        if ((double) size / (double) capacity > MAX_LOAD_FACTOR) {
+            try {
+                resizeBackingTable(capacity * 2 + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        long index = indexFor(key, capacity);
+        long removedIndex = -1;
+        long count = 0;
+        byte state = state(index);
+        while (state != EMPTY && count < capacity) {
+            if (state == REMOVED) {
+                if (removedIndex == -1) {
+                    removedIndex = index;
+                }
+            } else if (key(index) == key) {
+                long old = value(index);
+                setValue(index, value);
+                return old;
+            }
+            index = index + 1 == capacity ? 0 : index + 1;
+            count++;
+            state = state(index);
+        }
+        long putIndex = removedIndex != -1 ? removedIndex : index;
+        setKey(putIndex, key);
+        setValue(putIndex, value);
+        setState(putIndex, OCCUPIED);
+        setSize(size + 1);
+        return 0;
+    }
+
+    /**
+     * Removes the entry with a matching key from the table.
+     *
+     * @param key the key to remove
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public long remove(long key) {
+        long index = find(key);
+        if (index == -1) {
+            throw new NoSuchElementException("key does not exist");
+        }
+        setState(index, REMOVED);
+        setSize(size - 1);
+        return value(index);
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws java.util.NoSuchElementException if the key is not in the table
+     * @return the value associated with the given key
+     */
+    public long get(long key) {
+        long index = find(key);
+        if (index == -1) {
+            throw new NoSuchElementException("key is not in the map");
+        }
+        return value(index);
+    }
+
+    /**
+     * Returns whether or not the key is in the table.
+     *
+     * @param key the key to search for
+     * @return whether or not the key is in the table
+     */
+    public boolean containsKey(long key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Returns the number of entries in the table.
+     *
+     * @return number of entries
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return capacity of the table
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Grows or shrinks the table to the given number of slots, dropping every
+     * removed slot on the way. The new table is written to a temporary file
+     * that then replaces the table file.
+     *
+     * @param length the new number of slots
+     * @throws IllegalArgumentException if length is non-positive or less than
+     * the number of entries
+     * @throws IOException if the new table cannot be written
+     */
+    public void resizeBackingTable(long length) throws IOException {
+        if (length <= 0 || length < size) {
+            throw new IllegalArgumentException("Length given is not proper");
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".resize");
+        writeEmptyTable(tmp, length);
+        try (MappedLongHashMap resized = new MappedLongHashMap(tmp)) {
+            for (long i = 0; i < capacity; i++) {
+                if (state(i) == OCCUPIED) {
+                    resized.resizePut(key(i), value(i));
+                }
+            }
+            resized.setSize(size);
+            resized.flush();
+        }
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        map();
+    }
+
+    /**
+     * Forces every change made so far out to the file.
+     */
+    public void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flushes and closes the table. The mapped memory itself is released
+     * once the table object is garbage collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    /**
+     * Places a key known not to be in the table, for resizing.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    private void resizePut(long key, long value) {
+        long index = indexFor(key, capacity);
+        while (state(index) != EMPTY) {
+            index = index + 1 == capacity ? 0 : index + 1;
+        }
+        setKey(index, key);
+        setValue(index, value);
+        setState(index, OCCUPIED);
+    }
+
+    /**
+     * Finds the slot holding the given key, skipping over removed slots.
+     *
+     * @param key the key to search for
+     * @return the index of the key, or -1 if it is not in the table
+     */
+    private long find(long key) {
+        long index = indexFor(key, capacity);
+        long count = 0;
+        byte state = state(index);
+        while (state != EMPTY && count < capacity) {
+            if (state == OCCUPIED && key(index) == key) {
+                return index;
+            }
+            index = index + 1 == capacity ? 0 : index + 1;
+            count++;
+            state = state(index);
+        }
+        return -1;
+    }
+
+    /**
+     * Maps the table file and reads its header, checking that the file is
+     * long enough for the capacity the header gives.
+     *
+     * @throws IOException if the file cannot be mapped or is not a table
+     */
+    private void map() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            channel.close();
+            throw new IOException(path + " is not a MappedLongHashMap file");
+        }
+        int count = (int) ((fileSize + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+        segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start,
+                    Math.min(SEGMENT_SIZE, fileSize - start));
+        }
+        if (segments[0].getLong(0) != MAGIC
+                || segments[0].getInt(8) != VERSION) {
+            channel.close();
+            throw new IOException(path + " is not a MappedLongHashMap file");
+        }
+        capacity = segments[0].getLong(CAPACITY_OFFSET);
+        size = segments[0].getLong(SIZE_OFFSET);
+        // The largest capacity whose file length still fits in a long.
+        long maxCapacity = (Long.MAX_VALUE - HEADER_SIZE - RECORD_SIZE)
+                / (RECORD_SIZE + 1);
+        if (capacity <= 0 || capacity > maxCapacity || size < 0
+                || size > capacity || fileSize < recordsStart(capacity)
+                + capacity * RECORD_SIZE) {
+            channel.close();
+            throw new IOException(path + " has a bad header or is truncated");
+        }
+        recordsStart = recordsStart(capacity);
+    }
+
+    /**
+     * Writes the header of an empty table and sizes the file. The slot
+     * areas are left as the zero bytes the file is extended with.
+     *
+     * @param path where to write the table
+     * @param capacity number of slots
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeEmptyTable(Path path, long capacity)
+            throws IOException {
+        try (FileChannel out = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putLong(0, MAGIC);
+            header.putInt(8, VERSION);
+            header.putLong(CAPACITY_OFFSET, capacity);
+            header.putLong(SIZE_OFFSET, 0);
+            out.write(header, 0);
+            long end = recordsStart(capacity) + capacity * RECORD_SIZE;
+            out.write(ByteBuffer.allocate(1), end - 1);
+        }
+    }
+
+    /**
+     * Returns where the slot records start for a table of the given
+     * capacity: after the header and the state bytes, rounded up to a
+     * multiple of the record size so that no long crosses a segment.
+     *
+     * @param capacity number of slots
+     * @return byte offset of slot 0's record
+     */
+    private static long recordsStart(long capacity) {
+        long end = HEADER_SIZE + capacity;
+        return (end + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+    }
+
+    /**
+     * Computes the home index of a key, the same way as HashMap.
+     *
+     * @param key the key
+     * @param length number of slots
+     * @return the home index
+     */
+    private static long indexFor(long key, long length) {
+        return Math.abs(Long.hashCode(key) % length);
+    }
+
+    /**
+     * Updates the entry count in memory and in the header.
+     *
+     * @param newSize the new entry count
+     */
+    private void setSize(long newSize) {
+        size = newSize;
+        segments[0].putLong(SIZE_OFFSET, newSize);
+    }
+
+    /**
+     * Reads the state byte of a slot.
+     *
+     * @param index the slot
+     * @return EMPTY, OCCUPIED or REMOVED
+     */
+    private byte state(long index) {
+        long offset = HEADER_SIZE + index;
+        return segments[(int) (offset >>> SEGMENT_SHIFT)]
+                .get((int) (offset & (SEGMENT_SIZE - 1)));
+    }
+
+    /**
+     * Writes the state byte of a slot.
+     *
+     * @param index the slot
+     * @param state EMPTY, OCCUPIED or REMOVED
+     */
+    private void setState(long index, byte state) {
+        long offset = HEADER_SIZE + index;
+        segments[(int) (offset >>> SEGMENT_SHIFT)]
+                .put((int) (offset & (SEGMENT_SIZE - 1)), state);
+    }
+
+    /**
+     * Reads the key of a slot.
+     *
+     * @param index the slot
+     * @return the key
+     */
+    private long key(long index) {
+        return readLong(recordsStart + index * RECORD_SIZE);
+    }
+
+    /**
+     * Reads the value of a slot.
+     *
+     * @param index the slot
+     * @return the value
+     */
+    private long value(long index) {
+        return readLong(recordsStart + index * RECORD_SIZE + Long.BYTES);
+    }
+
+    /**
+     * Writes the key of a slot.
+     *
+     * @param index the slot
+     * @param key the key
+     */
+    private void setKey(long index, long key) {
+        writeLong(recordsStart + index * RECORD_SIZE, key);
+    }
+
+    /**
+     * Writes the value of a slot.
+     *
+     * @param index the slot
+     * @param value the value
+     */
+    private void setValue(long index, long value) {
+        writeLong(recordsStart + index * RECORD_SIZE + Long.BYTES, value);
+    }
+
+    /**
+     * Reads a long at a file offset.
+     *
+     * @param offset a multiple of 8
+     * @return the long stored there
+     */
+    private long readLong(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)]
+                .getLong((int) (offset & (SEGMENT_SIZE - 1)));
+    }
+
+    /**
+     * Writes a long at a file offset.
+     *
+     * @param offset a multiple of 8
+     * @param value the long to store
+     */
+    private void writeLong(long offset, long value) {
+        segments[(int) (offset >>> SEGMENT_SHIFT)]
+                .putLong((int) (offset & (SEGMENT_SIZE - 1)), value);
+    }
+}
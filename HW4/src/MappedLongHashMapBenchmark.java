@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Compares a cold start with MappedLongHashMap (open the file written by an
+ * earlier run) against rebuilding a HashMap&lt;Long, Long&gt; from the key
+ * list, as a process would on every start. Both sides then answer the same
+ * number of lookups, so the time to first useful result is comparable.
+ *
+ * Run with {@code java MappedLongHashMapBenchmark [entries] [file]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class MappedLongHashMapBenchmark {
+
+    private static final int LOOKUPS = 10_000;
+    private static final int ROUNDS = 5;
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of entries (default 5,000,000) and path of
+     *             the table file (default a temporary file)
+     * @throws IOException if the table file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Path file = args.length > 1 ? Paths.get(args[1])
+                : Files.createTempFile("mapped", ".table");
+        long[] keys = new Random(42).longs(n).toArray();
+
+        long start = System.nanoTime();
+        try (MappedLongHashMap map = MappedLongHashMap.create(file,
+                (long) (n / MappedLongHashMap.MAX_LOAD_FACTOR) + 1)) {
+            for (long key : keys) {
+                map.put(key, key);
+            }
+        }
+        System.out.printf("built %d entry table file in %.1f ms (%d MB)%n", n,
+                (System.nanoTime() - start) / 1e6, Files.size(file) >> 20);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            start = System.nanoTime();
+            try (MappedLongHashMap map = MappedLongHashMap.open(file)) {
+                long opened = System.nanoTime() - start;
+                long sum = 0;
+                for (int i = 0; i < LOOKUPS; i++) {
+                    sum += map.get(keys[i * (n / LOOKUPS)]);
+                }
+                long ready = System.nanoTime() - start;
+                sink += sum;
+                System.out.printf("round %d  mapped: open %8.3f ms, open + "
+                        + "%d gets %8.3f ms%n", round, opened / 1e6, LOOKUPS,
+                        ready / 1e6);
+            }
+
+            start = System.nanoTime();
+            HashMap<Long, Long> rebuilt = new HashMap<>();
+            for (long key : keys) {
+                rebuilt.put(key, key);
+            }
+            long built = System.nanoTime() - start;
+            long sum = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                sum += rebuilt.get(keys[i * (n / LOOKUPS)]);
+            }
+            long ready = System.nanoTime() - start;
+            sink += sum;
+            System.out.printf("round %d  HashMap: rebuild %8.3f ms, rebuild + "
+                    + "%d gets %8.3f ms%n", round, built / 1e6, LOOKUPS,
+                    ready / 1e6);
+        }
+        if (args.length < 2) {
+            Files.delete(file);
+        }
+    }
+}
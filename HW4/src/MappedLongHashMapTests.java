@@ -0,0 +1,142 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for MappedLongHashMap.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class MappedLongHashMapTests {
+
+    private Path file;
+    private MappedLongHashMap map;
+    private static final int TIMEOUT = 1000;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mapped", ".table");
+        map = MappedLongHashMap.create(file,
+                MappedLongHashMap.INITIAL_CAPACITY);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        map.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutGetRemove() {
+        assertEquals(0L, map.put(3, 30));
+        assertEquals(30L, map.put(3, 31));
+        assertEquals(31L, map.get(3));
+        assertEquals(1L, map.size());
+        assertEquals(31L, map.remove(3));
+        assertFalse(map.containsKey(3));
+        assertEquals(0L, map.size());
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testGetMissing() {
+        map.put(3, 30);
+        map.get(16);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTombstoneReuse() {
+        map.put(3, 30);
+        map.put(16, 160);
+        map.remove(3);
+        assertEquals(160L, map.get(16));
+        map.put(29, 290);
+        assertEquals(290L, map.get(29));
+        assertEquals(2L, map.size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGrowsLikeHashMap() {
+        for (long i = 0; i < 10; i++) {
+            map.put(i, i * 10);
+        }
+        assertEquals(27L, map.capacity());
+        for (long i = 0; i < 10; i++) {
+            assertEquals(i * 10, map.get(i));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testReopenKeepsEntries() throws IOException {
+        for (long i = -500; i < 500; i++) {
+            map.put(i << 20, i);
+        }
+        map.remove(7L << 20);
+        map.close();
+        map = MappedLongHashMap.open(file);
+        assertEquals(999L, map.size());
+        assertFalse(map.containsKey(7L << 20));
+        for (long i = -500; i < 500; i++) {
+            if (i != 7) {
+                assertEquals(i, map.get(i << 20));
+            }
+        }
+        map.put(7L << 20, 7);
+        assertTrue(map.containsKey(7L << 20));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IOException.class)
+    public void testOpenRejectsOtherFiles() throws IOException {
+        Path other = Files.createTempFile("mapped", ".txt");
+        try {
+            Files.write(other, new byte[100]);
+            MappedLongHashMap.open(other);
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IOException.class)
+    public void testOpenRejectsTruncatedFiles() throws IOException {
+        Path other = Files.createTempFile("mapped", ".table");
+        try {
+            MappedLongHashMap.create(other, 1000).close();
+            try (FileChannel channel = FileChannel.open(other,
+                    StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 1);
+            }
+            MappedLongHashMap.open(other);
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IOException.class)
+    public void testOpenRejectsBadCapacity() throws IOException {
+        Path other = Files.createTempFile("mapped", ".table");
+        try {
+            MappedLongHashMap.create(other, 1000).close();
+            try (FileChannel channel = FileChannel.open(other,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer capacity = ByteBuffer.allocate(Long.BYTES);
+                capacity.putLong(0, -1);
+                channel.write(capacity, 16);
+            }
+            MappedLongHashMap.open(other);
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+}
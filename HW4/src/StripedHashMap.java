@@ -0,0 +1,557 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe version of HashMap.
+ *
+ * The table uses the same layout as HashMap: open addressing with linear
+ * probing, and removed slots left behind as tombstones. Table lengths are
+ * powers of two and the hash is mixed like HashMap's POWER_OF_TWO mode.
+ *
+ * get and containsKey never lock. Each slot holds an immutable node, so a
+ * reader either sees a whole old mapping or a whole new one.
+ *
+ * put and remove lock one of {@code STRIPES} stripes picked by the key's
+ * hash, so writers of the same key are serialized and writers of different
+ * keys run in parallel. Claiming a slot is always a compare-and-set, because
+ * two keys from different stripes can probe into the same empty slot.
+ *
+ * Resizing is cooperative and incremental. The writer that sees the table
+ * over its load factor only allocates the next table and links it from the
+ * current one. From then on, every put and remove first migrates one chunk
+ * of {@code MIGRATION_CHUNK} slots (or, once every chunk is claimed, waits
+ * for the migration to finish), moves its own key to the next table if it
+ * is still in the old one, and then works on the next table. A migrated
+ * entry or tombstone is replaced by a MOVED marker, which probes step over
+ * as they would over a tombstone. An empty slot is replaced by a SEALED
+ * marker instead, which ends a probe just as the empty slot did, so
+ * probes in the migrated part of a table stay as short as they were.
+ * Readers that run out of a table with a next table linked carry on
+ * looking there. The last writer to finish a chunk makes the next table
+ * the current one.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class StripedHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = HashMap.MAX_LOAD_FACTOR;
+    public static final int STRIPES = 64;
+    public static final int MIGRATION_CHUNK = 64;
+
+    private static final Object TOMBSTONE = new Object();
+    private static final Object MOVED = new Object();
+    private static final Object SEALED = new Object();
+    private static final Object RETRY = new Object();
+    private static final Object NOT_FOUND = new Object();
+
+    private volatile Table table;
+    private final AtomicInteger size;
+    private final Object[] locks;
+
+    /**
+     * An immutable key-value pair stored in a slot.
+     */
+    private static final class Node {
+        private final int hash;
+        private final Object key;
+        private final Object value;
+
+        /**
+         * Creates a node.
+         *
+         * @param hash the mixed hash of the key
+         * @param key the key
+         * @param value the value
+         */
+        private Node(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * One backing table, plus the bookkeeping for migrating it to the next.
+     */
+    private static final class Table {
+        private final AtomicReferenceArray<Object> slots;
+        private final int mask;
+        private final AtomicInteger used = new AtomicInteger();
+        private final AtomicReference<Table> next = new AtomicReference<>();
+        private final AtomicInteger transferIndex = new AtomicInteger();
+        private final AtomicInteger migrated = new AtomicInteger();
+
+        /**
+         * Creates an empty table.
+         *
+         * @param length the number of slots, a power of two
+         */
+        private Table(int length) {
+            slots = new AtomicReferenceArray<>(length);
+            mask = length - 1;
+        }
+
+        /**
+         * Returns the number of slots.
+         *
+         * @return the table length
+         */
+        private int length() {
+            return mask + 1;
+        }
+    }
+
+    /**
+     * Create a map with no entries. The backing table has an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public StripedHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a map with no entries. The capacity is rounded up to a power of
+     * two.
+     *
+     * @param initialCapacity initial capacity of the backing table
+     * @throws IllegalArgumentException if initialCapacity is non-positive
+     */
+    public StripedHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int length = Integer.bitCount(initialCapacity) == 1 ? initialCapacity
+                : Integer.highestOneBit(initialCapacity) << 1;
+        table = new Table(length);
+        size = new AtomicInteger();
+        locks = new Object[STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If the key is already in the
+     * map its value is replaced.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("key and value cannot be null");
+        }
+        int hash = hash(key);
+        while (true) {
+            Table t = beforeWrite();
+            Object result;
+            synchronized (lockFor(hash)) {
+                result = putIn(t, hash, key, value);
+            }
+            if (result != RETRY) {
+                return asValue(result);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        int hash = hash(key);
+        while (true) {
+            Table t = beforeWrite();
+            Object result;
+            synchronized (lockFor(hash)) {
+                result = removeIn(t, hash, key);
+            }
+            if (result == NOT_FOUND) {
+                throw new NoSuchElementException("key does not exist");
+            } else if (result != RETRY) {
+                return asValue(result);
+            }
+        }
+    }
+
+    /**
+     * Gets the value associated with the given key. Never blocks.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        Node node = find(hash(key), key);
+        if (node == null) {
+            throw new NoSuchElementException("key is not in the map");
+        }
+        return asValue(node.value);
+    }
+
+    /**
+     * Returns whether or not the key is in the map. Never blocks.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        return find(hash(key), key) != null;
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the length of the current backing table.
+     *
+     * @return capacity of the current table
+     */
+    public int capacity() {
+        return table.length();
+    }
+
+    /**
+     * Looks the key up in the current table and then in every table linked
+     * after it.
+     *
+     * @param hash the mixed hash of the key
+     * @param key the key to search for
+     * @return the key's node, or null if it is not in the map
+     */
+    private Node find(int hash, Object key) {
+        return find(hash, key, null);
+    }
+
+    /**
+     * Looks the key up like find(hash, key), counting the slots examined.
+     *
+     * @param hash the mixed hash of the key
+     * @param key the key to search for
+     * @param probes if not null, probes[0] is increased by the number of
+     * slots examined
+     * @return the key's node, or null if it is not in the map
+     */
+    private Node find(int hash, Object key, int[] probes) {
+        for (Table t = table; t != null; t = t.next.get()) {
+            int index = hash & t.mask;
+            for (int count = 0; count <= t.mask; count++) {
+                Object slot = t.slots.get(index);
+                if (probes != null) {
+                    probes[0]++;
+                }
+                if (slot == null || slot == SEALED) {
+                    break;
+                }
+                if (slot instanceof Node) {
+                    Node node = (Node) slot;
+                    if (node.hash == hash && node.key.equals(key)) {
+                        return node;
+                    }
+                }
+                index = (index + 1) & t.mask;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns how many slots a lookup of the key examines, across every
+     * table it looks in. For tests.
+     *
+     * @param key the key to look up
+     * @return the number of slots examined
+     */
+    int probeLength(K key) {
+        int[] probes = new int[1];
+        find(hash(key), key, probes);
+        return probes[0];
+    }
+
+    /**
+     * Returns whether a resize has started and not yet finished. For tests.
+     *
+     * @return true if the current table has a next table linked
+     */
+    boolean isResizing() {
+        return table.next.get() != null;
+    }
+
+    /**
+     * Work every writer does before taking its stripe lock: start a resize
+     * if the current table is over its load factor, and help migrate one
+     * chunk if a resize is running. A writer that finds every chunk already
+     * claimed waits for the migration to finish, which bounds how much can
+     * be written to the next table before it becomes current. This must not
+     * run under a stripe lock, since migrating locks the stripes of the
+     * entries it moves.
+     *
+     * @return the table the write should start from
+     */
+    private Table beforeWrite() {
+        while (true) {
+            Table t = table;
+            if (t.next.get() == null) {
+                if (t.used.get() <= t.length() * MAX_LOAD_FACTOR) {
+                    return t;
+                }
+                int length = size.get() > t.length() / 4 ? t.length() * 2
+                        : t.length();
+                t.next.compareAndSet(null, new Table(length));
+            } else if (helpMigrate(t)) {
+                return table;
+            } else if (table == t) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Put, run under the key's stripe lock.
+     *
+     * @param t the table to put into
+     * @param hash the mixed hash of the key
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @return the old value, null if there was none, or RETRY if the table
+     * changed underneath and the put has to start over
+     */
+    private Object putIn(Table t, int hash, Object key, Object value) {
+        Table next = t.next.get();
+        if (next != null) {
+            moveKey(t, hash, key);
+            return putIn(next, hash, key, value);
+        }
+        int index = hash & t.mask;
+        int tombstone = -1;
+        int count = 0;
+        while (count <= t.mask) {
+            Object slot = t.slots.get(index);
+            if (slot == null) {
+                break;
+            } else if (slot == MOVED || slot == SEALED) {
+                return RETRY;
+            } else if (slot == TOMBSTONE) {
+                if (tombstone == -1) {
+                    tombstone = index;
+                }
+            } else {
+                Node node = (Node) slot;
+                if (node.hash == hash && node.key.equals(key)) {
+                    return t.slots.compareAndSet(index, node,
+                            new Node(hash, key, value)) ? node.value : RETRY;
+                }
+            }
+            index = (index + 1) & t.mask;
+            count++;
+        }
+        Node node = new Node(hash, key, value);
+        if (tombstone != -1) {
+            if (!t.slots.compareAndSet(tombstone, TOMBSTONE, node)) {
+                return RETRY;
+            }
+        } else if (count > t.mask
+                || !t.slots.compareAndSet(index, null, node)) {
+            return RETRY;
+        } else {
+            t.used.incrementAndGet();
+        }
+        size.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Remove, run under the key's stripe lock.
+     *
+     * @param t the table to remove from
+     * @param hash the mixed hash of the key
+     * @param key the key to remove
+     * @return the removed value, NOT_FOUND, or RETRY if the table changed
+     * underneath and the remove has to start over
+     */
+    private Object removeIn(Table t, int hash, Object key) {
+        Table next = t.next.get();
+        if (next != null) {
+            moveKey(t, hash, key);
+            return removeIn(next, hash, key);
+        }
+        int index = hash & t.mask;
+        for (int count = 0; count <= t.mask; count++) {
+            Object slot = t.slots.get(index);
+            if (slot == null) {
+                break;
+            } else if (slot == MOVED || slot == SEALED) {
+                return RETRY;
+            } else if (slot instanceof Node) {
+                Node node = (Node) slot;
+                if (node.hash == hash && node.key.equals(key)) {
+                    if (!t.slots.compareAndSet(index, node, TOMBSTONE)) {
+                        return RETRY;
+                    }
+                    size.decrementAndGet();
+                    return node.value;
+                }
+            }
+            index = (index + 1) & t.mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Moves the key's node, if it is still in t, to the next table. Run under
+     * the key's stripe lock, which is what keeps a migrating thread from
+     * moving the same node at the same time.
+     *
+     * @param t a table with a next table linked
+     * @param hash the mixed hash of the key
+     * @param key the key to move
+     */
+    private void moveKey(Table t, int hash, Object key) {
+        int index = hash & t.mask;
+        for (int count = 0; count <= t.mask; count++) {
+            Object slot = t.slots.get(index);
+            if (slot == null || slot == SEALED) {
+                return;
+            }
+            if (slot instanceof Node) {
+                Node node = (Node) slot;
+                if (node.hash == hash && node.key.equals(key)) {
+                    copyInto(t.next.get(), node);
+                    t.slots.set(index, MOVED);
+                    return;
+                }
+            }
+            index = (index + 1) & t.mask;
+        }
+    }
+
+    /**
+     * Claims the next unmigrated chunk of t, if any, and moves it to the
+     * next table. Tombstones are replaced with MOVED and empty slots with
+     * SEALED, so nothing new lands in them; an empty slot ended every probe
+     * that reached it, and SEALED still does. Whoever finishes the last
+     * chunk makes the next table current.
+     *
+     * @param t a table with a next table linked
+     * @return false if every chunk of t had already been claimed
+     */
+    private boolean helpMigrate(Table t) {
+        int start = t.transferIndex.getAndAdd(MIGRATION_CHUNK);
+        if (start >= t.length()) {
+            return false;
+        }
+        Table next = t.next.get();
+        int end = Math.min(start + MIGRATION_CHUNK, t.length());
+        for (int i = start; i < end; i++) {
+            boolean done = false;
+            while (!done) {
+                Object slot = t.slots.get(i);
+                if (slot == MOVED || slot == SEALED) {
+                    done = true;
+                } else if (slot == null) {
+                    done = t.slots.compareAndSet(i, null, SEALED);
+                } else if (slot == TOMBSTONE) {
+                    done = t.slots.compareAndSet(i, TOMBSTONE, MOVED);
+                } else {
+                    Node node = (Node) slot;
+                    synchronized (lockFor(node.hash)) {
+                        if (t.slots.get(i) == node) {
+                            copyInto(next, node);
+                            t.slots.set(i, MOVED);
+                            done = true;
+                        }
+                    }
+                }
+            }
+        }
+        if (t.migrated.addAndGet(end - start) == t.length()) {
+            table = next;
+        }
+        return true;
+    }
+
+    /**
+     * Adds a node whose key is known not to be in the table.
+     *
+     * @param t the table to add to, which is not itself being migrated
+     * @param node the node to add
+     */
+    private void copyInto(Table t, Node node) {
+        int index = node.hash & t.mask;
+        while (true) {
+            if (t.slots.get(index) == null
+                    && t.slots.compareAndSet(index, null, node)) {
+                t.used.incrementAndGet();
+                return;
+            }
+            index = (index + 1) & t.mask;
+        }
+    }
+
+    /**
+     * Returns the lock guarding writes to keys with the given hash.
+     *
+     * @param hash the mixed hash of a key
+     * @return the stripe lock
+     */
+    private Object lockFor(int hash) {
+        return locks[(hash >>> 16) & (STRIPES - 1)];
+    }
+
+    /**
+     * Casts a value read out of the table or returned by putIn or removeIn
+     * once the markers have been ruled out. Only put stores values, and
+     * every one it stores is a V.
+     *
+     * @param value a value stored by put
+     * @return the value as a V
+     */
+    @SuppressWarnings("unchecked")
+    private V asValue(Object value) {
+        return (V) value;
+    }
+
+    /**
+     * Mixes the key's hashCode the same way as HashMap's POWER_OF_TWO mode.
+     *
+     * @param key the key to hash
+     * @return the mixed hash
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
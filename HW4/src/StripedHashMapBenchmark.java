@@ -0,0 +1,168 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded throughput of StripedHashMap against HashMap behind one
+ * global lock, for thread counts from 1 up to the number of cores and for
+ * 90/10 and 50/50 read/write mixes. Writes are an even split of put and
+ * remove over a fixed key range, so the map stays about half full.
+ *
+ * Run with {@code java StripedHashMapBenchmark [keys] [millisPerCell]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class StripedHashMapBenchmark {
+
+    private static final int[] READ_PERCENTS = {90, 50};
+
+    /**
+     * The operations a benchmarked map has to support.
+     */
+    private interface Target {
+        /**
+         * Looks a key up.
+         *
+         * @param key the key
+         * @return whether it was present
+         */
+        boolean read(Integer key);
+
+        /**
+         * Puts the key if the flag is set, otherwise removes it if present.
+         *
+         * @param key the key
+         * @param put whether to put or remove
+         */
+        void write(Integer key, boolean put);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional key range (default 1,000,000) and milliseconds
+     *             per measurement (default 1000)
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        for (int reads : READ_PERCENTS) {
+            for (int threads : threadCounts) {
+                StripedHashMap<Integer, Integer> striped =
+                        new StripedHashMap<>();
+                HashMap<Integer, Integer> locked = new HashMap<>();
+                Target stripedTarget = new Target() {
+                    public boolean read(Integer key) {
+                        return striped.containsKey(key);
+                    }
+
+                    public void write(Integer key, boolean put) {
+                        if (put) {
+                            striped.put(key, key);
+                        } else if (striped.containsKey(key)) {
+                            try {
+                                striped.remove(key);
+                            } catch (NoSuchElementException e) {
+                                // lost the race to another remover
+                            }
+                        }
+                    }
+                };
+                Target lockedTarget = new Target() {
+                    public synchronized boolean read(Integer key) {
+                        return locked.containsKey(key);
+                    }
+
+                    public synchronized void write(Integer key, boolean put) {
+                        if (put) {
+                            locked.put(key, key);
+                        } else if (locked.containsKey(key)) {
+                            locked.remove(key);
+                        }
+                    }
+                };
+                double stripedRate = measure(stripedTarget, threads, reads,
+                        keys, millis);
+                double lockedRate = measure(lockedTarget, threads, reads,
+                        keys, millis);
+                System.out.printf("reads %d%%  threads %3d  StripedHashMap "
+                        + "%7.2f Mops/s  locked HashMap %7.2f Mops/s%n",
+                        reads, threads, stripedRate, lockedRate);
+            }
+        }
+    }
+
+    /**
+     * Runs the mix on the given number of threads for a fixed time.
+     *
+     * @param target the map to exercise
+     * @param threads number of threads
+     * @param readPercent percentage of operations that are reads
+     * @param keys size of the key range
+     * @param millis how long to measure
+     * @return million operations per second over all threads
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    private static double measure(Target target, int threads,
+                                  int readPercent, int keys, long millis)
+            throws InterruptedException {
+        Integer[] boxed = new Integer[keys];
+        for (int i = 0; i < keys; i++) {
+            boxed[i] = i;
+            if (i % 2 == 0) {
+                target.write(boxed[i], true);
+            }
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            Thread worker = new Thread(() -> {
+                Random random = new Random(seed);
+                long count = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (running.get()) {
+                    Integer key = boxed[random.nextInt(keys)];
+                    int roll = random.nextInt(100);
+                    if (roll < readPercent) {
+                        target.read(key);
+                    } else {
+                        target.write(key, (roll & 1) == 0);
+                    }
+                    count++;
+                }
+                ops.add(count);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return ops.sum() * 1000.0 / elapsed;
+    }
+}
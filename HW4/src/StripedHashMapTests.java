@@ -0,0 +1,222 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for StripedHashMap, single-threaded and under contention.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class StripedHashMapTests {
+
+    private StripedHashMap<Integer, String> map;
+    private static final int TIMEOUT = 200;
+    private static final int THREADS = 8;
+
+    @Before
+    public void setUp() {
+        map = new StripedHashMap<>();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPutGetRemove() {
+        assertNull(map.put(1, "A"));
+        assertEquals("A", map.put(1, "B"));
+        assertEquals("B", map.get(1));
+        assertTrue(map.containsKey(1));
+        assertEquals("B", map.remove(1));
+        assertFalse(map.containsKey(1));
+        assertEquals(0, map.size());
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testGetMissing() {
+        map.get(3);
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() {
+        map.put(3, "A");
+        map.remove(3);
+        map.remove(3);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullValue() {
+        map.put(3, null);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGrowsThroughIncrementalResize() {
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, "v" + i);
+            assertEquals("v" + (i / 2), map.get(i / 2));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals("v" + i, map.get(i));
+        }
+        assertEquals(10000, map.size());
+        assertTrue(map.capacity() >= 10000 / StripedHashMap.MAX_LOAD_FACTOR);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testProbesStayShortDuringResize() {
+        // Fill a table until a resize starts, then migrate about half of it
+        // with further puts, one chunk each. Lookups that start in the
+        // migrated half must stop where the slot used to be empty rather
+        // than walk the whole migrated prefix.
+        int capacity = 1 << 14;
+        map = new StripedHashMap<>(capacity);
+        int n = 0;
+        while (!map.isResizing()) {
+            map.put(n, "v" + n);
+            n++;
+        }
+        int chunks = capacity / StripedHashMap.MIGRATION_CHUNK;
+        for (int i = 0; i < chunks / 2; i++) {
+            map.put(n, "v" + n);
+            n++;
+        }
+        assertTrue(map.isResizing());
+        long hits = 0;
+        long misses = 0;
+        for (int i = 0; i < n; i++) {
+            assertEquals("v" + i, map.get(i));
+            hits += map.probeLength(i);
+            misses += map.probeLength(-1 - i);
+        }
+        assertTrue("average hit probe " + (double) hits / n,
+                hits < 10L * n);
+        assertTrue("average miss probe " + (double) misses / n,
+                misses < 20L * n);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testChurnPurgesTombstones() {
+        for (int i = 0; i < 20000; i++) {
+            map.put(i, "v");
+            map.remove(i);
+        }
+        assertEquals(0, map.size());
+        assertEquals(StripedHashMap.INITIAL_CAPACITY, map.capacity());
+    }
+
+    @Test(timeout = TIMEOUT * 10)
+    public void testConcurrentDisjointWriters() throws InterruptedException {
+        int perThread = 20000;
+        run(t -> {
+            for (int i = 0; i < perThread; i++) {
+                int key = t * perThread + i;
+                map.put(key, "v" + key);
+                if (i % 3 == 0) {
+                    map.remove(key);
+                }
+            }
+        });
+        int expected = 0;
+        for (int key = 0; key < THREADS * perThread; key++) {
+            boolean kept = key % perThread % 3 != 0;
+            assertEquals(kept, map.containsKey(key));
+            if (kept) {
+                assertEquals("v" + key, map.get(key));
+                expected++;
+            }
+        }
+        assertEquals(expected, map.size());
+    }
+
+    @Test(timeout = TIMEOUT * 10)
+    public void testReadersNeverSeeLostKeys() throws InterruptedException {
+        int stable = 1000;
+        for (int i = 0; i < stable; i++) {
+            map.put(-i - 1, "stable");
+        }
+        AtomicInteger misses = new AtomicInteger();
+        run(t -> {
+            for (int i = 0; i < 20000; i++) {
+                if (t % 2 == 0) {
+                    map.put(t * 100000 + i, "v");
+                } else if (!"stable".equals(map.get(-(i % stable) - 1))) {
+                    misses.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(0, misses.get());
+        assertEquals(stable + THREADS / 2 * 20000, map.size());
+    }
+
+    @Test(timeout = TIMEOUT * 10)
+    public void testContendedSameKeys() throws InterruptedException {
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        run(t -> {
+            for (int i = 0; i < 20000; i++) {
+                int key = i % 50;
+                if ((i + t) % 2 == 0) {
+                    if (map.put(key, "v") == null) {
+                        added.incrementAndGet();
+                    }
+                } else {
+                    try {
+                        map.remove(key);
+                        removed.incrementAndGet();
+                    } catch (NoSuchElementException e) {
+                        // another thread removed it first
+                    }
+                }
+            }
+        });
+        assertEquals(added.get() - removed.get(), map.size());
+    }
+
+    /**
+     * A task run by one numbered thread.
+     */
+    private interface Worker {
+        /**
+         * Runs the work for one thread.
+         *
+         * @param thread the thread number
+         */
+        void run(int thread);
+    }
+
+    /**
+     * Runs the worker on {@code THREADS} threads and waits for all of them,
+     * rethrowing the first failure.
+     *
+     * @param worker the work to run
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void run(Worker worker) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int id = i;
+            Thread thread = new Thread(() -> worker.run(id));
+            thread.setUncaughtExceptionHandler((th, e) -> {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.get(0));
+        }
+    }
+}
@@ -0,0 +1,565 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts files too large to sort in memory.
+ *
+ * A file is a sequence of fixed-width records, each ordered by a signed
+ * big-endian int key at a fixed offset in the record. A file of plain ints,
+ * as written by DataOutputStream, is the special case of 4-byte records
+ * keyed at offset 0.
+ *
+ * The sort runs in two phases. The run phase reads the input one chunk at a
+ * time, sorts each chunk in memory and spills it to a temporary run file. A
+ * chunk of ints is sorted with Sorting.lsdRadixSort and written back over
+ * itself. A chunk of other records is sorted by packing each key with the
+ * record's index into a long, sorting those with Sorting.lsdRadixSortLong and
+ * copying the records out in that order. The merge phase memory-maps a window
+ * of every run and merges them through a loser tree into the output, in a
+ * single pass. A single run is simply moved to the output. Equal keys keep
+ * their input order, since each chunk is sorted stably and ties between runs go
+ * to the earlier run.
+ *
+ * The memory budget bounds what is held at once. In the run phase that is
+ * everything a chunk needs while it is sorted: for ints, the chunk as read,
+ * an int[] of it and the radix sort's scratch array, 12 bytes an int; for
+ * other records, the chunk as read, its sorted copy, and a long[] of keys
+ * tagged with their index plus the radix sort's scratch array, twice the
+ * record length plus 16 bytes a record. In the merge phase it is the
+ * mapped windows and the output buffer. Run files go in the directory of
+ * the output, so they are on the same disk rather than in a temporary
+ * directory that may be in memory.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public final class ExternalSort {
+
+    /**
+     * The counters of one external sort. Bytes count everything read from
+     * and written to disk across both phases, run files included.
+     */
+    public static final class Statistics {
+        private int runs;
+        private long bytesRead;
+        private long bytesWritten;
+        private long runNanos;
+        private long mergeNanos;
+
+        /**
+         * Creates empty statistics. Only ExternalSort creates these.
+         */
+        private Statistics() {
+        }
+
+        /**
+         * Returns the number of sorted runs spilled in the run phase.
+         *
+         * @return the number of runs
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * Returns the number of bytes read from the input and the runs.
+         *
+         * @return bytes read
+         */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * Returns the number of bytes written to the runs and the output.
+         *
+         * @return bytes written
+         */
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        /**
+         * Returns the time spent reading, sorting and spilling chunks.
+         *
+         * @return run phase time in nanoseconds
+         */
+        public long getRunNanos() {
+            return runNanos;
+        }
+
+        /**
+         * Returns the time spent merging the runs into the output.
+         *
+         * @return merge phase time in nanoseconds
+         */
+        public long getMergeNanos() {
+            return mergeNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("runs=%d read=%d written=%d run=%.1fms "
+                    + "merge=%.1fms", runs, bytesRead, bytesWritten,
+                    runNanos / 1e6, mergeNanos / 1e6);
+        }
+    }
+
+    /**
+     * Not to be created.
+     */
+    private ExternalSort() {
+    }
+
+    /**
+     * Sorts a file of big-endian ints into the output file.
+     *
+     * @param input        the file to sort
+     * @param output       the file to write, replaced if it exists
+     * @param memoryBudget the most bytes to hold in memory at once
+     * @throws IllegalArgumentException if a path is null, the budget is
+     * below 24 bytes, or the input length is not a multiple of 4
+     * @throws IOException if a file cannot be read or written
+     * @return the statistics of the sort
+     */
+    public static Statistics sortInts(Path input, Path output,
+                                      long memoryBudget) throws IOException {
+        return sortRecords(input, output, Integer.BYTES, 0, memoryBudget);
+    }
+
+    /**
+     * Sorts a file of fixed-width records by an int key into the output
+     * file. The sort is stable.
+     *
+     * @param input        the file to sort
+     * @param output       the file to write, replaced if it exists
+     * @param recordLength the length of one record in bytes
+     * @param keyOffset    where the big-endian int key starts in a record
+     * @param memoryBudget the most bytes to hold in memory at once
+     * @throws IllegalArgumentException if a path is null, the key does not
+     * fit in the record, the budget cannot sort two records at once, or
+     * the input length is not a multiple of recordLength
+     * @throws IOException if a file cannot be read or written
+     * @return the statistics of the sort
+     */
+    public static Statistics sortRecords(Path input, Path output,
+                                         int recordLength, int keyOffset,
+                                         long memoryBudget)
+        throws IOException {
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Paths cannot be null");
+        }
+        if (keyOffset < 0 || recordLength - Integer.BYTES < keyOffset) {
+            throw new IllegalArgumentException("Key must fit in the record");
+        }
+        if (memoryBudget < 2 * sortingBytes(recordLength)) {
+            throw new IllegalArgumentException("Budget must hold two records");
+        }
+        if (Files.size(input) % recordLength != 0) {
+            throw new IllegalArgumentException("Input is not a whole number "
+                    + "of records");
+        }
+        Statistics statistics = new Statistics();
+        Path directory = output.toAbsolutePath().getParent();
+        List<Path> runs = new ArrayList<>();
+        try {
+            long start = System.nanoTime();
+            spillRuns(input, directory, recordLength, keyOffset,
+                    memoryBudget, runs, statistics);
+            statistics.runNanos = System.nanoTime() - start;
+            statistics.runs = runs.size();
+            start = System.nanoTime();
+            if (runs.size() == 1) {
+                Files.move(runs.get(0), output,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                mergeRuns(runs, output, recordLength, keyOffset,
+                        memoryBudget, statistics);
+            }
+            statistics.mergeNanos = System.nanoTime() - start;
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * The run phase: reads the input a chunk at a time, sorts each chunk
+     * and writes it to a new run file.
+     *
+     * @param input        the file to sort
+     * @param directory    where to create the run files
+     * @param recordLength the length of one record in bytes
+     * @param keyOffset    where the key starts in a record
+     * @param memoryBudget the most bytes to hold in memory at once
+     * @param runs         receives the run files, in input order
+     * @param statistics   the counters to update
+     * @throws IOException if a file cannot be read or written
+     */
+    private static void spillRuns(Path input, Path directory,
+                                  int recordLength, int keyOffset,
+                                  long memoryBudget, List<Path> runs,
+                                  Statistics statistics) throws IOException {
+        long records = Math.min(memoryBudget / sortingBytes(recordLength),
+                Integer.MAX_VALUE / recordLength);
+        ByteBuffer chunk = ByteBuffer.allocate((int) records * recordLength);
+        ByteBuffer sorted = recordLength == Integer.BYTES ? chunk
+                : ByteBuffer.allocate(chunk.capacity());
+        try (FileChannel in = FileChannel.open(input,
+                StandardOpenOption.READ)) {
+            while (readFully(in, chunk) > 0) {
+                chunk.flip();
+                statistics.bytesRead += chunk.remaining();
+                if (recordLength == Integer.BYTES) {
+                    sortInts(chunk);
+                } else {
+                    sorted.clear();
+                    sortRecords(chunk, sorted, recordLength, keyOffset);
+                    sorted.flip();
+                }
+                Path run = Files.createTempFile(directory, "run", ".tmp");
+                runs.add(run);
+                try (FileChannel out = FileChannel.open(run,
+                        StandardOpenOption.WRITE)) {
+                    statistics.bytesWritten += writeFully(out, sorted);
+                }
+                chunk.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes the run phase holds per record while it sorts a
+     * chunk, as laid out in the class comment.
+     *
+     * @param recordLength the length of one record in bytes
+     * @return the peak bytes per record
+     */
+    private static long sortingBytes(int recordLength) {
+        if (recordLength == Integer.BYTES) {
+            return 3L * Integer.BYTES;
+        }
+        return 2L * recordLength + 2L * Long.BYTES;
+    }
+
+    /**
+     * Sorts a chunk of ints in place with lsdRadixSort.
+     *
+     * @param chunk the ints, from position to limit, sorted on return
+     */
+    private static void sortInts(ByteBuffer chunk) {
+        IntBuffer ints = chunk.asIntBuffer();
+        int[] arr = new int[ints.remaining()];
+        ints.get(arr);
+        Sorting.lsdRadixSort(arr);
+        ints.rewind();
+        ints.put(arr);
+    }
+
+    /**
+     * Sorts a chunk of records by radix sorting their keys, each tagged
+     * with the record's index in its low 32 bits so that equal keys keep
+     * their order, then copies the records into sorted in that order.
+     *
+     * @param chunk        the records as read, from position to limit
+     * @param sorted       receives the sorted records
+     * @param recordLength the length of one record in bytes
+     * @param keyOffset    where the key starts in a record
+     */
+    private static void sortRecords(ByteBuffer chunk, ByteBuffer sorted,
+                                    int recordLength, int keyOffset) {
+        long[] order = new long[chunk.remaining() / recordLength];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (long) chunk.getInt(i * recordLength + keyOffset)
+                    << 32 | i;
+        }
+        Sorting.lsdRadixSortLong(order);
+        byte[] array = chunk.array();
+        for (long tagged : order) {
+            sorted.put(array, chunk.arrayOffset()
+                    + (int) tagged * recordLength, recordLength);
+        }
+    }
+
+    /**
+     * The merge phase: merges the runs into the output through a loser
+     * tree, reading each run through memory-mapped windows.
+     *
+     * @param runs         the run files, in input order
+     * @param output       the file to write
+     * @param recordLength the length of one record in bytes
+     * @param keyOffset    where the key starts in a record
+     * @param memoryBudget the most bytes to hold in memory at once
+     * @param statistics   the counters to update
+     * @throws IOException if a file cannot be read or written
+     */
+    private static void mergeRuns(List<Path> runs, Path output,
+                                  int recordLength, int keyOffset,
+                                  long memoryBudget, Statistics statistics)
+        throws IOException {
+        // Every run gets a window, and the output buffer one more.
+        long window = memoryBudget / (runs.size() + 1);
+        window = Math.max(recordLength, Math.min(window, Integer.MAX_VALUE)
+                / recordLength * recordLength);
+        RunReader[] readers = new RunReader[runs.size()];
+        try (FileChannel out = FileChannel.open(output,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new RunReader(runs.get(i), (int) window,
+                        recordLength, keyOffset);
+            }
+            if (readers.length == 0) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) window);
+            LoserTree tree = new LoserTree(readers);
+            for (int winner = tree.winner(); !readers[winner].done;
+                 winner = tree.replay(winner)) {
+                if (buffer.remaining() < recordLength) {
+                    buffer.flip();
+                    statistics.bytesWritten += writeFully(out, buffer);
+                    buffer.clear();
+                }
+                readers[winner].copyTo(buffer);
+                statistics.bytesRead += recordLength;
+                readers[winner].advance();
+            }
+            buffer.flip();
+            statistics.bytesWritten += writeFully(out, buffer);
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads from a channel until the buffer is full or the channel ends.
+     *
+     * @param in     the channel to read
+     * @param buffer the buffer to fill
+     * @throws IOException if the channel cannot be read
+     * @return the number of bytes read
+     */
+    private static int readFully(FileChannel in, ByteBuffer buffer)
+        throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Writes the whole of a buffer to a channel.
+     *
+     * @param out    the channel to write
+     * @param buffer the bytes to write, from position to limit
+     * @throws IOException if the channel cannot be written
+     * @return the number of bytes written
+     */
+    private static int writeFully(FileChannel out, ByteBuffer buffer)
+        throws IOException {
+        int total = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return total;
+    }
+
+    /**
+     * Reads one run a record at a time, mapping the next window of the file
+     * once the current one is used up.
+     */
+    private static final class RunReader {
+        private final FileChannel channel;
+        private final long length;
+        private final int window;
+        private final int recordLength;
+        private final int keyOffset;
+        private ByteBuffer mapped;
+        private ByteBuffer record;
+        private long mappedEnd;
+        private int key;
+        private boolean done;
+
+        /**
+         * Opens a run and positions it on its first record.
+         *
+         * @param run          the run file
+         * @param window       the most bytes to map at once, a multiple of
+         *                     recordLength
+         * @param recordLength the length of one record in bytes
+         * @param keyOffset    where the key starts in a record
+         * @throws IOException if the run cannot be read
+         */
+        private RunReader(Path run, int window, int recordLength,
+                          int keyOffset) throws IOException {
+            channel = FileChannel.open(run, StandardOpenOption.READ);
+            length = channel.size();
+            this.window = window;
+            this.recordLength = recordLength;
+            this.keyOffset = keyOffset;
+            mapped = ByteBuffer.allocate(0);
+            advance();
+        }
+
+        /**
+         * Moves past the current record, or to the first record if there is
+         * none yet, mapping the next window if needed.
+         *
+         * @throws IOException if the run cannot be read
+         */
+        private void advance() throws IOException {
+            if (mapped.hasRemaining()) {
+                mapped.position(mapped.position() + recordLength);
+            }
+            if (!mapped.hasRemaining()) {
+                if (mappedEnd == length) {
+                    done = true;
+                    return;
+                }
+                long size = Math.min(window, length - mappedEnd);
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                        mappedEnd, size);
+                record = mapped.duplicate();
+                mappedEnd += size;
+            }
+            key = mapped.getInt(mapped.position() + keyOffset);
+        }
+
+        /**
+         * Copies the current record into a buffer. A 4-byte record is its
+         * own key; a longer one is put in bulk through a second view of the
+         * window, narrowed to the record.
+         *
+         * @param buffer the buffer to copy into
+         */
+        private void copyTo(ByteBuffer buffer) {
+            if (recordLength == Integer.BYTES) {
+                buffer.putInt(key);
+                return;
+            }
+            int position = mapped.position();
+            record.limit(position + recordLength);
+            record.position(position);
+            buffer.put(record);
+        }
+
+        /**
+         * Closes the run file. The last mapped window stays valid until it
+         * is garbage collected.
+         *
+         * @throws IOException if the file cannot be closed
+         */
+        private void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * A tournament tree over the runs. Leaf i is run i, and each inner node
+     * keeps the loser of the match played there, so replacing the winner
+     * replays only the matches on its path to the root: log k comparisons
+     * for k runs, against about 2 log k for a binary heap.
+     */
+    private static final class LoserTree {
+        private final RunReader[] readers;
+        private final int[] tree;
+
+        /**
+         * Builds the tree by playing every match once.
+         *
+         * @param readers the runs, positioned on their first records
+         */
+        private LoserTree(RunReader[] readers) {
+            this.readers = readers;
+            tree = new int[readers.length];
+            tree[0] = build(1);
+        }
+
+        /**
+         * Plays the matches below a node.
+         *
+         * @param node the node, the root being 1 and the leaves being k to
+         *             2k - 1
+         * @return the run that wins at the node
+         */
+        private int build(int node) {
+            if (node >= tree.length) {
+                return node - tree.length;
+            }
+            int left = build(2 * node);
+            int right = build(2 * node + 1);
+            if (beats(left, right)) {
+                tree[node] = right;
+                return left;
+            }
+            tree[node] = left;
+            return right;
+        }
+
+        /**
+         * Returns the run holding the smallest current record.
+         *
+         * @return the winning run
+         */
+        private int winner() {
+            return tree[0];
+        }
+
+        /**
+         * Replays the matches of a run after it moved to its next record.
+         *
+         * @param run the previous winner
+         * @return the new winning run
+         */
+        private int replay(int run) {
+            int winner = run;
+            for (int node = (winner + tree.length) >>> 1; node > 0;
+                 node >>>= 1) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+            return winner;
+        }
+
+        /**
+         * Returns whether run a's record orders before run b's. A finished
+         * run loses to everything, and equal keys go to the earlier run.
+         *
+         * @param a a run
+         * @param b another run
+         * @return whether a wins
+         */
+        private boolean beats(int a, int b) {
+            if (readers[a].done || readers[b].done) {
+                return !readers[a].done
+                        || readers[b].done && a < b;
+            }
+            return readers[a].key < readers[b].key
+                    || readers[a].key == readers[b].key && a < b;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Writes a file of random ints and sorts it with ExternalSort.sortInts
+ * under a range of memory budgets, reporting the runs, bytes moved and
+ * time of each phase.
+ *
+ * Run with {@code java ExternalSortBenchmark [ints] [directory]}. The
+ * input, its runs and the output all go in the directory, the current one
+ * by default, so it needs room for three times the input.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class ExternalSortBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of ints, default 50,000,000, and the
+     *             directory to work in
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        Path directory = Paths.get(args.length > 1 ? args[1] : ".");
+        Path input = directory.resolve("externalsort.in");
+        Path output = directory.resolve("externalsort.out");
+        Random random = new Random(42);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(input)))) {
+            for (int i = 0; i < n; i++) {
+                out.writeInt(random.nextInt());
+            }
+        }
+        long size = Files.size(input);
+        try {
+            for (long budget = size * 2; budget >= size / 64; budget /= 4) {
+                ExternalSort.Statistics statistics =
+                        ExternalSort.sortInts(input, output, budget);
+                System.out.printf("budget %6.1f MB  %s%n", budget / 1e6,
+                        statistics);
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for ExternalSort.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class ExternalSortTests {
+
+    private static final int TIMEOUT = 2000;
+
+    private Path directory;
+    private Path input;
+    private Path output;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("externalsort");
+        input = directory.resolve("input");
+        output = directory.resolve("output");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.delete(directory);
+    }
+
+    /**
+     * Writes ints to the input file.
+     *
+     * @param ints the ints to write
+     * @throws IOException if the file cannot be written
+     */
+    private void writeInts(int[] ints) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ints.length * Integer.BYTES);
+        buffer.asIntBuffer().put(ints);
+        Files.write(input, buffer.array());
+    }
+
+    /**
+     * Reads the output file as ints.
+     *
+     * @return the ints in the output
+     * @throws IOException if the file cannot be read
+     */
+    private int[] readInts() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(output));
+        int[] ints = new int[buffer.remaining() / Integer.BYTES];
+        buffer.asIntBuffer().get(ints);
+        return ints;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testInts() throws IOException {
+        int[] ints = new Random(42).ints(100000).toArray();
+        ints[0] = Integer.MIN_VALUE;
+        ints[1] = Integer.MAX_VALUE;
+        writeInts(ints);
+        ExternalSort.Statistics statistics =
+                ExternalSort.sortInts(input, output, 64 * 1024);
+        Arrays.sort(ints);
+        assertArrayEquals(ints, readInts());
+        assertEquals(19, statistics.getRuns());
+        assertEquals(2L * 4 * ints.length, statistics.getBytesRead());
+        assertEquals(2L * 4 * ints.length, statistics.getBytesWritten());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals("run files are deleted", 2, files.count());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testOneRunAndEmpty() throws IOException {
+        writeInts(new int[] {3, -1, 2});
+        assertEquals(1, ExternalSort.sortInts(input, output, 1 << 20)
+                .getRuns());
+        assertArrayEquals(new int[] {-1, 2, 3}, readInts());
+        writeInts(new int[0]);
+        assertEquals(0, ExternalSort.sortInts(input, output, 1 << 20)
+                .getRuns());
+        assertArrayEquals(new int[0], readInts());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRecordsAreStable() throws IOException {
+        int n = 5000;
+        int length = 12;
+        Random random = new Random(42);
+        ByteBuffer records = ByteBuffer.allocate(n * length);
+        for (int i = 0; i < n; i++) {
+            records.putInt(i).putInt(random.nextInt(50) - 25).putInt(-i);
+        }
+        Files.write(input, records.array());
+        ExternalSort.Statistics statistics =
+                ExternalSort.sortRecords(input, output, length, 4, 4096);
+        assertEquals(50, statistics.getRuns());
+        ByteBuffer sorted = ByteBuffer.wrap(Files.readAllBytes(output));
+        assertEquals(n * length, sorted.remaining());
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int position = sorted.getInt();
+            int key = sorted.getInt();
+            assertEquals(-position, sorted.getInt());
+            long order = (long) key << 32 | position;
+            assertTrue(order > previous);
+            previous = order;
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testPartialRecord() throws IOException {
+        Files.write(input, new byte[] {1, 2, 3});
+        ExternalSort.sortInts(input, output, 1024);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testKeyOutsideRecord() throws IOException {
+        writeInts(new int[] {1, 2});
+        ExternalSort.sortRecords(input, output, 8, 6, 1024);
+    }
+}
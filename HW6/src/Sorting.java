@@ -1,5 +1,12 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Your implementation of various sorting algorithms.
@@ -8,6 +15,20 @@ import java.util.Comparator;
  * @version 1.9
  */
 public class Sorting {
+
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+    private static final int INSERTION_CUTOFF = 16;
+    private static final int MIN_RUN = 32;
+    private static final int MIN_GALLOP = 7;
+    private static final int PDQ_INSERTION_CUTOFF = 24;
+    private static final int NINTHER_THRESHOLD = 128;
+    private static final int PDQ_BLOCK = 64;
+    private static final int PARTIAL_INSERTION_LIMIT = 8;
+    private static final int RADIX = 1 << Byte.SIZE;
+    public static final int PARALLEL_RADIX_THRESHOLD = 1 << 16;
+    private static final int SMALL_BUCKET = 64;
+    private static final int TOP_K_INITIAL_CAPACITY = 16;
+
     /**
      * Implement bubble sort.
      * <p>
@@ -159,77 +180,1688 @@ public class Sorting {
     }
 
     /**
-     * Implement LSD (least significant digit) radix sort.
+     * Bottom-up merge sort that takes advantage of order already in the
+     * input, in the spirit of TimSort.
      * <p>
-     * Remember you CANNOT convert the ints to strings at any point in your
-     * code! Doing so may result in a 0 for the implementation.
+     * It is:
+     * stable
+     * adaptive
      * <p>
-     * It should be:
+     * Has a worst case running time of:
+     * O(n log n)
+     * <p>
+     * And a best case running time of:
+     * O(n)
+     * <p>
+     * The input is first cut into runs: each maximal ascending or strictly
+     * descending stretch is a run (descending ones are reversed in place),
+     * and runs shorter than {@code MIN_RUN} are extended with insertion
+     * sort. Neighbouring runs are then merged pairwise, level by level,
+     * through one buffer allocated once. A merge is skipped when the two
+     * runs are already in order, the parts of both runs that are already
+     * in place are trimmed off by binary search, and once one run wins
+     * {@code MIN_GALLOP} times in a row the merge gallops: it finds how many
+     * more elements that run wins by exponential search and copies them in
+     * one go.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws IllegalArgumentException if the array or comparator is null
+     */
+    public static <T> void adaptiveMergeSort(T[] arr,
+                                             Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new IllegalArgumentException("Array and "
+                    + "Comparator cannot be null!");
+        }
+        int n = arr.length;
+        int[] bounds = new int[n / MIN_RUN + 2];
+        int runs = 0;
+        for (int lo = 0; lo < n; runs++) {
+            bounds[runs] = lo;
+            int end = runEnd(arr, lo, comparator);
+            if (end - lo < MIN_RUN) {
+                int extended = Math.min(lo + MIN_RUN, n);
+                insertionSort(arr, lo, extended, comparator);
+                end = extended;
+            }
+            lo = end;
+        }
+        bounds[runs] = n;
+        T[] buffer = runs > 1 ? (T[]) new Object[n] : null;
+        while (runs > 1) {
+            int merged = 0;
+            for (int r = 0; r < runs; r += 2) {
+                if (r + 1 < runs) {
+                    gallopingMerge(arr, bounds[r], bounds[r + 1],
+                            bounds[r + 2], buffer, comparator);
+                }
+                bounds[merged++] = bounds[r];
+            }
+            bounds[merged] = n;
+            runs = merged;
+        }
+    }
+
+    /**
+     * Finds the end of the run starting at lo, reversing it first if it is
+     * strictly descending. Strictness keeps equal elements in order.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the run
+     * @param lo         first index of the run
+     * @param comparator the Comparator used to compare the data
+     * @return one past the last index of the run
+     */
+    private static <T> int runEnd(T[] arr, int lo, Comparator<T> comparator) {
+        int i = lo + 1;
+        if (i >= arr.length) {
+            return arr.length;
+        }
+        if (comparator.compare(arr[i], arr[lo]) < 0) {
+            while (i + 1 < arr.length
+                    && comparator.compare(arr[i + 1], arr[i]) < 0) {
+                i++;
+            }
+            for (int left = lo, right = i; left < right; left++, right--) {
+                T tmp = arr[left];
+                arr[left] = arr[right];
+                arr[right] = tmp;
+            }
+        } else {
+            while (i + 1 < arr.length
+                    && comparator.compare(arr[i + 1], arr[i]) >= 0) {
+                i++;
+            }
+        }
+        return i + 1;
+    }
+
+    /**
+     * Stable in-place merge of the sorted runs arr[lo, mid) and
+     * arr[mid, hi), using buffer for the part of the first run that has to
+     * move.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding both runs
+     * @param lo         first index of the first run
+     * @param mid        first index of the second run
+     * @param hi         one past the last index of the second run
+     * @param buffer     scratch space at least mid - lo long
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void gallopingMerge(T[] arr, int lo, int mid, int hi,
+                                           T[] buffer,
+                                           Comparator<T> comparator) {
+        if (comparator.compare(arr[mid - 1], arr[mid]) <= 0) {
+            return;
+        }
+        lo = gallop(arr, lo, mid, arr[mid], true, comparator);
+        hi = gallop(arr, mid, hi, arr[mid - 1], false, comparator);
+        int length1 = mid - lo;
+        System.arraycopy(arr, lo, buffer, 0, length1);
+        int i = 0;
+        int j = mid;
+        int k = lo;
+        int minGallop = MIN_GALLOP;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+            do {
+                if (comparator.compare(arr[j], buffer[i]) < 0) {
+                    arr[k++] = arr[j++];
+                    count2++;
+                    count1 = 0;
+                    if (j == hi) {
+                        break outer;
+                    }
+                } else {
+                    arr[k++] = buffer[i++];
+                    count1++;
+                    count2 = 0;
+                    if (i == length1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+            do {
+                count1 = gallop(buffer, i, length1, arr[j], true, comparator)
+                        - i;
+                System.arraycopy(buffer, i, arr, k, count1);
+                i += count1;
+                k += count1;
+                if (i == length1) {
+                    break outer;
+                }
+                arr[k++] = arr[j++];
+                if (j == hi) {
+                    break outer;
+                }
+                count2 = gallop(arr, j, hi, buffer[i], false, comparator) - j;
+                System.arraycopy(arr, j, arr, k, count2);
+                j += count2;
+                k += count2;
+                if (j == hi) {
+                    break outer;
+                }
+                arr[k++] = buffer[i++];
+                if (i == length1) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+            minGallop = Math.max(minGallop, 0) + 2;
+        }
+        System.arraycopy(buffer, i, arr, k, length1 - i);
+    }
+
+    /**
+     * Exponential search: probes arr[lo], arr[lo + 1], arr[lo + 3], ... to
+     * bracket the insertion point of key, then binary searches the bracket.
+     * Cheaper than a plain binary search when the answer is close to lo.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the sorted range
+     * @param lo         first index of the range
+     * @param hi         one past the last index of the range
+     * @param key        the element to search for
+     * @param strict     true to skip over elements equal to key
+     * @param comparator the Comparator used to compare the data
+     * @return the first index in arr[lo, hi) whose element is greater than
+     * key, or also equal to it if strict is false
+     */
+    private static <T> int gallop(T[] arr, int lo, int hi, T key,
+                                  boolean strict, Comparator<T> comparator) {
+        int start = lo;
+        int offset = 1;
+        while (offset <= hi - start) {
+            int cmp = comparator.compare(arr[start + offset - 1], key);
+            if (cmp > 0 || (!strict && cmp == 0)) {
+                hi = start + offset - 1;
+                break;
+            }
+            lo = start + offset;
+            offset <<= 1;
+        }
+        return insertionPoint(arr, lo, hi, key, strict, comparator);
+    }
+
+    /**
+     * Merge sort that splits the work across a fork/join pool.
+     * <p>
+     * It is:
      * stable
      * <p>
-     * Have a worst case running time of:
-     * O(kn)
+     * Has a worst case running time of:
+     * O(n log n), or O(n log n / p) on p cores
+     * <p>
+     * One auxiliary array the size of arr is allocated up front, and the two
+     * arrays swap roles at every level of the recursion, so no level copies
+     * or allocates halves. Ranges no longer than the threshold are sorted
+     * sequentially, and merges longer than it are split in two by binary
+     * search so the top levels run in parallel as well.
+     * <p>
+     * The work runs in the fork/join pool of the calling thread if it is a
+     * pool worker, otherwise in the common pool.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws IllegalArgumentException if the array or comparator is null
+     */
+    public static <T> void parallelMergeSort(T[] arr,
+                                             Comparator<T> comparator) {
+        parallelMergeSort(arr, comparator, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Merge sort that splits the work across a fork/join pool, forking only
+     * ranges longer than threshold.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @param threshold  the longest range sorted or merged without forking
+     * @throws IllegalArgumentException if the array or comparator is null,
+     *                                  or threshold is less than 2
+     * @see #parallelMergeSort(Object[], Comparator)
+     */
+    public static <T> void parallelMergeSort(T[] arr, Comparator<T> comparator,
+                                             int threshold) {
+        if (arr == null || comparator == null || threshold < 2) {
+            throw new IllegalArgumentException("Array and Comparator cannot "
+                    + "be null and threshold must be at least 2!");
+        }
+        if (arr.length > 1) {
+            T[] scratch = arr.clone();
+            ForkJoinTask.adapt(() -> parallelMergeSortInto(scratch, arr, 0,
+                    arr.length, comparator, threshold)).invoke();
+        }
+    }
+
+    /**
+     * Sorts src[lo, hi) into dst[lo, hi). Both ranges must hold the same
+     * elements on entry; src is used as scratch space.
+     *
+     * @param <T>        data type to sort
+     * @param src        the array whose range is used as scratch space
+     * @param dst        the array whose range ends up sorted
+     * @param lo         first index of the range
+     * @param hi         one past the last index of the range
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void mergeSortInto(T[] src, T[] dst, int lo, int hi,
+                                          Comparator<T> comparator) {
+        if (hi - lo <= INSERTION_CUTOFF) {
+            insertionSort(dst, lo, hi, comparator);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        mergeSortInto(dst, src, lo, mid, comparator);
+        mergeSortInto(dst, src, mid, hi, comparator);
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+        } else {
+            mergeRuns(src, lo, mid, mid, hi, dst, lo, comparator);
+        }
+    }
+
+    /**
+     * Stable merge of the sorted runs src[lo1, hi1) and src[lo2, hi2) into
+     * dst starting at out. On ties the first run goes first.
+     *
+     * @param <T>        data type to sort
+     * @param src        the array holding both runs
+     * @param lo1        first index of the first run
+     * @param hi1        one past the last index of the first run
+     * @param lo2        first index of the second run
+     * @param hi2        one past the last index of the second run
+     * @param dst        the array to merge into
+     * @param out        index of dst to write the first element to
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void mergeRuns(T[] src, int lo1, int hi1, int lo2,
+                                      int hi2, T[] dst, int out,
+                                      Comparator<T> comparator) {
+        while (lo1 < hi1 && lo2 < hi2) {
+            if (comparator.compare(src[lo1], src[lo2]) <= 0) {
+                dst[out++] = src[lo1++];
+            } else {
+                dst[out++] = src[lo2++];
+            }
+        }
+        System.arraycopy(src, lo1, dst, out, hi1 - lo1);
+        System.arraycopy(src, lo2, dst, out + hi1 - lo1, hi2 - lo2);
+    }
+
+    /**
+     * Insertion sort of arr[lo, hi).
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the range
+     * @param lo         first index of the range
+     * @param hi         one past the last index of the range
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void insertionSort(T[] arr, int lo, int hi,
+                                          Comparator<T> comparator) {
+        for (int i = lo + 1; i < hi; i++) {
+            T tmp = arr[i];
+            int j = i;
+            while (j > lo && comparator.compare(arr[j - 1], tmp) > 0) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = tmp;
+        }
+    }
+
+    /**
+     * Returns the first index in arr[lo, hi) whose element is greater than
+     * key, or also equal to it if strict is false.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the sorted range
+     * @param lo         first index of the range
+     * @param hi         one past the last index of the range
+     * @param key        the element to search for
+     * @param strict     true to skip over elements equal to key
+     * @param comparator the Comparator used to compare the data
+     * @return the insertion point of key
+     */
+    private static <T> int insertionPoint(T[] arr, int lo, int hi, T key,
+                                          boolean strict,
+                                          Comparator<T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = comparator.compare(arr[mid], key);
+            if (cmp < 0 || (strict && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The fork/join body of parallelMergeSort: sorts src[lo, hi) into
+     * dst[lo, hi), with src as scratch space, as mergeSortInto does, and
+     * sorts both halves of a range longer than the threshold in parallel.
+     *
+     * @param <T>        data type to sort
+     * @param src        the array used as scratch space
+     * @param dst        the array whose range ends up sorted
+     * @param lo         first index of the range
+     * @param hi         one past the last index of the range
+     * @param comparator the Comparator used to compare the data
+     * @param threshold  the longest range sorted without forking
+     */
+    private static <T> void parallelMergeSortInto(T[] src, T[] dst, int lo,
+                                                  int hi,
+                                                  Comparator<T> comparator,
+                                                  int threshold) {
+        if (hi - lo <= threshold) {
+            mergeSortInto(src, dst, lo, hi, comparator);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        ForkJoinTask.invokeAll(
+                ForkJoinTask.adapt(() -> parallelMergeSortInto(dst, src, lo,
+                        mid, comparator, threshold)),
+                ForkJoinTask.adapt(() -> parallelMergeSortInto(dst, src, mid,
+                        hi, comparator, threshold)));
+        parallelMergeRuns(src, lo, mid, mid, hi, dst, lo, comparator,
+                threshold);
+    }
+
+    /**
+     * Merges two sorted runs like mergeRuns. A merge longer than the
+     * threshold is split at the middle of the longer run; a binary search
+     * finds where that element goes in the other run, and the two halves
+     * are merged in parallel.
+     *
+     * @param <T>        data type to sort
+     * @param src        the array holding both runs
+     * @param lo1        first index of the first run
+     * @param hi1        one past the last index of the first run
+     * @param lo2        first index of the second run
+     * @param hi2        one past the last index of the second run
+     * @param dst        the array to merge into
+     * @param out        index of dst to write the first element to
+     * @param comparator the Comparator used to compare the data
+     * @param threshold  the longest merge done without forking
+     */
+    private static <T> void parallelMergeRuns(T[] src, int lo1, int hi1,
+                                              int lo2, int hi2, T[] dst,
+                                              int out,
+                                              Comparator<T> comparator,
+                                              int threshold) {
+        int length1 = hi1 - lo1;
+        int length2 = hi2 - lo2;
+        if (length1 + length2 <= threshold || length1 == 0 || length2 == 0) {
+            mergeRuns(src, lo1, hi1, lo2, hi2, dst, out, comparator);
+            return;
+        }
+        int split1;
+        int split2;
+        if (length1 >= length2) {
+            split1 = lo1 + length1 / 2;
+            split2 = insertionPoint(src, lo2, hi2, src[split1], false,
+                    comparator);
+        } else {
+            split2 = lo2 + length2 / 2;
+            split1 = insertionPoint(src, lo1, hi1, src[split2], true,
+                    comparator);
+        }
+        int outSplit = out + (split1 - lo1) + (split2 - lo2);
+        ForkJoinTask.invokeAll(
+                ForkJoinTask.adapt(() -> parallelMergeRuns(src, lo1, split1,
+                        lo2, split2, dst, out, comparator, threshold)),
+                ForkJoinTask.adapt(() -> parallelMergeRuns(src, split1, hi1,
+                        split2, hi2, dst, outSplit, comparator, threshold)));
+    }
+
+    /**
+     * Pattern-defeating quicksort: an in-place O(n log n) comparison sort
+     * that needs no buffer.
+     * <p>
+     * It is:
+     * in-place
+     * unstable
+     * adaptive
+     * <p>
+     * Has a worst case running time of:
+     * O(n log n)
      * <p>
      * And a best case running time of:
-     * O(kn)
+     * O(n)
      * <p>
-     * Refer to the PDF for more information on LSD Radix Sort.
+     * The pivot is the median of three elements, or for slices over
+     * {@code NINTHER_THRESHOLD} the median of three medians of three.
+     * Partitioning works in blocks in the style of BlockQuicksort: the
+     * indices of misplaced elements are collected into two small offset
+     * buffers first, and swapped in bulk afterwards, which keeps the
+     * comparison results out of the branches that move elements. Slices
+     * shorter than {@code PDQ_INSERTION_CUTOFF} are insertion sorted.
      * <p>
-     * You may use {@code java.util.ArrayList} or {@code java.util.LinkedList}
-     * if you wish, but it may only be used inside radix sort and any radix sort
-     * helpers. Do NOT use these classes with other sorts.
+     * The patterns that hurt quicksort are defused as follows:
+     * <ul>
+     * <li>A pivot equal to the element left of the slice means that
+     * element's run of duplicates is grouped in one pass and skipped.</li>
+     * <li>A partition that swapped nothing is followed by a bounded
+     * insertion sort, which finishes already sorted input in linear
+     * time.</li>
+     * <li>A very unbalanced partition shuffles a few elements to break the
+     * pattern. After log n of those, the slice falls back to heapsort,
+     * keeping the worst case O(n log n).</li>
+     * </ul>
      *
-     * @param arr the array to be sorted
-     * @throws IllegalArgumentException if the array is null
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws IllegalArgumentException if the array or comparator is null
      */
-    public static void lsdRadixSort(int[] arr) {
-        if (arr == null) {
-            throw new IllegalArgumentException("Array cannot be null");
+    public static <T> void pdqSort(T[] arr, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new IllegalArgumentException("Array and Comparator cannot "
+                    + "be null!");
         }
-        int div = 1;
-        int count = lsdRadix(arr);
-        ArrayList<Integer>[] bucket = new ArrayList[19];
-        for (int i = 0; i < count; i++) {
-            for (int item : arr) {
-                int j = (item / div) % 10;
-                if (bucket[j + 9] == null) {
-                    bucket[j + 9] = new ArrayList<>();
-                }
-                bucket[j + 9].add(item);
+        if (arr.length > 1) {
+            int badAllowed = Integer.SIZE - Integer.numberOfLeadingZeros(
+                    arr.length);
+            pdqLoop(arr, 0, arr.length, comparator, badAllowed, true,
+                    new int[PDQ_BLOCK], new int[PDQ_BLOCK]);
+        }
+    }
+
+    /**
+     * Sorts arr[lo, hi), recursing into the left side of each partition
+     * and looping on the right side.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the slice
+     * @param lo         first index of the slice
+     * @param hi         one past the last index of the slice
+     * @param comparator the Comparator used to compare the data
+     * @param badAllowed unbalanced partitions left before heapsort
+     * @param leftmost   whether the slice starts at the start of the array
+     * @param offsetsL   block buffer for the left side
+     * @param offsetsR   block buffer for the right side
+     */
+    private static <T> void pdqLoop(T[] arr, int lo, int hi,
+                                    Comparator<T> comparator, int badAllowed,
+                                    boolean leftmost, int[] offsetsL,
+                                    int[] offsetsR) {
+        while (true) {
+            int size = hi - lo;
+            if (size < PDQ_INSERTION_CUTOFF) {
+                insertionSort(arr, lo, hi, comparator);
+                return;
             }
-            int index = 0;
-            for (ArrayList<Integer> list : bucket) {
-                if (list != null) {
-                    for (int j = 0; j < list.size(); j++) {
-                        arr[index] = list.get(j);
-                        index++;
+            choosePivot(arr, lo, hi, comparator);
+            // Everything left of the slice is at most the pivot, so a pivot
+            // equal to its left neighbour is the smallest element here.
+            if (!leftmost && comparator.compare(arr[lo - 1], arr[lo]) >= 0) {
+                lo = partitionLeft(arr, lo, hi, comparator) + 1;
+                continue;
+            }
+            int pivot = partitionRight(arr, lo, hi, comparator, offsetsL,
+                    offsetsR);
+            boolean alreadyPartitioned = pivot < 0;
+            if (alreadyPartitioned) {
+                pivot = ~pivot;
+            }
+            int leftSize = pivot - lo;
+            int rightSize = hi - pivot - 1;
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                if (--badAllowed == 0) {
+                    heapSort(arr, lo, hi, comparator);
+                    return;
+                }
+                if (leftSize >= PDQ_INSERTION_CUTOFF) {
+                    swap(arr, lo, lo + leftSize / 4);
+                    swap(arr, pivot - 1, pivot - leftSize / 4);
+                    if (leftSize > NINTHER_THRESHOLD) {
+                        swap(arr, lo + 1, lo + leftSize / 4 + 1);
+                        swap(arr, lo + 2, lo + leftSize / 4 + 2);
+                        swap(arr, pivot - 2, pivot - leftSize / 4 - 1);
+                        swap(arr, pivot - 3, pivot - leftSize / 4 - 2);
+                    }
+                }
+                if (rightSize >= PDQ_INSERTION_CUTOFF) {
+                    swap(arr, pivot + 1, pivot + 1 + rightSize / 4);
+                    swap(arr, hi - 1, hi - rightSize / 4);
+                    if (rightSize > NINTHER_THRESHOLD) {
+                        swap(arr, pivot + 2, pivot + 2 + rightSize / 4);
+                        swap(arr, pivot + 3, pivot + 3 + rightSize / 4);
+                        swap(arr, hi - 2, hi - 1 - rightSize / 4);
+                        swap(arr, hi - 3, hi - 2 - rightSize / 4);
                     }
-                    list.clear();
                 }
+            } else if (alreadyPartitioned
+                    && partialInsertionSort(arr, lo, pivot, comparator)
+                    && partialInsertionSort(arr, pivot + 1, hi, comparator)) {
+                return;
             }
-            div *= 10;
+            pdqLoop(arr, lo, pivot, comparator, badAllowed, leftmost,
+                    offsetsL, offsetsR);
+            lo = pivot + 1;
+            leftmost = false;
         }
     }
 
     /**
+     * Rearranges arr so that arr[k] holds the element a full sort would put
+     * there, with no greater element before it and no smaller one after.
+     * <p>
+     * It is:
+     * in-place
+     * unstable
+     * <p>
+     * Has an expected running time of:
+     * O(n)
+     * <p>
+     * And a worst case running time of:
+     * O(n log n)
+     * <p>
+     * This is introselect: quickselect using the pivots and block
+     * partitioning of pdqSort, descending only into the side that holds k.
+     * Runs of an element equal to the one left of the slice are grouped and
+     * skipped in one pass. After log n badly unbalanced partitions the
+     * remaining slice is heapsorted instead.
      *
-     * @param arr The array to be sorted
-     * @return The number of digit for the max value
+     * @param <T>        data type to select from
+     * @param arr        the array to select from
+     * @param k          the 0-based rank of the element to find
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws IllegalArgumentException if the array or comparator is null,
+     * or k is not an index of arr
+     * @return the element of rank k
      */
-    private static int lsdRadix(int[] arr) {
-        int max = Math.abs(0);
-        for (int i = 0; i < arr.length; i++) {
-            if (Math.abs(arr[i]) > max) {
-                max = Math.abs(arr[i]);
-            } else if (arr[i] == Integer.MIN_VALUE) {
-                max = Integer.MAX_VALUE;
+    public static <T> T nthElement(T[] arr, int k, Comparator<T> comparator) {
+        if (arr == null || comparator == null || k < 0 || k >= arr.length) {
+            throw new IllegalArgumentException("Array and Comparator cannot "
+                    + "be null, and k must be an index of the array");
+        }
+        select(arr, 0, arr.length, k, comparator);
+        return arr[k];
+    }
+
+    /**
+     * Sorts the k smallest elements of arr into arr[0, k). The order of
+     * the rest of the array is unspecified.
+     * <p>
+     * It is:
+     * in-place
+     * unstable
+     * <p>
+     * Has an expected running time of:
+     * O(n + k log k)
+     * <p>
+     * The element of rank k - 1 is found with nthElement, which leaves the
+     * k smallest in front of it, and those are then sorted with pdqSort.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to partially sort
+     * @param k          how many of the smallest elements to sort
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws IllegalArgumentException if the array or comparator is null,
+     * or k is negative or greater than the length of arr
+     */
+    public static <T> void partialSort(T[] arr, int k,
+                                       Comparator<T> comparator) {
+        if (arr == null || comparator == null || k < 0 || k > arr.length) {
+            throw new IllegalArgumentException("Array and Comparator cannot "
+                    + "be null, and k must be from 0 to the array length");
+        }
+        if (k > 1) {
+            select(arr, 0, arr.length, k - 1, comparator);
+            pdqLoop(arr, 0, k - 1, comparator, Integer.SIZE
+                    - Integer.numberOfLeadingZeros(k), true,
+                    new int[PDQ_BLOCK], new int[PDQ_BLOCK]);
+        } else if (k == 1) {
+            select(arr, 0, arr.length, 0, comparator);
+        }
+    }
+
+    /**
+     * Returns the k smallest elements an iterator produces, in sorted
+     * order, holding at most k of them at a time.
+     * <p>
+     * Has a worst case running time of:
+     * O(n log k)
+     * <p>
+     * The elements are kept in a max-heap of at most k entries. Once it is
+     * full a new element only enters by replacing the largest, so each
+     * element costs one comparison against the root unless it makes the
+     * cut. Which of several equal elements make the cut is unspecified.
+     *
+     * @param <T>        data type to select from
+     * @param iterator   the elements to select from
+     * @param k          how many elements to keep
+     * @param comparator the Comparator used to compare the data
+     * @throws IllegalArgumentException if the iterator or comparator is
+     * null, or k is negative
+     * @return the k smallest elements in sorted order, or all of them if
+     * the iterator produced fewer than k
+     */
+    public static <T> List<T> topK(Iterator<T> iterator, int k,
+                                   Comparator<T> comparator) {
+        if (iterator == null || comparator == null || k < 0) {
+            throw new IllegalArgumentException("Iterator and Comparator "
+                    + "cannot be null, and k cannot be negative");
+        }
+        T[] heap = (T[]) new Object[Math.min(k, TOP_K_INITIAL_CAPACITY)];
+        int size = 0;
+        while (size < k && iterator.hasNext()) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, (int) Math.min(k,
+                        2L * heap.length));
+            }
+            heap[size++] = iterator.next();
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, 0, i, size, comparator);
+        }
+        while (k > 0 && iterator.hasNext()) {
+            T item = iterator.next();
+            if (comparator.compare(item, heap[0]) < 0) {
+                heap[0] = item;
+                siftDown(heap, 0, 0, size, comparator);
+            }
+        }
+        heapSort(heap, 0, size, comparator);
+        List<T> smallest = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            smallest.add(heap[i]);
+        }
+        return smallest;
+    }
+
+    /**
+     * Introselect on arr[lo, hi), which must contain index k.
+     *
+     * @param <T>        data type to select from
+     * @param arr        the array holding the slice
+     * @param lo         first index of the slice
+     * @param hi         one past the last index of the slice
+     * @param k          the index to settle
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void select(T[] arr, int lo, int hi, int k,
+                                  Comparator<T> comparator) {
+        int badAllowed = Integer.SIZE - Integer.numberOfLeadingZeros(hi - lo);
+        int[] offsetsL = new int[PDQ_BLOCK];
+        int[] offsetsR = new int[PDQ_BLOCK];
+        while (hi - lo >= PDQ_INSERTION_CUTOFF) {
+            int size = hi - lo;
+            choosePivot(arr, lo, hi, comparator);
+            int pivot;
+            if (lo > 0 && comparator.compare(arr[lo - 1], arr[lo]) >= 0) {
+                // arr[lo, pivot] are now all equal to the pivot.
+                pivot = partitionLeft(arr, lo, hi, comparator);
+                if (k <= pivot) {
+                    return;
+                }
+            } else {
+                pivot = partitionRight(arr, lo, hi, comparator, offsetsL,
+                        offsetsR);
+                pivot = pivot < 0 ? ~pivot : pivot;
+                if (k == pivot) {
+                    return;
+                }
+            }
+            boolean unbalanced = pivot - lo < size / 8
+                    || hi - pivot - 1 < size / 8;
+            if (k < pivot) {
+                hi = pivot;
+            } else {
+                lo = pivot + 1;
             }
+            if (unbalanced && --badAllowed == 0) {
+                heapSort(arr, lo, hi, comparator);
+                return;
+            }
+        }
+        insertionSort(arr, lo, hi, comparator);
+    }
+
+    /**
+     * Moves the median of three elements of arr[lo, hi), or the ninther
+     * for slices over {@code NINTHER_THRESHOLD}, to arr[lo] to serve as the
+     * pivot. The slice must hold at least {@code PDQ_INSERTION_CUTOFF}
+     * elements.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the slice
+     * @param lo         first index of the slice
+     * @param hi         one past the last index of the slice
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void choosePivot(T[] arr, int lo, int hi,
+                                        Comparator<T> comparator) {
+        int half = (hi - lo) / 2;
+        if (hi - lo > NINTHER_THRESHOLD) {
+            sort3(arr, lo, lo + half, hi - 1, comparator);
+            sort3(arr, lo + 1, lo + half - 1, hi - 2, comparator);
+            sort3(arr, lo + 2, lo + half + 1, hi - 3, comparator);
+            sort3(arr, lo + half - 1, lo + half, lo + half + 1, comparator);
+            swap(arr, lo, lo + half);
+        } else {
+            sort3(arr, lo + half, lo, hi - 1, comparator);
+        }
+    }
+
+    /**
+     * Partitions arr[lo, hi) around the pivot at arr[lo] into elements
+     * less than the pivot, then the pivot, then the rest. The block loop
+     * records the offset of every element on the wrong side of each block
+     * unconditionally, and only advances the count when the element is
+     * misplaced; matching pairs of offsets are then swapped.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the slice
+     * @param lo         first index of the slice, holding the pivot
+     * @param hi         one past the last index of the slice
+     * @param comparator the Comparator used to compare the data
+     * @param offsetsL   block buffer for the left side
+     * @param offsetsR   block buffer for the right side
+     * @return the final index of the pivot, or its bitwise complement if
+     * the slice was already partitioned and nothing was swapped
+     */
+    private static <T> int partitionRight(T[] arr, int lo, int hi,
+                                          Comparator<T> comparator,
+                                          int[] offsetsL, int[] offsetsR) {
+        T pivot = arr[lo];
+        int first = lo;
+        int last = hi;
+        // The median-of-three guarantees an element at least the pivot.
+        do {
+            first++;
+        } while (comparator.compare(arr[first], pivot) < 0);
+        // Find the last element less than the pivot. Only when nothing
+        // was skipped above can that search run off the slice.
+        if (first - 1 == lo) {
+            while (first < last) {
+                if (comparator.compare(arr[--last], pivot) < 0) {
+                    break;
+                }
+            }
+        } else {
+            do {
+                last--;
+            } while (comparator.compare(arr[last], pivot) >= 0);
         }
-        int digits = 0;
-        while (!(max == 0)) {
-            max /= 10;
-            digits++;
+        boolean alreadyPartitioned = first >= last;
+        if (!alreadyPartitioned) {
+            swap(arr, first, last);
+            first++;
+            int baseL = first;
+            int baseR = last;
+            int numL = 0;
+            int numR = 0;
+            int startL = 0;
+            int startR = 0;
+            while (first < last) {
+                int unknown = last - first;
+                int splitL = numL == 0 ? (numR == 0 ? unknown / 2 : unknown)
+                        : 0;
+                int splitR = numR == 0 ? unknown - splitL : 0;
+                splitL = Math.min(splitL, PDQ_BLOCK);
+                splitR = Math.min(splitR, PDQ_BLOCK);
+                for (int i = 0; i < splitL; i++) {
+                    offsetsL[numL] = first - baseL;
+                    numL += comparator.compare(arr[first++], pivot) >= 0
+                            ? 1 : 0;
+                }
+                for (int i = 0; i < splitR; i++) {
+                    offsetsR[numR] = baseR - --last;
+                    numR += comparator.compare(arr[last], pivot) < 0 ? 1 : 0;
+                }
+                int num = Math.min(numL, numR);
+                for (int i = 0; i < num; i++) {
+                    swap(arr, baseL + offsetsL[startL + i],
+                            baseR - offsetsR[startR + i]);
+                }
+                numL -= num;
+                numR -= num;
+                startL += num;
+                startR += num;
+                if (numL == 0) {
+                    startL = 0;
+                    baseL = first;
+                }
+                if (numR == 0) {
+                    startR = 0;
+                    baseR = last;
+                }
+            }
+            // At most one side still has misplaced elements. They are
+            // swapped to the far end of that side, where the other side
+            // begins.
+            if (numL > 0) {
+                while (numL > 0) {
+                    swap(arr, baseL + offsetsL[startL + --numL], --last);
+                }
+                first = last;
+            }
+            if (numR > 0) {
+                while (numR > 0) {
+                    swap(arr, baseR - offsetsR[startR + --numR], first++);
+                }
+            }
         }
-        return digits;
+        int pivotIndex = first - 1;
+        arr[lo] = arr[pivotIndex];
+        arr[pivotIndex] = pivot;
+        return alreadyPartitioned ? ~pivotIndex : pivotIndex;
+    }
+
+    /**
+     * Partitions arr[lo, hi) around the pivot at arr[lo] into elements
+     * equal to the pivot, then everything greater. Only called when no
+     * element of the slice is less than the pivot, so this groups a run of
+     * duplicates in one pass.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the slice
+     * @param lo         first index of the slice, holding the pivot
+     * @param hi         one past the last index of the slice
+     * @param comparator the Comparator used to compare the data
+     * @return the final index of the pivot
+     */
+    private static <T> int partitionLeft(T[] arr, int lo, int hi,
+                                         Comparator<T> comparator) {
+        T pivot = arr[lo];
+        int first = lo;
+        int last = hi;
+        do {
+            last--;
+        } while (comparator.compare(pivot, arr[last]) < 0);
+        if (last + 1 == hi) {
+            while (first < last) {
+                if (comparator.compare(pivot, arr[++first]) < 0) {
+                    break;
+                }
+            }
+        } else {
+            do {
+                first++;
+            } while (comparator.compare(pivot, arr[first]) >= 0);
+        }
+        while (first < last) {
+            swap(arr, first, last);
+            do {
+                last--;
+            } while (comparator.compare(pivot, arr[last]) < 0);
+            do {
+                first++;
+            } while (comparator.compare(pivot, arr[first]) >= 0);
+        }
+        arr[lo] = arr[last];
+        arr[last] = pivot;
+        return last;
+    }
+
+    /**
+     * Insertion sorts arr[lo, hi), but gives up once it has moved more
+     * than {@code PARTIAL_INSERTION_LIMIT} elements.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the slice
+     * @param lo         first index of the slice
+     * @param hi         one past the last index of the slice
+     * @param comparator the Comparator used to compare the data
+     * @return whether the slice is now sorted
+     */
+    private static <T> boolean partialInsertionSort(T[] arr, int lo,
+                                                    int hi,
+                                                    Comparator<T> comparator) {
+        int moved = 0;
+        for (int i = lo + 1; i < hi; i++) {
+            if (comparator.compare(arr[i], arr[i - 1]) < 0) {
+                T tmp = arr[i];
+                int j = i;
+                do {
+                    arr[j] = arr[j - 1];
+                    j--;
+                } while (j > lo && comparator.compare(tmp, arr[j - 1]) < 0);
+                arr[j] = tmp;
+                moved += i - j;
+                if (moved > PARTIAL_INSERTION_LIMIT) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts three elements of arr into index order.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the elements
+     * @param a          index of the element to end up smallest
+     * @param b          index of the middle element
+     * @param c          index of the element to end up largest
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void sort3(T[] arr, int a, int b, int c,
+                                  Comparator<T> comparator) {
+        if (comparator.compare(arr[b], arr[a]) < 0) {
+            swap(arr, a, b);
+        }
+        if (comparator.compare(arr[c], arr[b]) < 0) {
+            swap(arr, b, c);
+            if (comparator.compare(arr[b], arr[a]) < 0) {
+                swap(arr, a, b);
+            }
+        }
+    }
+
+    /**
+     * Swaps two elements of arr.
+     *
+     * @param <T> data type of the array
+     * @param arr the array
+     * @param i   index of one element
+     * @param j   index of the other element
+     */
+    private static <T> void swap(T[] arr, int i, int j) {
+        T tmp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = tmp;
+    }
+
+    /**
+     * Heapsort of arr[lo, hi), the fallback that bounds pdqSort at
+     * O(n log n).
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the slice
+     * @param lo         first index of the slice
+     * @param hi         one past the last index of the slice
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void heapSort(T[] arr, int lo, int hi,
+                                     Comparator<T> comparator) {
+        int size = hi - lo;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, lo, i, size, comparator);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(arr, lo, lo + end);
+            siftDown(arr, lo, 0, end, comparator);
+        }
+    }
+
+    /**
+     * Moves an element of a max-heap down until both its children are no
+     * greater than it.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array holding the heap
+     * @param lo         index of the heap's root
+     * @param i          heap position of the element, relative to lo
+     * @param size       number of elements in the heap
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void siftDown(T[] arr, int lo, int i, int size,
+                                     Comparator<T> comparator) {
+        T item = arr[lo + i];
+        int child = 2 * i + 1;
+        while (child < size) {
+            if (child + 1 < size && comparator.compare(arr[lo + child],
+                    arr[lo + child + 1]) < 0) {
+                child++;
+            }
+            if (comparator.compare(item, arr[lo + child]) >= 0) {
+                break;
+            }
+            arr[lo + i] = arr[lo + child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        arr[lo + i] = item;
+    }
+
+    /**
+     * Implement LSD (least significant digit) radix sort.
+     * <p>
+     * Remember you CANNOT convert the ints to strings at any point in your
+     * code! Doing so may result in a 0 for the implementation.
+     * <p>
+     * It should be:
+     * stable
+     * <p>
+     * Have a worst case running time of:
+     * O(kn)
+     * <p>
+     * And a best case running time of:
+     * O(kn)
+     * <p>
+     * The digits are bytes, so k is at most 4. The histograms of all four
+     * digits are counted in a single pass up front, and each digit is then
+     * one counting pass that scatters between arr and one int[] scratch
+     * buffer. The top digit has its sign bit flipped so negatives come
+     * first, and a digit that every element shares is skipped.
+     *
+     * @param arr the array to be sorted
+     * @throws IllegalArgumentException if the array is null
+     */
+    public static void lsdRadixSort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+        radixSortInts(arr);
+    }
+
+    /**
+     * LSD radix sort of longs, byte by byte like lsdRadixSort, so k
+     * is at most 8.
+     *
+     * @param arr the array to be sorted
+     * @throws IllegalArgumentException if the array is null
+     */
+    public static void lsdRadixSortLong(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+        radixSortLongs(arr);
+    }
+
+    /**
+     * LSD radix sort of floats, in the order of Arrays.sort: -0.0f before
+     * 0.0f and NaN last. Each float's bits are turned into an int that
+     * sorts the same way (negative floats have every bit but the sign
+     * flipped), the ints are radix sorted and the floats rebuilt from them.
+     * Every NaN comes out as the canonical Float.NaN.
+     *
+     * @param arr the array to be sorted
+     * @throws IllegalArgumentException if the array is null
+     */
+    public static void lsdRadixSortFloat(float[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+        int[] keys = new int[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            int bits = Float.floatToIntBits(arr[i]);
+            keys[i] = bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+        }
+        radixSortInts(keys);
+        for (int i = 0; i < arr.length; i++) {
+            int key = keys[i];
+            arr[i] = Float.intBitsToFloat(key ^ ((key >> 31)
+                    & Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * LSD radix sort of doubles, in the order of Arrays.sort, using the
+     * same bit trick as lsdRadixSortFloat on longs.
+     *
+     * @param arr the array to be sorted
+     * @throws IllegalArgumentException if the array is null
+     */
+    public static void lsdRadixSortDouble(double[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+        long[] keys = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            long bits = Double.doubleToLongBits(arr[i]);
+            keys[i] = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+        radixSortLongs(keys);
+        for (int i = 0; i < arr.length; i++) {
+            long key = keys[i];
+            arr[i] = Double.longBitsToDouble(key ^ ((key >> 63)
+                    & Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Parallel radix sort of ints, in the same order as lsdRadixSort.
+     * <p>
+     * Arrays of at least {@code PARALLEL_RADIX_THRESHOLD} elements are cut
+     * into chunks, one fork/join task per chunk. Each task counts a
+     * histogram of the top byte of its chunk, and then scatters the chunk
+     * into a scratch buffer at offsets worked out from all the histograms,
+     * which keeps the scatter stable. Each of the resulting 256 buckets is
+     * then sorted by its own task on the remaining bytes. A bucket still
+     * above the threshold is split the same way on the next byte, so a
+     * skewed input still spreads across cores. Smaller buckets go through
+     * the sequential LSD engine, and buckets of at most
+     * {@code SMALL_BUCKET} elements go through insertion sort.
+     * <p>
+     * The work runs in the fork/join pool of the calling thread if it is a
+     * pool worker, otherwise in the common pool.
+     *
+     * @param arr the array to be sorted
+     * @throws IllegalArgumentException if the array is null
+     */
+    public static void parallelRadixSort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+        sortInts(arr, new int[arr.length], 0, arr.length,
+                Integer.BYTES - 1);
+    }
+
+    /**
+     * Parallel radix sort of longs, in the same order as lsdRadixSortLong,
+     * working as parallelRadixSort does.
+     *
+     * @param arr the array to be sorted
+     * @throws IllegalArgumentException if the array is null
+     */
+    public static void parallelRadixSortLong(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+        sortLongs(arr, new long[arr.length], 0, arr.length,
+                Long.BYTES - 1);
+    }
+
+    /**
+     * Stable sort of objects by an int key, using radix sort instead of
+     * comparisons.
+     * <p>
+     * The key of every element is extracted exactly once. Each key is
+     * packed with its element's index into a long, key in the high half and
+     * index in the low half, and the longs are sorted with the LSD engine.
+     * Equal keys are then ordered by index, which makes the sort stable,
+     * and the low halves give the sorted order of the elements. Finally the
+     * array is permuted into that order in place.
+     * <p>
+     * Have a worst case running time of:
+     * O(kn)
+     * <p>
+     * And a best case running time of:
+     * O(kn)
+     * <p>
+     * where k is at most 8, fewer when the keys or indices share bytes.
+     *
+     * @param <T>          data type to sort
+     * @param arr          the array to be sorted
+     * @param keyExtractor gives the key of an element
+     * @throws IllegalArgumentException if the array or key extractor is null
+     */
+    public static <T> void sortByIntKey(T[] arr,
+                                        ToIntFunction<T> keyExtractor) {
+        if (arr == null || keyExtractor == null) {
+            throw new IllegalArgumentException("Array and key extractor "
+                    + "cannot be null");
+        }
+        long[] packed = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            packed[i] = (long) keyExtractor.applyAsInt(arr[i]) << Integer.SIZE
+                    | i;
+        }
+        radixSortLongs(packed);
+        int[] order = new int[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        permute(arr, order);
+    }
+
+    /**
+     * Stable sort of objects by a long key, using radix sort instead of
+     * comparisons.
+     * <p>
+     * The key of every element is extracted exactly once into a long[],
+     * and an int[] of indices is radix sorted alongside the keys, byte by
+     * byte as in lsdRadixSortLong. The array is then permuted into the
+     * sorted order of the indices in place.
+     * <p>
+     * Have a worst case running time of:
+     * O(kn)
+     * <p>
+     * And a best case running time of:
+     * O(kn)
+     * <p>
+     * where k is at most 8.
+     *
+     * @param <T>          data type to sort
+     * @param arr          the array to be sorted
+     * @param keyExtractor gives the key of an element
+     * @throws IllegalArgumentException if the array or key extractor is null
+     */
+    public static <T> void sortByLongKey(T[] arr,
+                                         ToLongFunction<T> keyExtractor) {
+        if (arr == null || keyExtractor == null) {
+            throw new IllegalArgumentException("Array and key extractor "
+                    + "cannot be null");
+        }
+        long[] keys = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            keys[i] = keyExtractor.applyAsLong(arr[i]);
+        }
+        permute(arr, sortedOrder(keys));
+    }
+
+    /**
+     * Radix sorts a long[] of keys together with the indices 0 to n - 1,
+     * and returns the indices in the stable sorted order of their keys.
+     * keys is left in an unspecified order.
+     *
+     * @param keys the keys
+     * @return the sorted order of the indices
+     */
+    private static int[] sortedOrder(long[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        if (n < 2) {
+            return order;
+        }
+        int[] counts = new int[Long.BYTES * RADIX];
+        for (long key : keys) {
+            for (int digit = 0; digit < Long.BYTES; digit++) {
+                counts[digit * RADIX + longDigit(key, digit)]++;
+            }
+        }
+        long[] srcKeys = keys;
+        long[] dstKeys = new long[n];
+        int[] src = order;
+        int[] dst = new int[n];
+        for (int digit = 0; digit < Long.BYTES; digit++) {
+            int base = digit * RADIX;
+            if (counts[base + longDigit(keys[0], digit)] == n) {
+                continue;
+            }
+            toOffsets(counts, base, 0);
+            for (int i = 0; i < n; i++) {
+                int to = counts[base + longDigit(srcKeys[i], digit)]++;
+                dstKeys[to] = srcKeys[i];
+                dst[to] = src[i];
+            }
+            long[] tmpKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmpKeys;
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        return src;
+    }
+
+    /**
+     * Rearranges arr in place so that arr[i] becomes the element that was
+     * at arr[order[i]], following each cycle of the permutation once.
+     * order is used up: every entry is left as its own index.
+     *
+     * @param <T>   data type of the array
+     * @param arr   the array to permute
+     * @param order a permutation of the indices of arr
+     */
+    private static <T> void permute(T[] arr, int[] order) {
+        for (int start = 0; start < arr.length; start++) {
+            if (order[start] == start) {
+                continue;
+            }
+            T first = arr[start];
+            int i = start;
+            while (order[i] != start) {
+                int from = order[i];
+                arr[i] = arr[from];
+                order[i] = i;
+                i = from;
+            }
+            arr[i] = first;
+            order[i] = i;
+        }
+    }
+
+    /**
+     * The int radix engine behind lsdRadixSort and lsdRadixSortFloat.
+     *
+     * @param arr the array to be sorted
+     */
+    private static void radixSortInts(int[] arr) {
+        if (arr.length > 1) {
+            lsdInts(arr, new int[arr.length], 0, arr.length,
+                    Integer.BYTES - 1);
+        }
+    }
+
+    /**
+     * The long radix engine behind lsdRadixSortLong and
+     * lsdRadixSortDouble.
+     *
+     * @param arr the array to be sorted
+     */
+    private static void radixSortLongs(long[] arr) {
+        if (arr.length > 1) {
+            lsdLongs(arr, new long[arr.length], 0, arr.length,
+                    Long.BYTES - 1);
+        }
+    }
+
+    /**
+     * Sorts arr[lo, hi) on bytes 0 to top, whose higher bytes are all
+     * equal, picking insertion sort, the sequential LSD engine or a
+     * parallel MSD split by the size of the range.
+     *
+     * @param arr     the array holding the range
+     * @param scratch scratch space, at least as long as arr
+     * @param lo      first index of the range
+     * @param hi      one past the last index of the range
+     * @param top     the most significant byte still to sort on
+     */
+    private static void sortInts(int[] arr, int[] scratch, int lo, int hi,
+                                 int top) {
+        if (hi - lo <= SMALL_BUCKET) {
+            insertionSort(arr, lo, hi);
+        } else if (hi - lo < PARALLEL_RADIX_THRESHOLD || top == 0) {
+            lsdInts(arr, scratch, lo, hi, top);
+        } else {
+            int chunks = chunks(hi - lo);
+            int chunkLength = (hi - lo + chunks - 1) / chunks;
+            int[][] offsets = new int[chunks][RADIX];
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int c = 0; c < chunks; c++) {
+                int[] counts = offsets[c];
+                int from = lo + c * chunkLength;
+                int to = Math.min(hi, from + chunkLength);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        counts[intDigit(arr[i], top)]++;
+                    }
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            int[] starts = bucketStarts(offsets, lo);
+            tasks.clear();
+            for (int c = 0; c < chunks; c++) {
+                int[] next = offsets[c];
+                int from = lo + c * chunkLength;
+                int to = Math.min(hi, from + chunkLength);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        scratch[next[intDigit(arr[i], top)]++] = arr[i];
+                    }
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            tasks.clear();
+            for (int b = 0; b < RADIX; b++) {
+                int from = starts[b];
+                int to = starts[b + 1];
+                if (from < to) {
+                    tasks.add(ForkJoinTask.adapt(() -> {
+                        sortInts(scratch, arr, from, to, top - 1);
+                        System.arraycopy(scratch, from, arr, from, to - from);
+                    }));
+                }
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Sorts arr[lo, hi) on bytes 0 to top like sortInts, for longs.
+     *
+     * @param arr     the array holding the range
+     * @param scratch scratch space, at least as long as arr
+     * @param lo      first index of the range
+     * @param hi      one past the last index of the range
+     * @param top     the most significant byte still to sort on
+     */
+    private static void sortLongs(long[] arr, long[] scratch, int lo, int hi,
+                                  int top) {
+        if (hi - lo <= SMALL_BUCKET) {
+            insertionSort(arr, lo, hi);
+        } else if (hi - lo < PARALLEL_RADIX_THRESHOLD || top == 0) {
+            lsdLongs(arr, scratch, lo, hi, top);
+        } else {
+            int chunks = chunks(hi - lo);
+            int chunkLength = (hi - lo + chunks - 1) / chunks;
+            int[][] offsets = new int[chunks][RADIX];
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int c = 0; c < chunks; c++) {
+                int[] counts = offsets[c];
+                int from = lo + c * chunkLength;
+                int to = Math.min(hi, from + chunkLength);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        counts[longDigit(arr[i], top)]++;
+                    }
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            int[] starts = bucketStarts(offsets, lo);
+            tasks.clear();
+            for (int c = 0; c < chunks; c++) {
+                int[] next = offsets[c];
+                int from = lo + c * chunkLength;
+                int to = Math.min(hi, from + chunkLength);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        scratch[next[longDigit(arr[i], top)]++] = arr[i];
+                    }
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            tasks.clear();
+            for (int b = 0; b < RADIX; b++) {
+                int from = starts[b];
+                int to = starts[b + 1];
+                if (from < to) {
+                    tasks.add(ForkJoinTask.adapt(() -> {
+                        sortLongs(scratch, arr, from, to, top - 1);
+                        System.arraycopy(scratch, from, arr, from, to - from);
+                    }));
+                }
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Returns how many chunks a parallel radix pass over length elements
+     * is cut into: four per core of the pool, but none shorter than
+     * {@code SMALL_BUCKET} squared.
+     *
+     * @param length number of elements in the pass
+     * @return the number of chunks
+     */
+    private static int chunks(int length) {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        int parallelism = pool != null ? pool.getParallelism()
+                : ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(1, Math.min(parallelism * 4,
+                length / (SMALL_BUCKET * SMALL_BUCKET)));
+    }
+
+    /**
+     * Turns the per-chunk histograms into the index each chunk scatters
+     * its first element of each digit to, and returns where each digit's
+     * bucket starts. The chunks of one digit are laid out in chunk order,
+     * so the scatter is stable.
+     *
+     * @param counts the per-chunk histograms, overwritten with offsets
+     * @param lo     index the first bucket starts at
+     * @return the start of every bucket, plus the end of the last one
+     */
+    private static int[] bucketStarts(int[][] counts, int lo) {
+        int[] starts = new int[RADIX + 1];
+        int offset = lo;
+        for (int b = 0; b < RADIX; b++) {
+            starts[b] = offset;
+            for (int[] chunk : counts) {
+                int count = chunk[b];
+                chunk[b] = offset;
+                offset += count;
+            }
+        }
+        starts[RADIX] = offset;
+        return starts;
+    }
+
+    /**
+     * Sequential LSD radix sort of arr[lo, hi) on bytes 0 to top. The
+     * histograms of every byte are counted in one pass, each byte is one
+     * counting scatter between arr and scratch, and a byte every element
+     * shares is skipped.
+     *
+     * @param arr     the array holding the range
+     * @param scratch scratch space, at least as long as arr
+     * @param lo      first index of the range
+     * @param hi      one past the last index of the range
+     * @param top     the most significant byte to sort on
+     */
+    private static void lsdInts(int[] arr, int[] scratch, int lo, int hi,
+                                int top) {
+        int[] counts = new int[(top + 1) * RADIX];
+        for (int i = lo; i < hi; i++) {
+            for (int digit = 0; digit <= top; digit++) {
+                counts[digit * RADIX + intDigit(arr[i], digit)]++;
+            }
+        }
+        int[] src = arr;
+        int[] dst = scratch;
+        for (int digit = 0; digit <= top; digit++) {
+            int base = digit * RADIX;
+            if (counts[base + intDigit(arr[lo], digit)] == hi - lo) {
+                continue;
+            }
+            toOffsets(counts, base, lo);
+            for (int i = lo; i < hi; i++) {
+                dst[counts[base + intDigit(src[i], digit)]++] = src[i];
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, lo, arr, lo, hi - lo);
+        }
+    }
+
+    /**
+     * Sequential LSD radix sort of arr[lo, hi) on bytes 0 to top, like
+     * lsdInts.
+     *
+     * @param arr     the array holding the range
+     * @param scratch scratch space, at least as long as arr
+     * @param lo      first index of the range
+     * @param hi      one past the last index of the range
+     * @param top     the most significant byte to sort on
+     */
+    private static void lsdLongs(long[] arr, long[] scratch, int lo, int hi,
+                                 int top) {
+        int[] counts = new int[(top + 1) * RADIX];
+        for (int i = lo; i < hi; i++) {
+            for (int digit = 0; digit <= top; digit++) {
+                counts[digit * RADIX + longDigit(arr[i], digit)]++;
+            }
+        }
+        long[] src = arr;
+        long[] dst = scratch;
+        for (int digit = 0; digit <= top; digit++) {
+            int base = digit * RADIX;
+            if (counts[base + longDigit(arr[lo], digit)] == hi - lo) {
+                continue;
+            }
+            toOffsets(counts, base, lo);
+            for (int i = lo; i < hi; i++) {
+                dst[counts[base + longDigit(src[i], digit)]++] = src[i];
+            }
+            long[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, lo, arr, lo, hi - lo);
+        }
+    }
+
+    /**
+     * Insertion sort of arr[lo, hi).
+     *
+     * @param arr the array holding the range
+     * @param lo  first index of the range
+     * @param hi  one past the last index of the range
+     */
+    private static void insertionSort(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int tmp = arr[i];
+            int j = i;
+            while (j > lo && arr[j - 1] > tmp) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = tmp;
+        }
+    }
+
+    /**
+     * Insertion sort of arr[lo, hi).
+     *
+     * @param arr the array holding the range
+     * @param lo  first index of the range
+     * @param hi  one past the last index of the range
+     */
+    private static void insertionSort(long[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long tmp = arr[i];
+            int j = i;
+            while (j > lo && arr[j - 1] > tmp) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = tmp;
+        }
+    }
+
+    /**
+     * Turns the histogram counts[base, base + RADIX) into the index each
+     * digit's first element is scattered to.
+     *
+     * @param counts the histograms
+     * @param base   first index of the histogram to convert
+     * @param lo     index the first digit starts at
+     */
+    private static void toOffsets(int[] counts, int base, int lo) {
+        int offset = lo;
+        for (int i = base; i < base + RADIX; i++) {
+            int count = counts[i];
+            counts[i] = offset;
+            offset += count;
+        }
+    }
+
+    /**
+     * Returns a byte of an int, the top one with its sign bit flipped so
+     * that negative numbers order first.
+     *
+     * @param item  the int
+     * @param digit which byte, 0 being the least significant
+     * @return the digit, from 0 to RADIX - 1
+     */
+    private static int intDigit(int item, int digit) {
+        int value = (item >>> (digit * Byte.SIZE)) & (RADIX - 1);
+        return digit == Integer.BYTES - 1 ? value ^ (RADIX >>> 1) : value;
+    }
+
+    /**
+     * Returns a byte of a long, the top one with its sign bit flipped so
+     * that negative numbers order first.
+     *
+     * @param item  the long
+     * @param digit which byte, 0 being the least significant
+     * @return the digit, from 0 to RADIX - 1
+     */
+    private static int longDigit(long item, int digit) {
+        int value = (int) (item >>> (digit * Byte.SIZE)) & (RADIX - 1);
+        return digit == Long.BYTES - 1 ? value ^ (RADIX >>> 1) : value;
     }
 }
\ No newline at end of file
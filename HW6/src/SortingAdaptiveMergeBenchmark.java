@@ -0,0 +1,106 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Compares Sorting.mergeSort, Sorting.adaptiveMergeSort and Arrays.sort on
+ * random, sorted, reverse sorted, nearly sorted and few-unique Integer
+ * arrays, reporting time and comparisons.
+ *
+ * Run with {@code java SortingAdaptiveMergeBenchmark [elements]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingAdaptiveMergeBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    private static long comparisons;
+    private static final Comparator<Integer> COUNTING = (a, b) -> {
+        comparisons++;
+        return a.compareTo(b);
+    };
+    private static volatile Object sink;
+
+    /**
+     * A sort under test.
+     */
+    private interface Sort {
+        /**
+         * Sorts the array.
+         *
+         * @param arr the array to sort
+         */
+        void sort(Integer[] arr);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of elements, default 1,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        Integer[] randomInput = new Integer[n];
+        Integer[] sorted = new Integer[n];
+        Integer[] reversed = new Integer[n];
+        Integer[] nearlySorted = new Integer[n];
+        Integer[] fewUnique = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            randomInput[i] = random.nextInt();
+            sorted[i] = i;
+            reversed[i] = n - i;
+            nearlySorted[i] = random.nextInt(100) == 0 ? random.nextInt(n) : i;
+            fewUnique[i] = random.nextInt(8);
+        }
+        run("random", randomInput);
+        run("sorted", sorted);
+        run("reversed", reversed);
+        run("nearly sorted", nearlySorted);
+        run("few unique", fewUnique);
+    }
+
+    /**
+     * Times every sort on copies of one input.
+     *
+     * @param label name of the input pattern
+     * @param input the input
+     */
+    private static void run(String label, Integer[] input) {
+        time(label, "mergeSort", input,
+            arr -> Sorting.mergeSort(arr, COUNTING));
+        time(label, "adaptiveMergeSort", input,
+            arr -> Sorting.adaptiveMergeSort(arr, COUNTING));
+        time(label, "Arrays.sort", input, arr -> Arrays.sort(arr, COUNTING));
+    }
+
+    /**
+     * Times one sort on copies of an input and reports the best round.
+     *
+     * @param label name of the input pattern
+     * @param name name of the sort
+     * @param input the input, left unchanged
+     * @param sort the sort
+     */
+    private static void time(String label, String name, Integer[] input,
+                             Sort sort) {
+        double best = Double.MAX_VALUE;
+        long compared = 0;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            Integer[] arr = input.clone();
+            comparisons = 0;
+            long start = System.nanoTime();
+            sort.sort(arr);
+            long elapsed = System.nanoTime() - start;
+            compared = comparisons;
+            sink = arr;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        System.out.printf("%-14s %-18s %9.1f ms %,14d comparisons%n", label,
+                name, best, compared);
+    }
+}
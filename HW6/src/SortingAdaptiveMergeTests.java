@@ -0,0 +1,100 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for Sorting.adaptiveMergeSort.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingAdaptiveMergeTests {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * Sorts indices 0..n-1 by keys with adaptiveMergeSort and checks the
+     * result against the stable Arrays.sort.
+     *
+     * @param keys the key of each index
+     */
+    private static void assertSortsStably(int[] keys) {
+        Comparator<Integer> byKey = Comparator.comparingInt(i -> keys[i]);
+        Integer[] arr = new Integer[keys.length];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = i;
+        }
+        Integer[] expected = arr.clone();
+        Arrays.sort(expected, byKey);
+        Sorting.adaptiveMergeSort(arr, byKey);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPatterns() {
+        Random random = new Random(42);
+        for (int n : new int[] {0, 1, 2, 31, 32, 33, 100, 1000, 10000}) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextInt();
+            }
+            assertSortsStably(keys);
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextInt(4);
+            }
+            assertSortsStably(keys);
+            for (int i = 0; i < n; i++) {
+                keys[i] = n - i / 3;
+            }
+            assertSortsStably(keys);
+            for (int i = 0; i < n; i++) {
+                keys[i] = i % 500 + (i % 97 == 0 ? -1000 : 0);
+            }
+            assertSortsStably(keys);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGallopingRuns() {
+        int[] keys = new int[5000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i < 2500 ? i * 2 : (i - 2500) / 100 * 200 + 1;
+        }
+        assertSortsStably(keys);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSortedInputIsLinear() {
+        Integer[] arr = new Integer[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = i;
+        }
+        int[] comparisons = new int[1];
+        Sorting.adaptiveMergeSort(arr, (a, b) -> {
+            comparisons[0]++;
+            return a.compareTo(b);
+        });
+        assertEquals(999, comparisons[0]);
+        Integer[] reversed = new Integer[1000];
+        for (int i = 0; i < arr.length; i++) {
+            reversed[i] = 999 - i;
+        }
+        comparisons[0] = 0;
+        Sorting.adaptiveMergeSort(reversed, (a, b) -> {
+            comparisons[0]++;
+            return a.compareTo(b);
+        });
+        assertArrayEquals(arr, reversed);
+        assertEquals(999, comparisons[0]);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullArray() {
+        Sorting.adaptiveMergeSort(null, Comparator.<Integer>naturalOrder());
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Compares Sorting.sortByIntKey and sortByLongKey against Sorting.mergeSort
+ * with a Comparator.comparingInt or comparingLong comparator, sorting
+ * records by a numeric field.
+ *
+ * Run with {@code java SortingKeyBenchmark [elements]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingKeyBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+    private static volatile Object sink;
+
+    /**
+     * A record sorted by one of its fields.
+     */
+    private static final class Record {
+        private final int id;
+        private final long timestamp;
+
+        /**
+         * Creates a record.
+         *
+         * @param id the int key
+         * @param timestamp the long key
+         */
+        private Record(int id, long timestamp) {
+            this.id = id;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of elements, default 1,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        Record[] data = new Record[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = new Record(random.nextInt(), random.nextLong());
+        }
+        Comparator<Record> byId = Comparator.comparingInt(r -> r.id);
+        Comparator<Record> byTimestamp =
+                Comparator.comparingLong(r -> r.timestamp);
+
+        report("int key", time(() -> {
+            Record[] arr = data.clone();
+            Sorting.sortByIntKey(arr, r -> r.id);
+            sink = arr;
+        }), time(() -> {
+            Record[] arr = data.clone();
+            Sorting.mergeSort(arr, byId);
+            sink = arr;
+        }));
+        report("long key", time(() -> {
+            Record[] arr = data.clone();
+            Sorting.sortByLongKey(arr, r -> r.timestamp);
+            sink = arr;
+        }), time(() -> {
+            Record[] arr = data.clone();
+            Sorting.mergeSort(arr, byTimestamp);
+            sink = arr;
+        }));
+    }
+
+    /**
+     * Prints one line of results.
+     *
+     * @param label name of the input
+     * @param radix best time of the key sort in milliseconds
+     * @param merge best time of mergeSort in milliseconds
+     */
+    private static void report(String label, double radix, double merge) {
+        System.out.printf("%-8s sortBy*Key %8.1f ms  mergeSort %8.1f ms%n",
+                label, radix, merge);
+    }
+
+    /**
+     * Runs a sort a few times and returns the fastest timed run.
+     *
+     * @param sort the sort to time, including copying its input
+     * @return the best time in milliseconds
+     */
+    private static double time(Runnable sort) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            sort.run();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,107 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for Sorting.sortByIntKey and sortByLongKey.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingKeyTests {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * A record with a numeric key and the position it started at, so that
+     * a test can tell equal keys apart.
+     */
+    private static final class Item {
+        private final long key;
+        private final int position;
+
+        /**
+         * Creates an item.
+         *
+         * @param key the key
+         * @param position the starting position
+         */
+        private Item(long key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Makes n items with keys drawn from a small range, so there are many
+     * duplicates, plus the extreme keys.
+     *
+     * @param n number of items
+     * @param range number of distinct keys, centered on zero
+     * @return the items
+     */
+    private static Item[] items(int n, int range) {
+        Random random = new Random(n);
+        Item[] arr = new Item[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = new Item(random.nextInt(range) - range / 2, i);
+        }
+        return arr;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testIntKeyIsStable() {
+        for (int n : new int[] {0, 1, 2, 10, 1000, 100000}) {
+            Item[] arr = items(n, Math.max(1, n / 4));
+            if (n > 2) {
+                arr[0] = new Item(Integer.MIN_VALUE, 0);
+                arr[1] = new Item(Integer.MAX_VALUE, 1);
+            }
+            Item[] expected = arr.clone();
+            Arrays.sort(expected, Comparator.comparingLong(i -> i.key));
+            Sorting.sortByIntKey(arr, i -> (int) i.key);
+            assertArrayEquals(expected, arr);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLongKeyIsStable() {
+        for (int n : new int[] {0, 1, 2, 10, 1000, 100000}) {
+            Item[] arr = items(n, Math.max(1, n / 4));
+            if (n > 2) {
+                arr[0] = new Item(Long.MIN_VALUE, 0);
+                arr[1] = new Item(Long.MAX_VALUE, 1);
+                arr[2] = new Item(1L << 40, 2);
+            }
+            Item[] expected = arr.clone();
+            Arrays.sort(expected, Comparator.comparingLong(i -> i.key));
+            Sorting.sortByLongKey(arr, i -> i.key);
+            assertArrayEquals(expected, arr);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testKeysExtractedOnce() {
+        Item[] arr = items(500, 20);
+        int[] calls = new int[1];
+        Sorting.sortByIntKey(arr, i -> {
+            calls[0]++;
+            return (int) i.key;
+        });
+        assertArrayEquals(new int[] {500}, calls);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullArray() {
+        Sorting.sortByIntKey(null, (Item i) -> 0);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullExtractor() {
+        Sorting.sortByLongKey(new Item[0], null);
+    }
+}
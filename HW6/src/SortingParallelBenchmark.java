@@ -0,0 +1,84 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reports the speedup of Sorting.parallelMergeSort over Sorting.mergeSort
+ * on 1 up to all available cores, sorting random Integers. Each core count
+ * gets its own ForkJoinPool, and the sort is started inside it so every
+ * forked task stays in that pool.
+ *
+ * Run with {@code java SortingParallelBenchmark [elements]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingParallelBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+    private static volatile Object sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of elements, default 10,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random random = new Random(42);
+        Integer[] data = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = random.nextInt();
+        }
+        Comparator<Integer> comparator = Comparator.naturalOrder();
+
+        double serial = best(() -> {
+            Integer[] arr = data.clone();
+            Sorting.mergeSort(arr, comparator);
+            sink = arr;
+        });
+        System.out.printf("mergeSort            %9.1f ms%n", serial);
+        double library = best(() -> {
+            Integer[] arr = data.clone();
+            Arrays.sort(arr, comparator);
+            sink = arr;
+        });
+        System.out.printf("Arrays.sort          %9.1f ms%n", library);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= cores; p = p < cores && p * 2 > cores ? cores
+                : p * 2) {
+            ForkJoinPool pool = new ForkJoinPool(p);
+            double parallel = best(() -> {
+                Integer[] arr = data.clone();
+                pool.submit(() -> Sorting.parallelMergeSort(arr, comparator))
+                        .join();
+                sink = arr;
+            });
+            pool.shutdown();
+            System.out.printf("parallelMergeSort %2d %9.1f ms  speedup %.2fx%n",
+                    p, parallel, serial / parallel);
+        }
+    }
+
+    /**
+     * Runs a sort a few times and returns the fastest timed run.
+     *
+     * @param sort the sort to time, including copying its input
+     * @return the best time in milliseconds
+     */
+    private static double best(Runnable sort) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            sort.run();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for Sorting.parallelMergeSort.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingParallelMergeTests {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * Makes the indices 0..n-1, to be sorted by a key with many duplicates,
+     * so that a stable sort must keep equal keys in index order.
+     *
+     * @param n number of elements
+     * @param keys receives the key of each index
+     * @return the indices
+     */
+    private static Integer[] indices(int n, int[] keys) {
+        Random random = new Random(n);
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = i;
+            keys[i] = random.nextInt(Math.max(1, n / 8));
+        }
+        return arr;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testStableAcrossThresholds() {
+        for (int n : new int[] {0, 1, 2, 17, 100, 5000}) {
+            int[] keys = new int[n];
+            Comparator<Integer> byKey = Comparator.comparingInt(i -> keys[i]);
+            for (int threshold : new int[] {2, 3, 64,
+                Sorting.PARALLEL_THRESHOLD}) {
+                Integer[] arr = indices(n, keys);
+                Integer[] expected = arr.clone();
+                Arrays.sort(expected, byKey);
+                Sorting.parallelMergeSort(arr, byKey, threshold);
+                assertArrayEquals(expected, arr);
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSortedAndReversed() {
+        Integer[] arr = new Integer[20000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = arr.length - i;
+        }
+        Integer[] expected = arr.clone();
+        Arrays.sort(expected);
+        Sorting.parallelMergeSort(arr, Comparator.naturalOrder());
+        assertArrayEquals(expected, arr);
+        Sorting.parallelMergeSort(arr, Comparator.naturalOrder(), 100);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullComparator() {
+        Sorting.parallelMergeSort(new Integer[] {2, 1}, null);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testThresholdTooSmall() {
+        Sorting.parallelMergeSort(new Integer[] {2, 1},
+                Comparator.naturalOrder(), 1);
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares Sorting.parallelRadixSort against Arrays.parallelSort on ints
+ * that are uniformly random, skewed towards small values, and drawn from
+ * only a thousand distinct values, plus uniformly random longs.
+ *
+ * Run with {@code java SortingParallelRadixBenchmark [elements]}. The input
+ * and its copy take 8 bytes per int element, so 500M elements needs a heap
+ * of about 5 GB, or 9 GB with the long case.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingParallelRadixBenchmark {
+
+    private static final int WARMUP = 1;
+    private static final int ROUNDS = 3;
+    private static volatile Object sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of elements, default 10,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random random = new Random(42);
+        int[] data = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            data[i] = random.nextInt();
+        }
+        run("uniform", data);
+        for (int i = 0; i < n; i++) {
+            // Squaring a uniform fraction piles most values near zero.
+            double fraction = random.nextDouble();
+            data[i] = (int) (fraction * fraction * Integer.MAX_VALUE);
+        }
+        run("skewed", data);
+        for (int i = 0; i < n; i++) {
+            data[i] = random.nextInt(1000);
+        }
+        run("duplicates", data);
+        data = null;
+
+        long[] longs = random.longs(n).toArray();
+        report("long", time(() -> {
+            long[] arr = longs.clone();
+            Sorting.parallelRadixSortLong(arr);
+            sink = arr;
+        }), time(() -> {
+            long[] arr = longs.clone();
+            Arrays.parallelSort(arr);
+            sink = arr;
+        }));
+    }
+
+    /**
+     * Times both sorts on copies of an int input.
+     *
+     * @param label name of the input
+     * @param data the input
+     */
+    private static void run(String label, int[] data) {
+        report(label, time(() -> {
+            int[] arr = data.clone();
+            Sorting.parallelRadixSort(arr);
+            sink = arr;
+        }), time(() -> {
+            int[] arr = data.clone();
+            Arrays.parallelSort(arr);
+            sink = arr;
+        }));
+    }
+
+    /**
+     * Prints one line of results.
+     *
+     * @param label name of the input
+     * @param radix best time of parallelRadixSort in milliseconds
+     * @param library best time of Arrays.parallelSort in milliseconds
+     */
+    private static void report(String label, double radix, double library) {
+        System.out.printf("%-10s parallelRadixSort %8.1f ms  "
+                + "Arrays.parallelSort %8.1f ms%n", label, radix, library);
+    }
+
+    /**
+     * Runs a sort a few times and returns the fastest timed run.
+     *
+     * @param sort the sort to time, including copying its input
+     * @return the best time in milliseconds
+     */
+    private static double time(Runnable sort) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            sort.run();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        return best;
+    }
+}
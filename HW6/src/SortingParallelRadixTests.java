@@ -0,0 +1,98 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for Sorting.parallelRadixSort and parallelRadixSortLong.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingParallelRadixTests {
+
+    private static final int TIMEOUT = 2000;
+    private static final int LARGE = 4 * Sorting.PARALLEL_RADIX_THRESHOLD;
+
+    /**
+     * Sorts a copy of arr with parallelRadixSort and checks it against
+     * Arrays.sort.
+     *
+     * @param arr the input
+     */
+    private static void check(int[] arr) {
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+        Sorting.parallelRadixSort(arr);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testUniform() {
+        Random random = new Random(42);
+        for (int n : new int[] {0, 1, 2, 50, 1000, LARGE}) {
+            int[] arr = random.ints(n).toArray();
+            if (n > 2) {
+                arr[0] = Integer.MIN_VALUE;
+                arr[1] = Integer.MAX_VALUE;
+                arr[2] = 0;
+            }
+            check(arr);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSkewed() {
+        Random random = new Random(42);
+        int[] arr = new int[LARGE];
+        for (int i = 0; i < arr.length; i++) {
+            // Nearly everything lands in one top-byte bucket, which is then
+            // split in parallel again on the next byte.
+            arr[i] = i % 100 == 0 ? random.nextInt()
+                    : random.nextInt(1 << 20);
+        }
+        check(arr);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDuplicates() {
+        Random random = new Random(42);
+        int[] arr = new int[LARGE];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = random.nextInt(5) - 2;
+        }
+        check(arr);
+        int[] same = new int[LARGE];
+        Arrays.fill(same, 7);
+        check(same);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLongs() {
+        Random random = new Random(42);
+        for (int n : new int[] {0, 1, 100, LARGE}) {
+            long[] arr = random.longs(n).toArray();
+            if (n > 2) {
+                arr[0] = Long.MIN_VALUE;
+                arr[1] = Long.MAX_VALUE;
+                arr[2] = -1;
+            }
+            long[] expected = arr.clone();
+            Arrays.sort(expected);
+            Sorting.parallelRadixSortLong(arr);
+            assertArrayEquals(expected, arr);
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNull() {
+        Sorting.parallelRadixSort(null);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullLongs() {
+        Sorting.parallelRadixSortLong(null);
+    }
+}
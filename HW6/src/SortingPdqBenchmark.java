@@ -0,0 +1,107 @@
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Compares Sorting.pdqSort against Sorting.mergeSort on the usual
+ * adversarial patterns for quicksort: random, sorted, reversed, organ pipe,
+ * sawtooth, few distinct values, all equal, and sorted with a random tail.
+ *
+ * Run with {@code java SortingPdqBenchmark [elements]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingPdqBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+    private static final String[] PATTERNS = {"random", "sorted", "reversed",
+        "organ pipe", "sawtooth", "few distinct", "all equal",
+        "random tail"};
+    private static volatile Object sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of elements, default 1,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Comparator<Integer> comparator = Comparator.naturalOrder();
+        for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+            Integer[] data = pattern(pattern, n, new Random(42));
+            double pdq = time(() -> {
+                Integer[] arr = data.clone();
+                Sorting.pdqSort(arr, comparator);
+                sink = arr;
+            });
+            double merge = time(() -> {
+                Integer[] arr = data.clone();
+                Sorting.mergeSort(arr, comparator);
+                sink = arr;
+            });
+            System.out.printf("%-12s pdqSort %8.1f ms  mergeSort %8.1f ms%n",
+                    PATTERNS[pattern], pdq, merge);
+        }
+    }
+
+    /**
+     * Makes the input of one pattern.
+     *
+     * @param pattern index into PATTERNS
+     * @param n number of elements
+     * @param random source of random values
+     * @return the input
+     */
+    private static Integer[] pattern(int pattern, int n, Random random) {
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            switch (pattern) {
+            case 0:
+                arr[i] = random.nextInt();
+                break;
+            case 1:
+                arr[i] = i;
+                break;
+            case 2:
+                arr[i] = n - i;
+                break;
+            case 3:
+                arr[i] = i < n / 2 ? i : n - i;
+                break;
+            case 4:
+                arr[i] = i % 1000;
+                break;
+            case 5:
+                arr[i] = random.nextInt(16);
+                break;
+            case 6:
+                arr[i] = 7;
+                break;
+            default:
+                arr[i] = i < n - n / 100 ? i : random.nextInt(n);
+                break;
+            }
+        }
+        return arr;
+    }
+
+    /**
+     * Runs a sort a few times and returns the fastest timed run.
+     *
+     * @param sort the sort to time, including copying its input
+     * @return the best time in milliseconds
+     */
+    private static double time(Runnable sort) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            sort.run();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        return best;
+    }
+}
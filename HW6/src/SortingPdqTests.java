@@ -0,0 +1,121 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for Sorting.pdqSort.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingPdqTests {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * Makes an input of one of the patterns that hurt naive quicksorts.
+     *
+     * @param pattern which pattern, from 0 to 6
+     * @param n number of elements
+     * @param random source of random values
+     * @return the input
+     */
+    private static Integer[] pattern(int pattern, int n, Random random) {
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            switch (pattern) {
+            case 0:
+                arr[i] = random.nextInt();
+                break;
+            case 1:
+                arr[i] = i;
+                break;
+            case 2:
+                arr[i] = n - i;
+                break;
+            case 3:
+                arr[i] = random.nextInt(3);
+                break;
+            case 4:
+                arr[i] = i < n / 2 ? i : n - i;
+                break;
+            case 5:
+                arr[i] = i % 17;
+                break;
+            default:
+                arr[i] = random.nextInt(20) == 0 ? random.nextInt() : i;
+                break;
+            }
+        }
+        return arr;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPatterns() {
+        Random random = new Random(42);
+        for (int n : new int[] {0, 1, 2, 3, 23, 24, 129, 1000, 50000}) {
+            for (int pattern = 0; pattern < 7; pattern++) {
+                Integer[] arr = pattern(pattern, n, random);
+                Integer[] expected = arr.clone();
+                Arrays.sort(expected);
+                Sorting.pdqSort(arr, Comparator.naturalOrder());
+                assertArrayEquals(expected, arr);
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSortedInputIsLinear() {
+        int n = 100000;
+        Integer[] arr = pattern(1, n, null);
+        int[] comparisons = new int[1];
+        Sorting.pdqSort(arr, (a, b) -> {
+            comparisons[0]++;
+            return a.compareTo(b);
+        });
+        assertTrue("comparisons: " + comparisons[0], comparisons[0] < 3 * n);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAdversaryFallsBackToHeapsort() {
+        // McIlroy's adversary decides the order of elements only as the
+        // sort compares them, always making the pivot candidate small, which
+        // drives any plain quicksort quadratic.
+        int n = 20000;
+        int[] values = new int[n];
+        Arrays.fill(values, n);
+        int[] state = {0, -1, 0};
+        Comparator<Integer> adversary = (a, b) -> {
+            state[2]++;
+            if (values[a] == n && values[b] == n) {
+                values[a == state[1] ? a : b] = state[0]++;
+            }
+            if (values[a] == n) {
+                state[1] = a;
+            } else if (values[b] == n) {
+                state[1] = b;
+            }
+            return Integer.compare(values[a], values[b]);
+        };
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = i;
+        }
+        Sorting.pdqSort(arr, adversary);
+        for (int i = 1; i < n; i++) {
+            assertTrue(values[arr[i - 1]] <= values[arr[i]]);
+        }
+        int log = 32 - Integer.numberOfLeadingZeros(n);
+        assertTrue("comparisons: " + state[2], state[2] < 8L * n * log);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullComparator() {
+        Sorting.pdqSort(new Integer[] {2, 1}, null);
+    }
+}
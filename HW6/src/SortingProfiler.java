@@ -0,0 +1,407 @@
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs the sorts of Sorting with instrumentation and reports what each
+ * call cost: comparisons, element moves, bytes allocated and wall time.
+ *
+ * Comparisons are counted by wrapping the Comparator, the way HW7's
+ * CharacterComparator counts character comparisons. A T[] cannot be
+ * wrapped, so moves are counted from the input instead, following exactly
+ * how each algorithm in Sorting writes to its arrays: every write of an
+ * element to arr or to a buffer is one move. Bubble sort makes two writes
+ * per swap and insertion sort one per shift plus one per insert, so both
+ * follow from the number of inversions; merge sort copies every element of
+ * each half out and merges it back at every level; lsdRadixSort scatters
+ * every element once per byte it does not skip, plus a copy back after an
+ * odd number of passes. Allocation is read from the thread's allocation
+ * counter where the JVM has one, and is -1 elsewhere.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public final class SortingProfiler {
+
+    /**
+     * Longest sample that recommend still tries the quadratic sorts on.
+     */
+    public static final int QUADRATIC_LIMIT = 1 << 14;
+
+    private static final java.lang.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean();
+
+    /**
+     * The sorts that can be profiled.
+     */
+    public enum Algorithm {
+        BUBBLE, INSERTION, MERGE, LSD_RADIX
+    }
+
+    /**
+     * What one call of a sort cost.
+     */
+    public static final class Report {
+        private final Algorithm algorithm;
+        private final int length;
+        private final long comparisons;
+        private final long moves;
+        private final long allocatedBytes;
+        private final long nanos;
+
+        /**
+         * Creates a report. Only SortingProfiler creates these.
+         *
+         * @param algorithm the sort that was run
+         * @param length number of elements sorted
+         * @param comparisons number of Comparator calls
+         * @param moves number of element writes
+         * @param allocatedBytes bytes allocated by the sort, or -1
+         * @param nanos wall time of the sort
+         */
+        private Report(Algorithm algorithm, int length, long comparisons,
+                       long moves, long allocatedBytes, long nanos) {
+            this.algorithm = algorithm;
+            this.length = length;
+            this.comparisons = comparisons;
+            this.moves = moves;
+            this.allocatedBytes = allocatedBytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the sort that was run.
+         *
+         * @return the algorithm
+         */
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * Returns the number of elements sorted.
+         *
+         * @return the length of the array
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Returns how many times the Comparator was called.
+         *
+         * @return the number of comparisons
+         */
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        /**
+         * Returns how many times an element was written to the array or a
+         * buffer.
+         *
+         * @return the number of moves
+         */
+        public long getMoves() {
+            return moves;
+        }
+
+        /**
+         * Returns how many bytes the sort allocated.
+         *
+         * @return bytes allocated, or -1 if the JVM cannot tell
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * Returns how long the sort took.
+         *
+         * @return wall time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-9s n=%d comparisons=%d moves=%d "
+                    + "allocated=%d time=%.3fms", algorithm, length,
+                    comparisons, moves, allocatedBytes, nanos / 1e6);
+        }
+    }
+
+    /**
+     * Counts the calls it passes on to another Comparator.
+     *
+     * @param <T> type of the compared elements
+     */
+    private static final class CountingComparator<T>
+        implements Comparator<T> {
+        private final Comparator<T> comparator;
+        private long count;
+
+        /**
+         * Wraps a comparator.
+         *
+         * @param comparator the comparator to count
+         */
+        private CountingComparator(Comparator<T> comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public int compare(T a, T b) {
+            count++;
+            return comparator.compare(a, b);
+        }
+    }
+
+    /**
+     * Not to be created.
+     */
+    private SortingProfiler() {
+    }
+
+    /**
+     * Sorts arr with one of the comparison sorts and reports the cost.
+     *
+     * @param <T>        data type to sort
+     * @param algorithm  BUBBLE, INSERTION or MERGE
+     * @param arr        the array to sort
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws IllegalArgumentException if an argument is null or algorithm
+     * is LSD_RADIX
+     * @return the report of the call
+     */
+    public static <T> Report profile(Algorithm algorithm, T[] arr,
+                                     Comparator<T> comparator) {
+        if (algorithm == null || arr == null || comparator == null
+                || algorithm == Algorithm.LSD_RADIX) {
+            throw new IllegalArgumentException("Arguments cannot be null, "
+                    + "and LSD_RADIX only sorts ints");
+        }
+        CountingComparator<T> counting = new CountingComparator<>(comparator);
+        long moves = 0;
+        if (algorithm == Algorithm.BUBBLE) {
+            moves = 2 * inversions(arr, comparator);
+        } else if (algorithm == Algorithm.INSERTION) {
+            moves = inversions(arr, comparator) + Math.max(0, arr.length - 1);
+        } else {
+            moves = mergeMoves(arr.length);
+        }
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        if (algorithm == Algorithm.BUBBLE) {
+            Sorting.bubbleSort(arr, counting);
+        } else if (algorithm == Algorithm.INSERTION) {
+            Sorting.insertionSort(arr, counting);
+        } else {
+            Sorting.mergeSort(arr, counting);
+        }
+        long nanos = System.nanoTime() - start;
+        return new Report(algorithm, arr.length, counting.count, moves,
+                allocatedSince(allocated), nanos);
+    }
+
+    /**
+     * Sorts arr with any of the algorithms and reports the cost. The
+     * comparison sorts sort boxed copies of the ints in natural order and
+     * copy the result back, which is not counted.
+     *
+     * @param algorithm the sort to run
+     * @param arr       the array to sort
+     * @throws IllegalArgumentException if an argument is null
+     * @return the report of the call
+     */
+    public static Report profile(Algorithm algorithm, int[] arr) {
+        if (algorithm == null || arr == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        if (algorithm != Algorithm.LSD_RADIX) {
+            Integer[] boxed = new Integer[arr.length];
+            for (int i = 0; i < arr.length; i++) {
+                boxed[i] = arr[i];
+            }
+            Report report = profile(algorithm, boxed,
+                    Comparator.<Integer>naturalOrder());
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = boxed[i];
+            }
+            return report;
+        }
+        long moves = radixMoves(arr);
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        Sorting.lsdRadixSort(arr);
+        long nanos = System.nanoTime() - start;
+        return new Report(algorithm, arr.length, 0, moves,
+                allocatedSince(allocated), nanos);
+    }
+
+    /**
+     * Profiles every algorithm on copies of a sample, keeping the fastest
+     * of a few runs of each. Bubble and insertion sort are left out for
+     * samples longer than {@code QUADRATIC_LIMIT}.
+     *
+     * @param sample the input to sort, which is left unchanged
+     * @param rounds how many times to run each algorithm
+     * @throws IllegalArgumentException if sample is null or rounds is not
+     * positive
+     * @return the fastest report of each algorithm tried, fastest first
+     */
+    public static List<Report> compare(int[] sample, int rounds) {
+        if (sample == null || rounds <= 0) {
+            throw new IllegalArgumentException("Sample cannot be null and "
+                    + "rounds must be positive");
+        }
+        List<Report> reports = new ArrayList<>();
+        for (Algorithm algorithm : Algorithm.values()) {
+            if (sample.length > QUADRATIC_LIMIT
+                    && (algorithm == Algorithm.BUBBLE
+                    || algorithm == Algorithm.INSERTION)) {
+                continue;
+            }
+            Report best = null;
+            for (int round = 0; round < rounds; round++) {
+                Report report = profile(algorithm, sample.clone());
+                if (best == null || report.nanos < best.nanos) {
+                    best = report;
+                }
+            }
+            reports.add(best);
+        }
+        reports.sort(Comparator.comparingLong(Report::getNanos));
+        return reports;
+    }
+
+    /**
+     * Returns the algorithm that sorted a sample fastest.
+     *
+     * @param sample the input to sort, which is left unchanged
+     * @param rounds how many times to run each algorithm
+     * @throws IllegalArgumentException if sample is null or rounds is not
+     * positive
+     * @return the fastest algorithm
+     */
+    public static Algorithm recommend(int[] sample, int rounds) {
+        return compare(sample, rounds).get(0).getAlgorithm();
+    }
+
+    /**
+     * Counts the pairs of elements that are out of order, by merge sorting
+     * a copy.
+     *
+     * @param <T>        data type of the array
+     * @param arr        the elements
+     * @param comparator the order
+     * @return the number of inversions
+     */
+    private static <T> long inversions(T[] arr, Comparator<T> comparator) {
+        T[] copy = arr.clone();
+        return inversions(copy, arr.clone(), 0, arr.length, comparator);
+    }
+
+    /**
+     * Sorts arr[lo, hi) and counts its inversions.
+     *
+     * @param <T>        data type of the array
+     * @param arr        the elements
+     * @param buffer     scratch space as long as arr
+     * @param lo         first index of the range
+     * @param hi         one past the last index of the range
+     * @param comparator the order
+     * @return the number of inversions in the range
+     */
+    private static <T> long inversions(T[] arr, T[] buffer, int lo, int hi,
+                                       Comparator<T> comparator) {
+        if (hi - lo < 2) {
+            return 0;
+        }
+        int mid = (lo + hi) >>> 1;
+        long count = inversions(arr, buffer, lo, mid, comparator)
+                + inversions(arr, buffer, mid, hi, comparator);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid || j < hi) {
+            if (j == hi || i < mid
+                    && comparator.compare(arr[i], arr[j]) <= 0) {
+                buffer[k++] = arr[i++];
+            } else {
+                count += mid - i;
+                buffer[k++] = arr[j++];
+            }
+        }
+        System.arraycopy(buffer, lo, arr, lo, hi - lo);
+        return count;
+    }
+
+    /**
+     * Returns the moves mergeSort makes on n elements: it copies both halves
+     * out and merges them back at every call on more than one element.
+     *
+     * @param n number of elements
+     * @return the number of moves
+     */
+    private static long mergeMoves(int n) {
+        if (n < 2) {
+            return 0;
+        }
+        return 2L * n + mergeMoves(n / 2) + mergeMoves(n - n / 2);
+    }
+
+    /**
+     * Returns the moves lsdRadixSort makes on arr: one scatter of every
+     * element per byte that not all elements share, and a copy back if the
+     * number of scatters is odd.
+     *
+     * @param arr the ints to be sorted
+     * @return the number of moves
+     */
+    private static long radixMoves(int[] arr) {
+        if (arr.length < 2) {
+            return 0;
+        }
+        int passes = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            int digit = (arr[0] >>> shift) & 0xff;
+            for (int item : arr) {
+                if (((item >>> shift) & 0xff) != digit) {
+                    passes++;
+                    break;
+                }
+            }
+        }
+        return (long) arr.length * (passes + (passes & 1));
+    }
+
+    /**
+     * Returns the bytes the current thread has allocated so far.
+     *
+     * @return allocated bytes, or -1 if the JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof ThreadMXBean) {
+            return ((ThreadMXBean) THREADS).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the bytes the current thread has allocated since an earlier
+     * reading.
+     *
+     * @param before the earlier reading of allocatedBytes
+     * @return allocated bytes since then, or -1 if the JVM cannot tell
+     */
+    private static long allocatedSince(long before) {
+        long after = allocatedBytes();
+        return before < 0 || after < 0 ? -1 : after - before;
+    }
+}
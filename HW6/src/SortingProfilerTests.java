@@ -0,0 +1,105 @@
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for SortingProfiler.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingProfilerTests {
+
+    private static final int TIMEOUT = 2000;
+
+    @Test(timeout = TIMEOUT)
+    public void testBubble() {
+        Integer[] arr = {3, 2, 1};
+        SortingProfiler.Report report = SortingProfiler.profile(
+                SortingProfiler.Algorithm.BUBBLE, arr,
+                Comparator.naturalOrder());
+        assertArrayEquals(new Integer[] {1, 2, 3}, arr);
+        assertEquals(3, report.getComparisons());
+        assertEquals(6, report.getMoves());
+        assertEquals(3, report.getLength());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testInsertion() {
+        int[] arr = {3, 2, 1, 4};
+        SortingProfiler.Report report = SortingProfiler.profile(
+                SortingProfiler.Algorithm.INSERTION, arr);
+        assertArrayEquals(new int[] {1, 2, 3, 4}, arr);
+        assertEquals(4, report.getComparisons());
+        assertEquals(3 + 3, report.getMoves());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMerge() {
+        int[] arr = {4, 3, 2, 1};
+        SortingProfiler.Report report = SortingProfiler.profile(
+                SortingProfiler.Algorithm.MERGE, arr);
+        assertArrayEquals(new int[] {1, 2, 3, 4}, arr);
+        assertEquals(4, report.getComparisons());
+        assertEquals(8 + 4 + 4, report.getMoves());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRadix() {
+        int[] arr = {3, 1, 2};
+        SortingProfiler.Report report = SortingProfiler.profile(
+                SortingProfiler.Algorithm.LSD_RADIX, arr);
+        assertArrayEquals(new int[] {1, 2, 3}, arr);
+        assertEquals(0, report.getComparisons());
+        assertEquals(2 * 3, report.getMoves());
+        int[] wide = {0x100, 1};
+        assertEquals(2 * 2, SortingProfiler.profile(
+                SortingProfiler.Algorithm.LSD_RADIX, wide).getMoves());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCompare() {
+        int[] sample = new Random(42).ints(2000).toArray();
+        int[] copy = sample.clone();
+        List<SortingProfiler.Report> reports =
+                SortingProfiler.compare(sample, 1);
+        assertArrayEquals(copy, sample);
+        assertEquals(SortingProfiler.Algorithm.values().length,
+                reports.size());
+        for (int i = 1; i < reports.size(); i++) {
+            assertTrue(reports.get(i - 1).getNanos()
+                    <= reports.get(i).getNanos());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLargeSampleSkipsQuadraticSorts() {
+        int[] sample = new Random(42).ints(
+                SortingProfiler.QUADRATIC_LIMIT + 1).toArray();
+        List<SortingProfiler.Report> reports =
+                SortingProfiler.compare(sample, 1);
+        assertEquals(2, reports.size());
+        for (SortingProfiler.Report report : reports) {
+            assertTrue(report.getAlgorithm() == SortingProfiler.Algorithm.MERGE
+                    || report.getAlgorithm()
+                    == SortingProfiler.Algorithm.LSD_RADIX);
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testRadixNeedsInts() {
+        SortingProfiler.profile(SortingProfiler.Algorithm.LSD_RADIX,
+                new Integer[] {1}, Comparator.naturalOrder());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullSample() {
+        SortingProfiler.compare(null, 1);
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares lsdRadixSort and its long, float and double variants against
+ * Arrays.sort on uniformly random arrays of each type, and on ints that
+ * only use their low two bytes, where two of the four passes are skipped.
+ *
+ * Run with {@code java SortingRadixBenchmark [elements]}; 100M elements
+ * needs a heap of about 4 GB.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingRadixBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+    private static volatile Object sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of elements, default 10,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random random = new Random(42);
+        int[] ints = random.ints(n).toArray();
+        int[] shorts = random.ints(n, 0, 1 << 16).toArray();
+        long[] longs = random.longs(n).toArray();
+        float[] floats = new float[n];
+        double[] doubles = random.doubles(n, -1e9, 1e9).toArray();
+        for (int i = 0; i < n; i++) {
+            floats[i] = (float) random.nextGaussian();
+        }
+
+        report("int", time(() -> {
+            int[] arr = ints.clone();
+            Sorting.lsdRadixSort(arr);
+            sink = arr;
+        }), time(() -> {
+            int[] arr = ints.clone();
+            Arrays.sort(arr);
+            sink = arr;
+        }));
+        report("int < 2^16", time(() -> {
+            int[] arr = shorts.clone();
+            Sorting.lsdRadixSort(arr);
+            sink = arr;
+        }), time(() -> {
+            int[] arr = shorts.clone();
+            Arrays.sort(arr);
+            sink = arr;
+        }));
+        report("long", time(() -> {
+            long[] arr = longs.clone();
+            Sorting.lsdRadixSortLong(arr);
+            sink = arr;
+        }), time(() -> {
+            long[] arr = longs.clone();
+            Arrays.sort(arr);
+            sink = arr;
+        }));
+        report("float", time(() -> {
+            float[] arr = floats.clone();
+            Sorting.lsdRadixSortFloat(arr);
+            sink = arr;
+        }), time(() -> {
+            float[] arr = floats.clone();
+            Arrays.sort(arr);
+            sink = arr;
+        }));
+        report("double", time(() -> {
+            double[] arr = doubles.clone();
+            Sorting.lsdRadixSortDouble(arr);
+            sink = arr;
+        }), time(() -> {
+            double[] arr = doubles.clone();
+            Arrays.sort(arr);
+            sink = arr;
+        }));
+    }
+
+    /**
+     * Prints one line of results.
+     *
+     * @param label name of the input
+     * @param radix best time of lsdRadixSort in milliseconds
+     * @param library best time of Arrays.sort in milliseconds
+     */
+    private static void report(String label, double radix, double library) {
+        System.out.printf("%-11s lsdRadixSort %8.1f ms  Arrays.sort %8.1f ms%n",
+                label, radix, library);
+    }
+
+    /**
+     * Runs a sort a few times and returns the fastest timed run.
+     *
+     * @param sort the sort to time, including copying its input
+     * @return the best time in milliseconds
+     */
+    private static double time(Runnable sort) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            sort.run();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        return best;
+    }
+}
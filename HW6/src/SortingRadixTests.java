@@ -0,0 +1,107 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for the byte-wise lsdRadixSort and its variants.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingRadixTests {
+
+    private static final int TIMEOUT = 2000;
+
+    @Test(timeout = TIMEOUT)
+    public void testInts() {
+        Random random = new Random(42);
+        for (int n : new int[] {0, 1, 2, 100, 10000}) {
+            int[] arr = random.ints(n).toArray();
+            if (n > 2) {
+                arr[0] = Integer.MIN_VALUE;
+                arr[1] = Integer.MAX_VALUE;
+                arr[2] = 0;
+            }
+            int[] expected = arr.clone();
+            Arrays.sort(expected);
+            Sorting.lsdRadixSort(arr);
+            assertArrayEquals(expected, arr);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSharedDigitsAreSkipped() {
+        int[] arr = {0x7f00, 0x1200, -0x100, 0x3400, 0x1200};
+        Sorting.lsdRadixSort(arr);
+        assertArrayEquals(new int[] {-0x100, 0x1200, 0x1200, 0x3400, 0x7f00},
+                arr);
+        int[] same = {5, 5, 5};
+        Sorting.lsdRadixSort(same);
+        assertArrayEquals(new int[] {5, 5, 5}, same);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLongs() {
+        long[] arr = new Random(42).longs(10000).toArray();
+        arr[0] = Long.MIN_VALUE;
+        arr[1] = Long.MAX_VALUE;
+        arr[2] = -1;
+        long[] expected = arr.clone();
+        Arrays.sort(expected);
+        Sorting.lsdRadixSortLong(arr);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFloats() {
+        Random random = new Random(42);
+        float[] arr = new float[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = (random.nextFloat() - 0.5f) * 1e6f;
+        }
+        float[] special = {Float.NaN, -0.0f, 0.0f, Float.NEGATIVE_INFINITY,
+            Float.POSITIVE_INFINITY, Float.MIN_VALUE, -Float.MIN_VALUE,
+            Float.MAX_VALUE, -Float.MAX_VALUE};
+        System.arraycopy(special, 0, arr, 0, special.length);
+        float[] expected = arr.clone();
+        Arrays.sort(expected);
+        Sorting.lsdRadixSortFloat(arr);
+        int[] expectedBits = new int[arr.length];
+        int[] actualBits = new int[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            expectedBits[i] = Float.floatToIntBits(expected[i]);
+            actualBits[i] = Float.floatToIntBits(arr[i]);
+        }
+        assertArrayEquals(expectedBits, actualBits);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDoubles() {
+        Random random = new Random(42);
+        double[] arr = new double[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = random.nextGaussian() * 1e12;
+        }
+        double[] special = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE};
+        System.arraycopy(special, 0, arr, 0, special.length);
+        double[] expected = arr.clone();
+        Arrays.sort(expected);
+        Sorting.lsdRadixSortDouble(arr);
+        long[] expectedBits = new long[arr.length];
+        long[] actualBits = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            expectedBits[i] = Double.doubleToLongBits(expected[i]);
+            actualBits[i] = Double.doubleToLongBits(arr[i]);
+        }
+        assertArrayEquals(expectedBits, actualBits);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullLongs() {
+        Sorting.lsdRadixSortLong(null);
+    }
+}
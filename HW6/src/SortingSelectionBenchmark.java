@@ -0,0 +1,80 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares Sorting.partialSort and Sorting.topK against a full sort with
+ * pdqSort and mergeSort, finding the k smallest of n random Integers for
+ * k = 10, 1000 and n / 2.
+ *
+ * Run with {@code java SortingSelectionBenchmark [elements]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingSelectionBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+    private static volatile Object sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of elements, default 1,000,000
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        Integer[] data = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = random.nextInt();
+        }
+        Comparator<Integer> comparator = Comparator.naturalOrder();
+        List<Integer> list = Arrays.asList(data);
+
+        double pdq = time(() -> {
+            Integer[] arr = data.clone();
+            Sorting.pdqSort(arr, comparator);
+            sink = arr;
+        });
+        double merge = time(() -> {
+            Integer[] arr = data.clone();
+            Sorting.mergeSort(arr, comparator);
+            sink = arr;
+        });
+        System.out.printf("full sort    pdqSort %8.1f ms  mergeSort %8.1f ms%n",
+                pdq, merge);
+        for (int k : new int[] {10, 1000, n / 2}) {
+            double partial = time(() -> {
+                Integer[] arr = data.clone();
+                Sorting.partialSort(arr, k, comparator);
+                sink = arr;
+            });
+            double top = time(() -> sink = Sorting.topK(list.iterator(), k,
+                    comparator));
+            System.out.printf("k=%-9d partialSort %8.1f ms  topK %8.1f ms%n",
+                    k, partial, top);
+        }
+    }
+
+    /**
+     * Runs a selection a few times and returns the fastest timed run.
+     *
+     * @param selection the selection to time, including copying its input
+     * @return the best time in milliseconds
+     */
+    private static double time(Runnable selection) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            selection.run();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        return best;
+    }
+}
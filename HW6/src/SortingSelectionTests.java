@@ -0,0 +1,115 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for Sorting.nthElement, partialSort and topK.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingSelectionTests {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * Makes n random Integers from a range of the given size.
+     *
+     * @param n number of elements
+     * @param range number of distinct values
+     * @return the elements
+     */
+    private static Integer[] random(int n, int range) {
+        Random random = new Random(n);
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = random.nextInt(range);
+        }
+        return arr;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testNthElement() {
+        for (int n : new int[] {1, 2, 30, 1000, 100000}) {
+            for (int range : new int[] {3, Integer.MAX_VALUE}) {
+                Integer[] arr = random(n, range);
+                Integer[] sorted = arr.clone();
+                Arrays.sort(sorted);
+                for (int k : new int[] {0, n / 3, n - 1}) {
+                    Integer kth = Sorting.nthElement(arr, k,
+                            Comparator.naturalOrder());
+                    assertEquals(sorted[k], kth);
+                    assertSame(kth, arr[k]);
+                    for (int i = 0; i < n; i++) {
+                        assertTrue(i < k ? arr[i] <= kth : arr[i] >= kth);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPartialSort() {
+        Integer[] arr = random(10000, 500);
+        Integer[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        for (int k : new int[] {0, 1, 10, 1000, 10000}) {
+            Integer[] copy = arr.clone();
+            Sorting.partialSort(copy, k, Comparator.naturalOrder());
+            assertArrayEquals(Arrays.copyOf(sorted, k),
+                    Arrays.copyOf(copy, k));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTopK() {
+        Integer[] arr = random(10000, 1000000);
+        Integer[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        for (int k : new int[] {0, 1, 10, 1000, 10000, 20000}) {
+            List<Integer> top = Sorting.topK(Arrays.asList(arr).iterator(),
+                    k, Comparator.naturalOrder());
+            assertEquals(Arrays.asList(sorted).subList(0,
+                    Math.min(k, sorted.length)), top);
+        }
+        assertEquals(Collections.emptyList(), Sorting.topK(
+                Collections.<Integer>emptyIterator(), 5,
+                Comparator.naturalOrder()));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTopKWithTies() {
+        String[] words = {"bb", "a", "cc", "dd", "e"};
+        List<String> top = Sorting.topK(Arrays.asList(words).iterator(), 3,
+                Comparator.comparingInt(String::length));
+        assertEquals(3, top.size());
+        assertEquals(1, top.get(0).length());
+        assertEquals(1, top.get(1).length());
+        assertEquals(2, top.get(2).length());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNthElementOutOfRange() {
+        Sorting.nthElement(new Integer[] {1, 2}, 2, Comparator.naturalOrder());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testPartialSortNegative() {
+        Sorting.partialSort(new Integer[] {1, 2}, -1,
+                Comparator.naturalOrder());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testTopKNullIterator() {
+        Sorting.topK(null, 1, Comparator.<Integer>naturalOrder());
+    }
+}
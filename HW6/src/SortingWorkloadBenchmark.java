@@ -0,0 +1,76 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Profiles every sort in Sorting on a workload and recommends the fastest.
+ *
+ * Run with {@code java SortingWorkloadBenchmark sample.txt} to profile a
+ * sample of real data, given as whitespace-separated ints. Run with
+ * {@code java SortingWorkloadBenchmark [elements]} to profile generated
+ * workloads of that size instead: random, sorted, reversed, nearly sorted
+ * and few distinct values.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class SortingWorkloadBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args a sample file, or optional number of elements, default
+     *             10,000
+     * @throws IOException if the sample file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && !args[0].matches("\\d+")) {
+            String text = new String(Files.readAllBytes(Paths.get(args[0])));
+            int[] sample = Arrays.stream(text.trim().split("\\s+"))
+                    .mapToInt(Integer::parseInt).toArray();
+            run(args[0], sample);
+            return;
+        }
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Random random = new Random(42);
+        int[] sample = random.ints(n).toArray();
+        run("random", sample);
+        Arrays.sort(sample);
+        run("sorted", sample);
+        int[] reversed = new int[n];
+        for (int i = 0; i < n; i++) {
+            reversed[i] = sample[n - 1 - i];
+        }
+        run("reversed", reversed);
+        for (int i = 0; i < n / 100; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            int tmp = sample[a];
+            sample[a] = sample[b];
+            sample[b] = tmp;
+        }
+        run("nearly sorted", sample);
+        run("few distinct", random.ints(n, 0, 16).toArray());
+    }
+
+    /**
+     * Profiles one workload and prints the reports, fastest first.
+     *
+     * @param label name of the workload
+     * @param sample the workload
+     */
+    private static void run(String label, int[] sample) {
+        List<SortingProfiler.Report> reports =
+                SortingProfiler.compare(sample, ROUNDS);
+        System.out.printf("%s: use %s%n", label,
+                reports.get(0).getAlgorithm());
+        for (SortingProfiler.Report report : reports) {
+            System.out.println("  " + report);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton that finds every occurrence of every pattern in a
+ * set in a single pass over the text.
+ *
+ * The patterns are first put in a trie. Each trie state then gets a
+ * failure link to the state of the longest proper suffix of its string
+ * that is also in the trie, which is the failure table of KMP generalized
+ * from one pattern to a trie, and is filled in the same way: breadth first,
+ * each link found by following the links of the parent. The failure links
+ * are folded into the transitions, so the automaton is a DFA and reading a
+ * character is a single table lookup however many patterns there are.
+ *
+ * Transitions are stored densely in one int[] with a row per state and a
+ * column per character class. Every character that occurs in a pattern is
+ * its own class and all other characters share class 0, which always leads
+ * back to the root, so a row is only as wide as the patterns' alphabet.
+ * Each state also has a dictionary link to the nearest state on its failure
+ * chain where a pattern ends, so reporting matches never walks states that
+ * have none.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class AhoCorasick {
+
+    private final int[] classOf;
+    private final int width;
+    private final int[] transitions;
+    private final int[] terminal;
+    private final int[] dictionary;
+    private final int[] nextPattern;
+    private final int[] lengths;
+    private final int states;
+
+    /**
+     * Receives the matches of a search as they are found.
+     */
+    public interface MatchListener {
+        /**
+         * Called for each occurrence of a pattern, in order of the end of
+         * the occurrence. Occurrences that end at the same index are
+         * reported longest pattern first.
+         *
+         * @param patternId index of the pattern in the list the automaton
+         * was built from
+         * @param offset index in the text where the occurrence starts
+         */
+        void match(int patternId, int offset);
+    }
+
+    /**
+     * One occurrence of a pattern in a text.
+     */
+    public static final class Match {
+        private final int patternId;
+        private final int offset;
+
+        /**
+         * Creates a match.
+         *
+         * @param patternId index of the pattern
+         * @param offset index in the text where the occurrence starts
+         */
+        public Match(int patternId, int offset) {
+            this.patternId = patternId;
+            this.offset = offset;
+        }
+
+        /**
+         * Returns which pattern occurred.
+         *
+         * @return index of the pattern in the list the automaton was built
+         * from
+         */
+        public int getPatternId() {
+            return patternId;
+        }
+
+        /**
+         * Returns where the occurrence starts.
+         *
+         * @return index in the text
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Match)) {
+                return false;
+            }
+            Match other = (Match) o;
+            return patternId == other.patternId && offset == other.offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * patternId + offset;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + patternId + ", " + offset + ")";
+        }
+    }
+
+    /**
+     * Builds the automaton for a set of patterns. A pattern's id is its
+     * index in the list. The same pattern may appear more than once, and
+     * each copy is reported.
+     *
+     * @throws IllegalArgumentException if patterns is null, or any pattern
+     * is null or of length 0
+     * @param patterns the patterns to search for
+     */
+    public AhoCorasick(List<? extends CharSequence> patterns) {
+        if (patterns == null) {
+            throw new IllegalArgumentException("Patterns cannot be null");
+        }
+        int total = 0;
+        int maxChar = 0;
+        for (CharSequence pattern : patterns) {
+            if (pattern == null || pattern.length() == 0) {
+                throw new IllegalArgumentException("Pattern should not be "
+                        + "null!! and pattern length should be greater "
+                        + "than 0.");
+            }
+            total += pattern.length();
+            for (int i = 0; i < pattern.length(); i++) {
+                maxChar = Math.max(maxChar, pattern.charAt(i));
+            }
+        }
+        classOf = new int[maxChar + 1];
+        int classes = 1;
+        for (CharSequence pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                if (classOf[pattern.charAt(i)] == 0) {
+                    classOf[pattern.charAt(i)] = classes++;
+                }
+            }
+        }
+        width = classes;
+
+        // Build the trie. A transition of 0 means there is no edge yet,
+        // which is unambiguous since no trie edge leads to the root.
+        int[] delta = new int[(total + 1) * width];
+        int[] ends = new int[total + 1];
+        Arrays.fill(ends, -1);
+        nextPattern = new int[patterns.size()];
+        lengths = new int[patterns.size()];
+        int count = 1;
+        for (int id = 0; id < patterns.size(); id++) {
+            CharSequence pattern = patterns.get(id);
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int edge = state * width + classOf[pattern.charAt(i)];
+                if (delta[edge] == 0) {
+                    delta[edge] = count++;
+                }
+                state = delta[edge];
+            }
+            nextPattern[id] = ends[state];
+            ends[state] = id;
+            lengths[id] = pattern.length();
+        }
+        states = count;
+        transitions = Arrays.copyOf(delta, states * width);
+        terminal = Arrays.copyOf(ends, states);
+        dictionary = new int[states];
+        linkStates();
+    }
+
+    /**
+     * Fills in the failure and dictionary links breadth first, and replaces
+     * every missing transition with the transition of the failure state,
+     * whose row is already complete because it is shallower.
+     */
+    private void linkStates() {
+        int[] failure = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        dictionary[0] = -1;
+        for (int c = 0; c < width; c++) {
+            int child = transitions[c];
+            if (child != 0) {
+                failure[child] = 0;
+                dictionary[child] = -1;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int row = state * width;
+            int failureRow = failure[state] * width;
+            for (int c = 0; c < width; c++) {
+                int child = transitions[row + c];
+                if (child == 0) {
+                    transitions[row + c] = transitions[failureRow + c];
+                } else {
+                    int link = transitions[failureRow + c];
+                    failure[child] = link;
+                    dictionary[child] = terminal[link] >= 0 ? link
+                            : dictionary[link];
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds every occurrence of every pattern in the text and passes each
+     * one to the listener.
+     *
+     * @throws IllegalArgumentException if text or listener is null
+     * @param text the body of text to search
+     * @param listener receives the matches
+     */
+    public void search(CharSequence text, MatchListener listener) {
+        if (text == null || listener == null) {
+            throw new IllegalArgumentException("Text and listener should not "
+                    + "be null!!");
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            int c = ch < classOf.length ? classOf[ch] : 0;
+            state = transitions[state * width + c];
+            int hit = terminal[state] >= 0 ? state : dictionary[state];
+            while (hit >= 0) {
+                for (int id = terminal[hit]; id >= 0; id = nextPattern[id]) {
+                    listener.match(id, i - lengths[id] + 1);
+                }
+                hit = dictionary[hit];
+            }
+        }
+    }
+
+    /**
+     * Finds every occurrence of every pattern in the text.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the body of text to search
+     * @return the matches, in the order search reports them
+     */
+    public List<Match> search(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        search(text, (patternId, offset) ->
+                matches.add(new Match(patternId, offset)));
+        return matches;
+    }
+
+    /**
+     * Returns the number of patterns the automaton searches for.
+     *
+     * @return the number of patterns
+     */
+    public int patternCount() {
+        return lengths.length;
+    }
+
+    /**
+     * Returns the number of states of the automaton, which is one more
+     * than the number of distinct non-empty prefixes of the patterns.
+     *
+     * @return the number of states
+     */
+    public int stateCount() {
+        return states;
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares one AhoCorasick pass over a text with running
+ * PatternMatching.kmp once per keyword, for a set of random lower-case
+ * keywords and a text of random words with some keywords mixed in.
+ *
+ * Run with {@code java AhoCorasickBenchmark [keywords] [text length]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class AhoCorasickBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of keywords, default 5,000, and text
+     *             length, default 100,000
+     */
+    public static void main(String[] args) {
+        int keywords = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int length = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        Random random = new Random(42);
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < keywords; i++) {
+            patterns.add(word(random, 5 + random.nextInt(8)));
+        }
+        StringBuilder builder = new StringBuilder(length + 20);
+        while (builder.length() < length) {
+            builder.append(random.nextInt(10) == 0
+                    ? patterns.get(random.nextInt(keywords))
+                    : word(random, 2 + random.nextInt(8))).append(' ');
+        }
+        String text = builder.toString();
+
+        long start = System.nanoTime();
+        AhoCorasick automaton = new AhoCorasick(patterns);
+        System.out.printf("build        %8.1f ms, %d states%n",
+                (System.nanoTime() - start) / 1e6, automaton.stateCount());
+        long[] matches = new long[1];
+        double aho = time(() -> {
+            matches[0] = 0;
+            automaton.search(text, (patternId, offset) -> matches[0]++);
+            sink += matches[0];
+        });
+        System.out.printf("AhoCorasick  %8.1f ms, %d matches%n", aho,
+                matches[0]);
+        double kmp = time(() -> {
+            long count = 0;
+            CharacterComparator comparator = new CharacterComparator();
+            for (String pattern : patterns) {
+                count += PatternMatching.kmp(pattern, text, comparator).size();
+            }
+            matches[0] = count;
+            sink += count;
+        });
+        System.out.printf("kmp per word %8.1f ms, %d matches%n", kmp,
+                matches[0]);
+    }
+
+    /**
+     * Makes a random lower-case word.
+     *
+     * @param random the source of randomness
+     * @param length the length of the word
+     * @return the word
+     */
+    private static String word(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Runs a search a few times and returns the fastest timed run.
+     *
+     * @param search the search to time
+     * @return the best time in milliseconds
+     */
+    private static double time(Runnable search) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            search.run();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for AhoCorasick.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class AhoCorasickTests {
+
+    private static final int TIMEOUT = 2000;
+
+    @Test(timeout = TIMEOUT)
+    public void testClassicExample() {
+        AhoCorasick automaton = new AhoCorasick(Arrays.asList("he", "she",
+                "his", "hers"));
+        List<AhoCorasick.Match> expected = Arrays.asList(
+                new AhoCorasick.Match(1, 1), new AhoCorasick.Match(0, 2),
+                new AhoCorasick.Match(3, 2));
+        assertEquals(expected, automaton.search("ushers"));
+        assertEquals(10, automaton.stateCount());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testOverlapsAndDuplicates() {
+        AhoCorasick automaton = new AhoCorasick(Arrays.asList("aa", "a",
+                "aa"));
+        List<AhoCorasick.Match> matches = automaton.search("aaa");
+        assertEquals(3 + 2 + 2, matches.size());
+        assertEquals(Collections.emptyList(), automaton.search("bcd"));
+        assertEquals(Collections.emptyList(), automaton.search(""));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAgreesWithKmp() {
+        Random random = new Random(42);
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            patterns.add(TestStrings.random(random, "abcd",
+                    1 + random.nextInt(5)));
+        }
+        String text = TestStrings.random(random, "abcd", 5000) + "\u4e2d";
+        List<int[]> expected = new ArrayList<>();
+        for (int id = 0; id < patterns.size(); id++) {
+            for (int offset : PatternMatching.kmp(patterns.get(id), text,
+                    new CharacterComparator())) {
+                expected.add(new int[] {id, offset});
+            }
+        }
+        List<int[]> actual = new ArrayList<>();
+        new AhoCorasick(patterns).search(text,
+            (patternId, offset) -> actual.add(new int[] {patternId, offset}));
+        Comparator<int[]> order = Comparator.<int[]>comparingInt(m -> m[0])
+                .thenComparingInt(m -> m[1]);
+        expected.sort(order);
+        actual.sort(order);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)[0], actual.get(i)[0]);
+            assertEquals(expected.get(i)[1], actual.get(i)[1]);
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testEmptyPattern() {
+        new AhoCorasick(Arrays.asList("a", ""));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullText() {
+        new AhoCorasick(Arrays.asList("a")).search(null);
+    }
+}
@@ -1,7 +1,13 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Your implementations of various string searching algorithms.
@@ -145,7 +151,7 @@ public class PatternMatching {
         if (pattern.length() > text.length()) {
             return temp;
         }
-        Map<Character, Integer> table = buildLastTable(pattern);
+        LastTable table = new LastTable(pattern, pattern.length());
         int t = 0;
         while (t <= text.length() - pattern.length()) {
             int p = pattern.length() - 1;
@@ -157,7 +163,7 @@ public class PatternMatching {
                 temp.add(t);
                 t++;
             } else {
-                int shiftedIndex = table.getOrDefault(text.charAt(t + p), -1);
+                int shiftedIndex = table.get(text.charAt(t + p));
                 if (shiftedIndex < p) {
                     t += p - shiftedIndex;
                 } else {
@@ -206,6 +212,540 @@ public class PatternMatching {
         return table;
     }
 
+    /**
+     * Boyer Moore algorithm with both the bad character rule and the good
+     * suffix rule. On a mismatch the pattern shifts by whichever rule allows
+     * the larger shift: the bad character rule lines the mismatched text
+     * character up with its last occurrence in the pattern, and the good
+     * suffix rule lines the part that did match up with its next occurrence
+     * in the pattern, or with the longest prefix of the pattern that is a
+     * suffix of it. After a match the pattern shifts by its period.
+     *
+     * The good suffix table compares pattern characters with the
+     * comparator, like buildFailureTable does.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @throws IllegalArgumentException if text or comparator is null
+     * @param pattern the pattern you are searching for in a body of text
+     * @param text the body of text where you search for the pattern
+     * @param comparator you MUST use this for checking character equality
+     * @return list containing the starting index for each match
+     */
+    public static List<Integer> boyerMooreGoodSuffix(CharSequence pattern,
+                       CharSequence text, CharacterComparator comparator) {
+        if (pattern == null || pattern.length() == 0 || text == null
+                || comparator == null) {
+            throw new IllegalArgumentException("Pattern, text, comparator "
+                    + "should not be null!! and pattern length should be "
+                    + "greater than 0.");
+        }
+        List<Integer> matches = new ArrayList<>();
+        int m = pattern.length();
+        if (m > text.length()) {
+            return matches;
+        }
+        LastTable last = new LastTable(pattern, m);
+        int[] goodSuffix = buildGoodSuffixTable(pattern, comparator);
+        int t = 0;
+        while (t <= text.length() - m) {
+            int p = m - 1;
+            while (p >= 0 && comparator
+                    .compare(text.charAt(t + p), pattern.charAt(p)) == 0) {
+                p--;
+            }
+            if (p == -1) {
+                matches.add(t);
+                t += goodSuffix[0];
+            } else {
+                t += Math.max(goodSuffix[p],
+                        p - last.get(text.charAt(t + p)));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Builds the good suffix table of Boyer Moore: entry i is how far the
+     * pattern may shift when pattern[i + 1..m - 1] matched and pattern[i]
+     * did not. Entry 0 is also the shift after a full match.
+     *
+     * @param pattern the pattern, of length at least 1
+     * @param comparator you MUST use this for checking character equality
+     * @return the good suffix shifts
+     */
+    private static int[] buildGoodSuffixTable(CharSequence pattern,
+                                              CharacterComparator comparator) {
+        int m = pattern.length();
+        // suffix[i] is the length of the longest common suffix of
+        // pattern[0..i] and the whole pattern.
+        int[] suffix = new int[m];
+        suffix[m - 1] = m;
+        int g = m - 1;
+        int f = m - 1;
+        for (int i = m - 2; i >= 0; i--) {
+            if (i > g && suffix[i + m - 1 - f] < i - g) {
+                suffix[i] = suffix[i + m - 1 - f];
+            } else {
+                if (i < g) {
+                    g = i;
+                }
+                f = i;
+                while (g >= 0 && comparator.compare(pattern.charAt(g),
+                        pattern.charAt(g + m - 1 - f)) == 0) {
+                    g--;
+                }
+                suffix[i] = f - g;
+            }
+        }
+        int[] shift = new int[m];
+        Arrays.fill(shift, m);
+        int j = 0;
+        for (int i = m - 1; i >= -1; i--) {
+            if (i == -1 || suffix[i] == i + 1) {
+                for (; j < m - 1 - i; j++) {
+                    if (shift[j] == m) {
+                        shift[j] = m - 1 - i;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i <= m - 2; i++) {
+            shift[m - 1 - suffix[i]] = m - 1 - i;
+        }
+        return shift;
+    }
+
+    /**
+     * Boyer-Moore-Horspool algorithm. Compares the window right to left
+     * like boyerMoore, but always shifts by the text character under the
+     * last position of the window: far enough to line it up with its last
+     * occurrence in the pattern before the last position, or past the
+     * window if there is none.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @throws IllegalArgumentException if text or comparator is null
+     * @param pattern the pattern you are searching for in a body of text
+     * @param text the body of text where you search for the pattern
+     * @param comparator you MUST use this for checking character equality
+     * @return list containing the starting index for each match
+     */
+    public static List<Integer> horspool(CharSequence pattern,
+                       CharSequence text, CharacterComparator comparator) {
+        if (pattern == null || pattern.length() == 0 || text == null
+                || comparator == null) {
+            throw new IllegalArgumentException("Pattern, text, comparator "
+                    + "should not be null!! and pattern length should be "
+                    + "greater than 0.");
+        }
+        List<Integer> matches = new ArrayList<>();
+        int m = pattern.length();
+        if (m > text.length()) {
+            return matches;
+        }
+        LastTable last = new LastTable(pattern, m - 1);
+        int t = 0;
+        while (t <= text.length() - m) {
+            int p = m - 1;
+            while (p >= 0 && comparator
+                    .compare(text.charAt(t + p), pattern.charAt(p)) == 0) {
+                p--;
+            }
+            if (p == -1) {
+                matches.add(t);
+            }
+            t += m - 1 - last.get(text.charAt(t + m - 1));
+        }
+        return matches;
+    }
+
+    /**
+     * Sunday's Quick Search algorithm. Compares the window left to right,
+     * then shifts by the text character just past the window: far enough
+     * to line it up with its last occurrence in the pattern, or to skip it
+     * entirely if the pattern does not contain it. The shift is at least
+     * one more than Horspool's for the same table.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @throws IllegalArgumentException if text or comparator is null
+     * @param pattern the pattern you are searching for in a body of text
+     * @param text the body of text where you search for the pattern
+     * @param comparator you MUST use this for checking character equality
+     * @return list containing the starting index for each match
+     */
+    public static List<Integer> sunday(CharSequence pattern,
+                       CharSequence text, CharacterComparator comparator) {
+        if (pattern == null || pattern.length() == 0 || text == null
+                || comparator == null) {
+            throw new IllegalArgumentException("Pattern, text, comparator "
+                    + "should not be null!! and pattern length should be "
+                    + "greater than 0.");
+        }
+        List<Integer> matches = new ArrayList<>();
+        int m = pattern.length();
+        if (m > text.length()) {
+            return matches;
+        }
+        LastTable last = new LastTable(pattern, m);
+        int t = 0;
+        while (t <= text.length() - m) {
+            int p = 0;
+            while (p < m && comparator
+                    .compare(text.charAt(t + p), pattern.charAt(p)) == 0) {
+                p++;
+            }
+            if (p == m) {
+                matches.add(t);
+            }
+            if (t + m == text.length()) {
+                break;
+            }
+            t += m - last.get(text.charAt(t + m));
+        }
+        return matches;
+    }
+
+    /**
+     * Number of chars packed into one long by swarSearch.
+     */
+    private static final int LANES = 4;
+
+    /**
+     * The lowest bit of each 16-bit lane of a long.
+     */
+    private static final long LOW_BITS = 0x0001000100010001L;
+
+    /**
+     * The highest bit of each 16-bit lane of a long.
+     */
+    private static final long HIGH_BITS = 0x8000800080008000L;
+
+    /**
+     * Number of alignments swarSearch filters per block of text it copies.
+     */
+    private static final int FILTER_BLOCK = 1 << 12;
+
+    /**
+     * Searches by filtering on the first and last character of the pattern
+     * before comparing anything else, testing four alignments at once with
+     * SIMD within a register (SWAR).
+     *
+     * The text is copied a block at a time into a little-endian buffer, so
+     * one long read holds the chars at four consecutive alignments. XORing
+     * it with the first char of the pattern repeated in every 16-bit lane
+     * zeroes exactly the lanes where an alignment starts with that char,
+     * and the same is done four chars further on with the last char of the
+     * pattern. A lane of the OR of the two is zero only where both match,
+     * and the zero lanes are found with one subtract and two masks. That
+     * test can also flag a lane above a zero lane, which is harmless since
+     * every flagged alignment is then compared in full, from the start of
+     * the pattern to the end, as in rabinKarp. Only those comparisons are
+     * made with the comparator; the filter itself is not counted.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @throws IllegalArgumentException if text or comparator is null
+     * @param pattern the pattern you are searching for in a body of text
+     * @param text the body of text where you search for the pattern
+     * @param comparator you MUST use this for checking character equality
+     * @return list containing the starting index for each match
+     */
+    public static List<Integer> swarSearch(CharSequence pattern,
+                       CharSequence text, CharacterComparator comparator) {
+        if (pattern == null || pattern.length() == 0 || text == null
+                || comparator == null) {
+            throw new IllegalArgumentException("Pattern, text, comparator "
+                    + "should not be null!! and pattern length should be "
+                    + "greater than 0.");
+        }
+        List<Integer> matches = new ArrayList<>();
+        int m = pattern.length();
+        if (m > text.length()) {
+            return matches;
+        }
+        char first = pattern.charAt(0);
+        char last = pattern.charAt(m - 1);
+        long firstLanes = LOW_BITS * first;
+        long lastLanes = LOW_BITS * last;
+        int positions = text.length() - m + 1;
+        char[] chars = new char[Math.min(positions, FILTER_BLOCK) + m - 1];
+        ByteBuffer bytes = ByteBuffer.allocate(2 * chars.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        CharBuffer view = bytes.asCharBuffer();
+        for (int start = 0; start < positions; start += FILTER_BLOCK) {
+            int end = Math.min(positions - start, FILTER_BLOCK);
+            int loaded = end + m - 1;
+            copyChars(text, start, loaded, chars);
+            view.clear();
+            view.put(chars, 0, loaded);
+            int r = 0;
+            for (; r + LANES <= end; r += LANES) {
+                long lanes = (bytes.getLong(2 * r) ^ firstLanes)
+                        | (bytes.getLong(2 * (r + m - 1)) ^ lastLanes);
+                long zero = (lanes - LOW_BITS) & ~lanes & HIGH_BITS;
+                while (zero != 0) {
+                    int candidate = r + (Long.numberOfTrailingZeros(zero)
+                            >>> 4);
+                    if (matchesAt(pattern, chars, candidate, comparator)) {
+                        matches.add(start + candidate);
+                    }
+                    zero &= zero - 1;
+                }
+            }
+            for (; r < end; r++) {
+                if (chars[r] == first && chars[r + m - 1] == last
+                        && matchesAt(pattern, chars, r, comparator)) {
+                    matches.add(start + r);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Copies text[from..from + length - 1] to the start of chars.
+     *
+     * @param text the text
+     * @param from index of the first char to copy
+     * @param length number of chars to copy
+     * @param chars where to copy them
+     */
+    private static void copyChars(CharSequence text, int from, int length,
+                                  char[] chars) {
+        if (text instanceof String) {
+            ((String) text).getChars(from, from + length, chars, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[i] = text.charAt(from + i);
+            }
+        }
+    }
+
+    /**
+     * Compares the pattern with the chars at an alignment, from the start
+     * of the pattern to the end.
+     *
+     * @param pattern the pattern
+     * @param chars the chars of the text
+     * @param at index in chars of the alignment
+     * @param comparator used for every comparison
+     * @return true if the whole pattern matches there
+     */
+    private static boolean matchesAt(CharSequence pattern, char[] chars,
+                                     int at, CharacterComparator comparator) {
+        for (int p = 0; p < pattern.length(); p++) {
+            if (comparator.compare(chars[at + p], pattern.charAt(p)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Texts with fewer alignments than this are searched without forking,
+     * and no segment of parallelSearch is shorter.
+     */
+    public static final int PARALLEL_SEARCH_THRESHOLD = 1 << 16;
+
+    /**
+     * A sequential search of PatternMatching, such as kmp, boyerMoore or
+     * rabinKarp, that parallelSearch runs on each segment of a text.
+     */
+    public interface Searcher {
+        /**
+         * Finds every occurrence of the pattern in the text.
+         *
+         * @param pattern the pattern you are searching for in a body of text
+         * @param text the body of text where you search for the pattern
+         * @param comparator you MUST use this for checking character equality
+         * @return list containing the starting index for each match
+         */
+        List<Integer> search(CharSequence pattern, CharSequence text,
+                             CharacterComparator comparator);
+    }
+
+    /**
+     * Splits the text into segments and searches them in parallel. The
+     * segments are never shorter than {@code PARALLEL_SEARCH_THRESHOLD}
+     * alignments.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @throws IllegalArgumentException if text or searcher is null
+     * @param pattern the pattern you are searching for in a body of text
+     * @param text the body of text where you search for the pattern
+     * @param searcher the search to run on each segment
+     * @return list containing the starting index for each match
+     * @see #parallelSearch(CharSequence, CharSequence, Searcher, int)
+     */
+    public static List<Integer> parallelSearch(CharSequence pattern,
+                           CharSequence text, Searcher searcher) {
+        return parallelSearch(pattern, text, searcher,
+                PARALLEL_SEARCH_THRESHOLD);
+    }
+
+    /**
+     * Splits the text into segments and searches them in parallel with a
+     * sequential searcher, such as kmp, boyerMoore or rabinKarp.
+     *
+     * Each segment owns a range of alignments and extends pattern.length()
+     * - 1 characters past it, so an occurrence that crosses into the next
+     * segment is still found whole. Every occurrence a segment finds starts
+     * inside the range it owns, so no occurrence is found twice, and the
+     * lists of the segments are simply joined in order. Segments are views
+     * of the text, not copies. There are up to four segments per thread of
+     * the fork/join pool, which is the pool of the calling thread if it is
+     * a pool worker and the common pool otherwise.
+     *
+     * CharacterComparator is not thread safe, so each segment is searched
+     * with its own one, and none of the comparisons are counted anywhere.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @throws IllegalArgumentException if text or searcher is null, or
+     * segmentLength is not positive
+     * @param pattern the pattern you are searching for in a body of text
+     * @param text the body of text where you search for the pattern
+     * @param searcher the search to run on each segment
+     * @param segmentLength the fewest alignments a segment may own
+     * @return list containing the starting index for each match
+     */
+    public static List<Integer> parallelSearch(CharSequence pattern,
+           CharSequence text, Searcher searcher, int segmentLength) {
+        if (pattern == null || pattern.length() == 0 || text == null
+                || searcher == null || segmentLength <= 0) {
+            throw new IllegalArgumentException("Pattern, text, searcher "
+                    + "should not be null!! and pattern length and segment "
+                    + "length should be greater than 0.");
+        }
+        int m = pattern.length();
+        if (m > text.length()) {
+            return new ArrayList<>();
+        }
+        int positions = text.length() - m + 1;
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        int parallelism = pool != null ? pool.getParallelism()
+                : ForkJoinPool.getCommonPoolParallelism();
+        int segments = Math.max(1, Math.min(parallelism * 4,
+                positions / segmentLength));
+        if (segments == 1) {
+            return searcher.search(pattern, text, new CharacterComparator());
+        }
+        int owned = (positions + segments - 1) / segments;
+        List<List<Integer>> found = new ArrayList<>();
+        List<ForkJoinTask<List<Integer>>> tasks = new ArrayList<>();
+        for (int start = 0; start < positions; start += owned) {
+            int offset = start;
+            int length = Math.min(owned, positions - start) + m - 1;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                List<Integer> matches = searcher.search(pattern,
+                        new Segment(text, offset, length),
+                        new CharacterComparator());
+                for (int i = 0; i < matches.size(); i++) {
+                    matches.set(i, matches.get(i) + offset);
+                }
+                return matches;
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        int total = 0;
+        for (ForkJoinTask<List<Integer>> task : tasks) {
+            found.add(task.join());
+            total += found.get(found.size() - 1).size();
+        }
+        List<Integer> matches = new ArrayList<>(total);
+        for (List<Integer> segment : found) {
+            matches.addAll(segment);
+        }
+        return matches;
+    }
+
+    /**
+     * A window of a CharSequence that shares its characters.
+     */
+    private static final class Segment implements CharSequence {
+        private final CharSequence text;
+        private final int offset;
+        private final int length;
+
+        /**
+         * Creates a window of text[offset..offset + length - 1].
+         *
+         * @param text the whole text
+         * @param offset index in the text of the window's first character
+         * @param length number of characters in the window
+         */
+        private Segment(CharSequence text, int offset, int length) {
+            this.text = text;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return text.charAt(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new Segment(text, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return text.subSequence(offset, offset + length).toString();
+        }
+    }
+
+    /**
+     * Last occurrence table held in an int[] for Latin-1 characters, so
+     * looking one up neither boxes a Character nor hashes it. Wider
+     * characters fall back to a map, which is only created if the pattern
+     * contains any.
+     */
+    private static final class LastTable {
+        private static final int LATIN_1 = 256;
+
+        private final int[] latin = new int[LATIN_1];
+        private Map<Character, Integer> wide;
+
+        /**
+         * Records the last occurrence of each character of
+         * pattern[0..end - 1].
+         *
+         * @param pattern the pattern
+         * @param end one past the last index to include
+         */
+        private LastTable(CharSequence pattern, int end) {
+            Arrays.fill(latin, -1);
+            for (int i = 0; i < end; i++) {
+                char c = pattern.charAt(i);
+                if (c < LATIN_1) {
+                    latin[c] = i;
+                } else {
+                    if (wide == null) {
+                        wide = new HashMap<>();
+                    }
+                    wide.put(c, i);
+                }
+            }
+        }
+
+        /**
+         * Returns the last index of a character.
+         *
+         * @param c the character
+         * @return its last index, or -1 if it does not occur
+         */
+        private int get(char c) {
+            if (c < LATIN_1) {
+                return latin[c];
+            }
+            return wide == null ? -1 : wide.getOrDefault(c, -1);
+        }
+    }
+
     /**
      * Prime base used for Rabin-Karp hashing.
      * DO NOT EDIT!
@@ -308,9 +848,13 @@ public class PatternMatching {
         for (int i = length - 1; i >= 0; i--) {
             textHash += text.charAt(i) * base;
             patternHash += pattern.charAt(i) * base;
-            base *= BASE;
+            // Stop at BASE ^ (length - 1): dividing BASE ^ length back down
+            // is wrong once the product has overflowed.
+            if (i > 0) {
+                base *= BASE;
+            }
         }
-        return new int[]{textHash, patternHash, base / BASE};
+        return new int[]{textHash, patternHash, base};
     }
 
     /**
@@ -0,0 +1,131 @@
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares kmp, boyerMoore, boyerMooreGoodSuffix, horspool, sunday and
+ * swarSearch on English-like text, DNA and a binary alphabet, reporting
+ * time, throughput over the two bytes of each text char, and character
+ * comparisons. Each pattern is cut from a random spot of its
+ * text, so it occurs at least once.
+ *
+ * Run with {@code java PatternMatchingBenchmark [text length]
+ * [pattern length]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class PatternMatchingBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    private static final String[] WORDS = {"the", "of", "and", "to", "in",
+        "is", "was", "that", "for", "it", "with", "as", "his", "on", "be",
+        "at", "by", "had", "this", "not", "but", "from", "which", "she",
+        "they", "were", "have", "one", "there", "been", "would", "their",
+        "could", "about", "pattern", "matching", "algorithm", "search"};
+    private static volatile long sink;
+
+    /**
+     * A pattern matching method of PatternMatching.
+     */
+    private interface Matcher {
+        /**
+         * Finds every occurrence of the pattern.
+         *
+         * @param pattern the pattern
+         * @param text the text
+         * @param comparator counts the comparisons
+         * @return the starting index of each occurrence
+         */
+        List<Integer> match(CharSequence pattern, CharSequence text,
+                            CharacterComparator comparator);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional text length, default 1,000,000, and pattern
+     *             length, default 16
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        Random random = new Random(42);
+        StringBuilder english = new StringBuilder(n + 16);
+        while (english.length() < n) {
+            english.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        run("english", english.toString(), m, random);
+        run("dna", randomText("acgt", n, random), m, random);
+        run("binary", randomText("01", n, random), m, random);
+    }
+
+    /**
+     * Times every matcher on one text.
+     *
+     * @param label name of the text
+     * @param text the text
+     * @param m length of the pattern
+     * @param random picks where the pattern is cut from
+     */
+    private static void run(String label, String text, int m, Random random) {
+        int from = random.nextInt(text.length() - m);
+        String pattern = text.substring(from, from + m);
+        System.out.println(label + ", pattern \"" + pattern + "\"");
+        time("kmp", PatternMatching::kmp, pattern, text);
+        time("boyerMoore", PatternMatching::boyerMoore, pattern, text);
+        time("goodSuffix", PatternMatching::boyerMooreGoodSuffix, pattern,
+                text);
+        time("horspool", PatternMatching::horspool, pattern, text);
+        time("sunday", PatternMatching::sunday, pattern, text);
+        time("swarSearch", PatternMatching::swarSearch, pattern, text);
+    }
+
+    /**
+     * Makes a random text over the given characters.
+     *
+     * @param alphabet the characters to use
+     * @param n the length of the text
+     * @param random the source of randomness
+     * @return the text
+     */
+    private static String randomText(String alphabet, int n, Random random) {
+        StringBuilder builder = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Runs a matcher a few times and prints its fastest time, the
+     * throughput of that time and its comparison count.
+     *
+     * @param label name of the matcher
+     * @param matcher the matcher
+     * @param pattern the pattern
+     * @param text the text
+     */
+    private static void time(String label, Matcher matcher, String pattern,
+                             String text) {
+        double best = Double.MAX_VALUE;
+        int comparisons = 0;
+        int matches = 0;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            CharacterComparator comparator = new CharacterComparator();
+            long start = System.nanoTime();
+            List<Integer> found = matcher.match(pattern, text, comparator);
+            long elapsed = System.nanoTime() - start;
+            sink += found.size();
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+            comparisons = comparator.getCount();
+            matches = found.size();
+        }
+        double gigabytes = 2.0 * text.length() / 1e9;
+        System.out.printf("  %-11s %7.2f ms %6.2f GB/s %10d comparisons "
+                + "%6d matches%n", label, best, gigabytes / (best / 1e3),
+                comparisons, matches);
+    }
+}
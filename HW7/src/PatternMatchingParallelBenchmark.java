@@ -0,0 +1,117 @@
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Sweeps parallelSearch over thread counts, pattern lengths and text
+ * lengths for kmp, boyerMoore and rabinKarp, printing the speedup over
+ * running the same search sequentially, to find where forking starts to
+ * pay off.
+ *
+ * Run with {@code java PatternMatchingParallelBenchmark [largest text
+ * length]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class PatternMatchingParallelBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    private static final int[] THREADS = {1, 2, 4, 8};
+    private static final int[] PATTERN_LENGTHS = {4, 16, 64};
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional largest text length, default 16,777,216
+     */
+    public static void main(String[] args) {
+        int largest = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 24;
+        Random random = new Random(42);
+        String full = randomText("acgt", largest, random);
+        System.out.println(Runtime.getRuntime().availableProcessors()
+                + " processors; speedup over the sequential search");
+        for (int n = 1 << 16; n <= largest; n <<= 4) {
+            String text = full.substring(0, n);
+            for (int m : PATTERN_LENGTHS) {
+                int from = random.nextInt(n - m);
+                String pattern = text.substring(from, from + m);
+                sweep("kmp", PatternMatching::kmp, pattern, text);
+                sweep("boyerMoore", PatternMatching::boyerMoore, pattern,
+                        text);
+                sweep("rabinKarp", PatternMatching::rabinKarp, pattern,
+                        text);
+            }
+        }
+    }
+
+    /**
+     * Makes a random text over the given characters.
+     *
+     * @param alphabet the characters to use
+     * @param n the length of the text
+     * @param random the source of randomness
+     * @return the text
+     */
+    private static String randomText(String alphabet, int n, Random random) {
+        StringBuilder builder = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Times one searcher sequentially and then in parallel at every thread
+     * count, and prints one line of speedups.
+     *
+     * @param label name of the searcher
+     * @param searcher the searcher
+     * @param pattern the pattern
+     * @param text the text
+     */
+    private static void sweep(String label, PatternMatching.Searcher searcher,
+                              String pattern, String text) {
+        double sequential = time(() -> searcher.search(pattern, text,
+                new CharacterComparator()));
+        StringBuilder line = new StringBuilder(String.format(
+                "n=%-9d m=%-3d %-11s %9.3f ms", text.length(),
+                pattern.length(), label, sequential));
+        for (int threads : THREADS) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                double parallel = time(() -> pool.invoke(ForkJoinTask.adapt(
+                        () -> PatternMatching.parallelSearch(pattern, text,
+                                searcher))));
+                line.append(String.format("  %dt %5.2fx", threads,
+                        sequential / parallel));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        System.out.println(line);
+    }
+
+    /**
+     * Runs a search a few times and returns its fastest time.
+     *
+     * @param search the search
+     * @return the fastest time in milliseconds
+     */
+    private static double time(Supplier<List<Integer>> search) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += search.get().size();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e6);
+            }
+        }
+        return best;
+    }
+}
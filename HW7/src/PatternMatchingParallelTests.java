@@ -0,0 +1,89 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for parallelSearch.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class PatternMatchingParallelTests {
+
+    private static final int TIMEOUT = 2000;
+
+    @Test(timeout = TIMEOUT)
+    public void testAgreeWithKmp() {
+        // A pool of eight allows up to 32 segments, so short segments put
+        // plenty of occurrences across segment boundaries.
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            Random random = new Random(42);
+            PatternMatching.Searcher[] searchers = {PatternMatching::kmp,
+                PatternMatching::boyerMoore, PatternMatching::rabinKarp,
+                PatternMatching::horspool};
+            for (int round = 0; round < 200; round++) {
+                String text = TestStrings.random(random, "ab",
+                        1 + random.nextInt(300));
+                String pattern = TestStrings.random(random, "ab",
+                        1 + random.nextInt(6));
+                int segmentLength = 1 + random.nextInt(10);
+                List<Integer> expected = PatternMatching.kmp(pattern, text,
+                        new CharacterComparator());
+                for (PatternMatching.Searcher searcher : searchers) {
+                    assertEquals(expected, pool.invoke(ForkJoinTask.adapt(
+                            () -> PatternMatching.parallelSearch(pattern,
+                                    text, searcher, segmentLength))));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEveryAlignment() {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'a');
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i + 5 <= chars.length; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, PatternMatching.parallelSearch("aaaaa",
+                new String(chars), PatternMatching::boyerMoore, 7));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDefaultThreshold() {
+        Random random = new Random(7);
+        String text = TestStrings.random(random, "acgt",
+                4 * PatternMatching.PARALLEL_SEARCH_THRESHOLD);
+        String pattern = "acgtac";
+        assertEquals(PatternMatching.kmp(pattern, text,
+                new CharacterComparator()), PatternMatching.parallelSearch(
+                pattern, text, PatternMatching::boyerMoore));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPatternLongerThanText() {
+        assertEquals(new ArrayList<Integer>(), PatternMatching.parallelSearch(
+                "abcd", "abc", PatternMatching::kmp, 1));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNonPositiveSegmentLength() {
+        PatternMatching.parallelSearch("a", "abc", PatternMatching::kmp, 0);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullSearcher() {
+        PatternMatching.parallelSearch("a", "abc", null);
+    }
+}
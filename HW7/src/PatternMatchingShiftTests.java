@@ -0,0 +1,79 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the array-based last occurrence table of boyerMoore and for
+ * boyerMooreGoodSuffix, horspool and sunday.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class PatternMatchingShiftTests {
+
+    private static final int TIMEOUT = 2000;
+
+    @Test(timeout = TIMEOUT)
+    public void testAgreeWithKmp() {
+        Random random = new Random(42);
+        for (String alphabet : new String[] {"ab", "acgt", "ab\u00e9\u4e00",
+            "abcdefghijklmnopqrstuvwxyz"}) {
+            for (int round = 0; round < 300; round++) {
+                String text = TestStrings.random(random, alphabet, 200);
+                String pattern = TestStrings.random(random, alphabet,
+                        1 + random.nextInt(6));
+                CharacterComparator comparator = new CharacterComparator();
+                List<Integer> expected = PatternMatching.kmp(pattern, text,
+                        comparator);
+                assertEquals(expected, PatternMatching.boyerMoore(pattern,
+                        text, comparator));
+                assertEquals(expected, PatternMatching.boyerMooreGoodSuffix(
+                        pattern, text, comparator));
+                assertEquals(expected, PatternMatching.horspool(pattern,
+                        text, comparator));
+                assertEquals(expected, PatternMatching.sunday(pattern, text,
+                        comparator));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testComparisonCounts() {
+        String text = "xxxxxxxxxxxx";
+        CharacterComparator comparator = new CharacterComparator();
+        PatternMatching.horspool("abcd", text, comparator);
+        assertEquals(3, comparator.getCount());
+        comparator = new CharacterComparator();
+        PatternMatching.sunday("abcd", text, comparator);
+        assertEquals(2, comparator.getCount());
+        comparator = new CharacterComparator();
+        PatternMatching.boyerMoore("abcd", text, comparator);
+        assertEquals(3, comparator.getCount());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGoodSuffixShift() {
+        // After "ab" matches and "c" mismatches "a", the good suffix rule
+        // lines up the earlier "ab" of the pattern; the bad character rule
+        // would only shift by one.
+        CharacterComparator comparator = new CharacterComparator();
+        assertEquals(Arrays.asList(3), PatternMatching.boyerMooreGoodSuffix(
+                "abcab", "xxaabcab", comparator));
+        assertEquals(Arrays.asList(0, 2), PatternMatching.boyerMooreGoodSuffix(
+                "abab", "ababab", comparator));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testHorspoolEmptyPattern() {
+        PatternMatching.horspool("", "abc", new CharacterComparator());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testSundayNullComparator() {
+        PatternMatching.sunday("a", "abc", null);
+    }
+}
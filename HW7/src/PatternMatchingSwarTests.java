@@ -0,0 +1,92 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for swarSearch.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class PatternMatchingSwarTests {
+
+    private static final int TIMEOUT = 2000;
+
+    @Test(timeout = TIMEOUT)
+    public void testAgreeWithKmp() {
+        Random random = new Random(42);
+        for (String alphabet : new String[] {"ab", "acgt", "ab\u00e9\u4e00",
+            "a\uffff\u0001\u8000"}) {
+            for (int round = 0; round < 300; round++) {
+                String text = TestStrings.random(random, alphabet,
+                        random.nextInt(40) + 1);
+                String pattern = TestStrings.random(random, alphabet,
+                        1 + random.nextInt(6));
+                CharacterComparator comparator = new CharacterComparator();
+                assertEquals(PatternMatching.kmp(pattern, text, comparator),
+                        PatternMatching.swarSearch(pattern, text, comparator));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAcrossBlocks() {
+        // Long enough for several blocks, with matches on both sides of
+        // every block boundary.
+        Random random = new Random(7);
+        String text = TestStrings.random(random, "ab", 20000);
+        for (String pattern : new String[] {"a", "ab", "abba", "babbabab"}) {
+            CharacterComparator comparator = new CharacterComparator();
+            assertEquals(PatternMatching.kmp(pattern, text, comparator),
+                    PatternMatching.swarSearch(pattern, new StringBuilder(text),
+                            comparator));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEveryAlignment() {
+        char[] chars = new char[4099];
+        Arrays.fill(chars, 'a');
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i + 3 <= chars.length; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, PatternMatching.swarSearch("aaa",
+                new String(chars), new CharacterComparator()));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testOnlyCandidatesCompared() {
+        // No alignment starts with 'a' and ends with 'd', so nothing is
+        // compared with the comparator.
+        CharacterComparator comparator = new CharacterComparator();
+        assertEquals(new ArrayList<Integer>(), PatternMatching.swarSearch(
+                "abcd", "xxxxaxxxxdxxxxabcxbcd", comparator));
+        assertEquals(0, comparator.getCount());
+        comparator = new CharacterComparator();
+        assertEquals(Arrays.asList(4), PatternMatching.swarSearch("abcd",
+                "xxxxabcdxx", comparator));
+        assertEquals(4, comparator.getCount());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPatternLongerThanText() {
+        assertEquals(new ArrayList<Integer>(), PatternMatching.swarSearch(
+                "abcd", "abc", new CharacterComparator()));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testEmptyPattern() {
+        PatternMatching.swarSearch("", "abc", new CharacterComparator());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullText() {
+        PatternMatching.swarSearch("a", null, new CharacterComparator());
+    }
+}
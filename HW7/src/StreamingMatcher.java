@@ -0,0 +1,336 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Searches streams for a pattern with KMP, a chunk at a time, so the text
+ * never has to be in memory as a whole.
+ *
+ * KMP never moves backwards in the text: all it needs to remember between
+ * one character and the next is how much of the pattern is matched so far.
+ * That count is carried from one chunk to the next, so a match that
+ * straddles a chunk boundary is found like any other, and memory stays at
+ * one fixed chunk whatever the length of the stream. The failure table is
+ * the one PatternMatching.buildFailureTable builds.
+ *
+ * Character sources such as a Reader are matched char by char. Byte
+ * sources are matched byte by byte against the pattern encoded in the
+ * charset the matcher was created with, so offsets reported for them are
+ * byte offsets.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class StreamingMatcher {
+
+    /**
+     * Number of chars or bytes read from a source at a time.
+     */
+    public static final int CHUNK = 1 << 16;
+
+    /**
+     * Number of bytes of a file mapped at a time by search(Path, ...).
+     */
+    private static final long MAP_WINDOW = 1L << 26;
+
+    private final char[] chars;
+    private final int[] charFailure;
+    private final byte[] bytes;
+    private final int[] byteFailure;
+
+    /**
+     * Receives the matches of a search as they are found.
+     */
+    public interface MatchListener {
+        /**
+         * Called for each occurrence of the pattern, in order.
+         *
+         * @param offset index in the stream where the occurrence starts, in
+         * chars for character sources and in bytes for byte sources
+         */
+        void match(long offset);
+    }
+
+    /**
+     * Creates a matcher whose byte searches look for the pattern encoded in
+     * UTF-8.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     */
+    public StreamingMatcher(CharSequence pattern) {
+        this(pattern, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a matcher.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length
+     * 0, or charset is null
+     * @param pattern the pattern to search for
+     * @param charset how the pattern is encoded in byte sources
+     */
+    public StreamingMatcher(CharSequence pattern, Charset charset) {
+        if (pattern == null || pattern.length() == 0 || charset == null) {
+            throw new IllegalArgumentException("Pattern and charset should "
+                    + "not be null!! and pattern length should be greater "
+                    + "than 0.");
+        }
+        String text = pattern.toString();
+        chars = text.toCharArray();
+        charFailure = PatternMatching.buildFailureTable(text,
+                new CharacterComparator());
+        bytes = text.getBytes(charset);
+        // Each byte read as a Latin-1 char is the char of the same value,
+        // so the byte pattern's failure table can be built as a string's.
+        byteFailure = PatternMatching.buildFailureTable(
+                new String(bytes, StandardCharsets.ISO_8859_1),
+                new CharacterComparator());
+    }
+
+    /**
+     * Searches the chars of a Reader until it is exhausted. The Reader is
+     * not closed.
+     *
+     * @throws IllegalArgumentException if in or listener is null
+     * @throws IOException if the Reader cannot be read
+     * @param in the source of the text
+     * @param listener receives the matches
+     * @return the number of chars searched
+     */
+    public long search(Reader in, MatchListener listener) throws IOException {
+        if (in == null || listener == null) {
+            throw new IllegalArgumentException("Source and listener should "
+                    + "not be null!!");
+        }
+        char[] chunk = new char[CHUNK];
+        int matched = 0;
+        long position = 0;
+        for (int read = in.read(chunk); read >= 0; read = in.read(chunk)) {
+            matched = scan(chunk, read, matched, position, listener);
+            position += read;
+        }
+        return position;
+    }
+
+    /**
+     * Searches the bytes of an InputStream until it is exhausted. The
+     * stream is not closed.
+     *
+     * @throws IllegalArgumentException if in or listener is null
+     * @throws IOException if the stream cannot be read
+     * @param in the source of the text
+     * @param listener receives the matches
+     * @return the number of bytes searched
+     */
+    public long search(InputStream in, MatchListener listener)
+        throws IOException {
+        if (in == null || listener == null) {
+            throw new IllegalArgumentException("Source and listener should "
+                    + "not be null!!");
+        }
+        byte[] chunk = new byte[CHUNK];
+        int matched = 0;
+        long position = 0;
+        for (int read = in.read(chunk); read >= 0; read = in.read(chunk)) {
+            matched = scan(chunk, read, matched, position, listener);
+            position += read;
+        }
+        return position;
+    }
+
+    /**
+     * Searches the bytes of a channel until it reaches end of stream. The
+     * channel is not closed.
+     *
+     * @throws IllegalArgumentException if in or listener is null
+     * @throws IOException if the channel cannot be read
+     * @param in the source of the text
+     * @param listener receives the matches
+     * @return the number of bytes searched
+     */
+    public long search(ReadableByteChannel in, MatchListener listener)
+        throws IOException {
+        if (in == null || listener == null) {
+            throw new IllegalArgumentException("Source and listener should "
+                    + "not be null!!");
+        }
+        byte[] chunk = new byte[CHUNK];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        int matched = 0;
+        long position = 0;
+        for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+            matched = scan(chunk, read, matched, position, listener);
+            position += read;
+            buffer.clear();
+        }
+        return position;
+    }
+
+    /**
+     * Searches the remaining bytes of a buffer, such as a MappedByteBuffer.
+     * The bytes are copied out a chunk at a time, and the buffer's position
+     * is left where it was.
+     *
+     * @throws IllegalArgumentException if buffer or listener is null
+     * @param buffer the text
+     * @param listener receives the matches, with offsets counted from the
+     * buffer's position
+     * @return the number of bytes searched
+     */
+    public long search(ByteBuffer buffer, MatchListener listener) {
+        if (buffer == null || listener == null) {
+            throw new IllegalArgumentException("Source and listener should "
+                    + "not be null!!");
+        }
+        int length = buffer.remaining();
+        search(buffer.duplicate(), new byte[CHUNK], 0, 0, listener);
+        return length;
+    }
+
+    /**
+     * Searches the bytes of a file by mapping it a window at a time, so
+     * files larger than a single ByteBuffer can hold are searched too.
+     *
+     * @throws IllegalArgumentException if file or listener is null
+     * @throws IOException if the file cannot be read
+     * @param file the file to search
+     * @param listener receives the matches
+     * @return the number of bytes searched
+     */
+    public long search(Path file, MatchListener listener) throws IOException {
+        if (file == null || listener == null) {
+            throw new IllegalArgumentException("Source and listener should "
+                    + "not be null!!");
+        }
+        byte[] chunk = new byte[CHUNK];
+        int matched = 0;
+        long position = 0;
+        try (FileChannel in = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = in.size();
+            while (position < size) {
+                long length = Math.min(MAP_WINDOW, size - position);
+                ByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY,
+                        position, length);
+                matched = search(window, chunk, matched, position, listener);
+                position += length;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Searches the remaining bytes of a buffer, continuing a search that
+     * has already matched part of the pattern.
+     *
+     * @param buffer the text, whose position is advanced to its limit
+     * @param chunk where to copy the bytes to
+     * @param matched how many bytes of the pattern were matched before
+     * @param position offset in the stream of the buffer's position
+     * @param listener receives the matches
+     * @return how many bytes of the pattern are matched at the end of the
+     * buffer
+     */
+    private int search(ByteBuffer buffer, byte[] chunk, int matched,
+                       long position, MatchListener listener) {
+        while (buffer.hasRemaining()) {
+            int length = Math.min(buffer.remaining(), chunk.length);
+            buffer.get(chunk, 0, length);
+            matched = scan(chunk, length, matched, position, listener);
+            position += length;
+        }
+        return matched;
+    }
+
+    /**
+     * Runs KMP over chunk[0..length - 1].
+     *
+     * @param chunk the bytes
+     * @param length number of bytes in the chunk
+     * @param matched how many bytes of the pattern were matched before the
+     * chunk
+     * @param position offset in the stream of chunk[0]
+     * @param listener receives the matches
+     * @return how many bytes of the pattern are matched after the chunk
+     */
+    private int scan(byte[] chunk, int length, int matched, long position,
+                     MatchListener listener) {
+        int m = bytes.length;
+        byte first = bytes[0];
+        int i = 0;
+        while (i < length) {
+            if (matched == 0) {
+                // Nothing to fall back on, so skip straight to the next
+                // place the pattern could start.
+                while (i < length && chunk[i] != first) {
+                    i++;
+                }
+                if (i == length) {
+                    break;
+                }
+            }
+            byte b = chunk[i];
+            while (matched > 0 && bytes[matched] != b) {
+                matched = byteFailure[matched - 1];
+            }
+            if (bytes[matched] == b) {
+                matched++;
+            }
+            if (matched == m) {
+                listener.match(position + i - m + 1);
+                matched = byteFailure[m - 1];
+            }
+            i++;
+        }
+        return matched;
+    }
+
+    /**
+     * Runs KMP over chunk[0..length - 1].
+     *
+     * @param chunk the chars
+     * @param length number of chars in the chunk
+     * @param matched how many chars of the pattern were matched before the
+     * chunk
+     * @param position offset in the stream of chunk[0]
+     * @param listener receives the matches
+     * @return how many chars of the pattern are matched after the chunk
+     */
+    private int scan(char[] chunk, int length, int matched, long position,
+                     MatchListener listener) {
+        int m = chars.length;
+        char first = chars[0];
+        int i = 0;
+        while (i < length) {
+            if (matched == 0) {
+                while (i < length && chunk[i] != first) {
+                    i++;
+                }
+                if (i == length) {
+                    break;
+                }
+            }
+            char c = chunk[i];
+            while (matched > 0 && chars[matched] != c) {
+                matched = charFailure[matched - 1];
+            }
+            if (chars[matched] == c) {
+                matched++;
+            }
+            if (matched == m) {
+                listener.match(position + i - m + 1);
+                matched = charFailure[m - 1];
+            }
+            i++;
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,160 @@
+import com.sun.management.ThreadMXBean;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Measures the throughput of StreamingMatcher on a file read through each
+ * kind of source, and the bytes each search allocates, which stay the same
+ * however large the file is.
+ *
+ * Run with {@code java StreamingMatcherBenchmark [megabytes]}.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class StreamingMatcherBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 3;
+    private static final String[] WORDS = {"INFO", "WARN", "DEBUG",
+        "request", "served", "in", "ms", "user", "session", "opened",
+        "closed", "cache", "miss", "hit", "timeout", "retrying"};
+    private static final String PATTERN = "ERROR disk full";
+    private static volatile long sink;
+
+    /**
+     * A search of the file through one kind of source.
+     */
+    private interface Search {
+        /**
+         * Searches the file.
+         *
+         * @param matcher the matcher to use
+         * @param file the file
+         * @return the number of matches
+         * @throws IOException if the file cannot be read
+         */
+        long run(StreamingMatcher matcher, Path file) throws IOException;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional size of the file in megabytes, default 64
+     * @throws IOException if the temporary file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        long megabytes = args.length > 0 ? Long.parseLong(args[0]) : 64;
+        Path file = Files.createTempFile("streamingmatcher", ".log");
+        try {
+            write(file, megabytes << 20);
+            StreamingMatcher matcher = new StreamingMatcher(PATTERN);
+            System.out.println(megabytes + " MB, pattern \"" + PATTERN
+                    + "\"");
+            time("InputStream", matcher, file, (m, f) -> {
+                try (InputStream in = Files.newInputStream(f)) {
+                    long[] matches = new long[1];
+                    m.search(in, offset -> matches[0]++);
+                    return matches[0];
+                }
+            });
+            time("channel", matcher, file, (m, f) -> {
+                try (FileChannel in = FileChannel.open(f,
+                        StandardOpenOption.READ)) {
+                    long[] matches = new long[1];
+                    m.search(in, offset -> matches[0]++);
+                    return matches[0];
+                }
+            });
+            time("mapped", matcher, file, (m, f) -> {
+                long[] matches = new long[1];
+                m.search(f, offset -> matches[0]++);
+                return matches[0];
+            });
+            time("Reader", matcher, file, (m, f) -> {
+                try (Reader in = Files.newBufferedReader(f,
+                        StandardCharsets.UTF_8)) {
+                    long[] matches = new long[1];
+                    m.search(in, offset -> matches[0]++);
+                    return matches[0];
+                }
+            });
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Writes a log-like file with the pattern on about one line in a
+     * thousand.
+     *
+     * @param file the file to write
+     * @param size the size of the file in bytes
+     * @throws IOException if the file cannot be written
+     */
+    private static void write(Path file, long size) throws IOException {
+        Random random = new Random(42);
+        StringBuilder line = new StringBuilder();
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            while (written < size) {
+                line.setLength(0);
+                line.append(random.nextInt(1000) == 0 ? PATTERN
+                        : WORDS[random.nextInt(3)]);
+                for (int i = 0; i < 8; i++) {
+                    line.append(' ')
+                            .append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                line.append('\n');
+                byte[] bytes = line.toString().getBytes(
+                        StandardCharsets.UTF_8);
+                out.write(bytes);
+                written += bytes.length;
+            }
+        }
+    }
+
+    /**
+     * Runs a search a few times and prints the throughput of the fastest
+     * run and the bytes it allocated.
+     *
+     * @param label name of the source
+     * @param matcher the matcher
+     * @param file the file
+     * @param search the search
+     * @throws IOException if the file cannot be read
+     */
+    private static void time(String label, StreamingMatcher matcher,
+                             Path file, Search search) throws IOException {
+        ThreadMXBean threads =
+                (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        double best = Double.MAX_VALUE;
+        long allocated = 0;
+        long matches = 0;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(id);
+            long start = System.nanoTime();
+            matches = search.run(matcher, file);
+            long elapsed = System.nanoTime() - start;
+            allocated = threads.getThreadAllocatedBytes(id) - before;
+            sink += matches;
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed / 1e9);
+            }
+        }
+        System.out.printf("  %-11s %8.1f MB/s %8d matches %10d bytes "
+                + "allocated%n", label, Files.size(file) / best / (1 << 20),
+                matches, allocated);
+    }
+}
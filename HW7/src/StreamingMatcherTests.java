@@ -0,0 +1,186 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for StreamingMatcher.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+public class StreamingMatcherTests {
+
+    private static final int TIMEOUT = 2000;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("streamingmatcher", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Converts a list of ints to a list of longs.
+     *
+     * @param ints the ints
+     * @return the same values as longs
+     */
+    private static List<Long> toLongs(List<Integer> ints) {
+        List<Long> longs = new ArrayList<>();
+        for (int i : ints) {
+            longs.add((long) i);
+        }
+        return longs;
+    }
+
+    /**
+     * A Reader that returns at most a few chars per read, so that matches
+     * straddle the reads.
+     */
+    private static final class TrickleReader extends Reader {
+        private final String text;
+        private final Random random;
+        private int position;
+
+        /**
+         * Creates a reader of a string.
+         *
+         * @param text the string to read
+         * @param random picks the length of each read
+         */
+        private TrickleReader(String text, Random random) {
+            this.text = text;
+            this.random = random;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + random.nextInt(3)),
+                    text.length() - position);
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testReaderAgreesWithKmp() throws IOException {
+        Random random = new Random(42);
+        for (int round = 0; round < 300; round++) {
+            String text = TestStrings.random(random, "ab", 100);
+            String pattern = TestStrings.random(random, "ab",
+                    1 + random.nextInt(6));
+            List<Long> found = new ArrayList<>();
+            long read = new StreamingMatcher(pattern).search(
+                    new TrickleReader(text, random), found::add);
+            assertEquals(toLongs(PatternMatching.kmp(pattern, text,
+                    new CharacterComparator())), found);
+            assertEquals(text.length(), read);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testByteSourcesAcrossChunks() throws IOException {
+        Random random = new Random(7);
+        String text = TestStrings.random(random, "ab",
+                3 * StreamingMatcher.CHUNK + 17);
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        Files.write(file, bytes);
+        String pattern = "abbabaab";
+        List<Long> expected = toLongs(PatternMatching.kmp(pattern, text,
+                new CharacterComparator()));
+        StreamingMatcher matcher = new StreamingMatcher(pattern);
+
+        List<Long> found = new ArrayList<>();
+        assertEquals(bytes.length, matcher.search(
+                new ByteArrayInputStream(bytes), found::add));
+        assertEquals(expected, found);
+
+        found.clear();
+        assertEquals(bytes.length, matcher.search(Channels.newChannel(
+                new ByteArrayInputStream(bytes)), found::add));
+        assertEquals(expected, found);
+
+        found.clear();
+        assertEquals(bytes.length, matcher.search(file, found::add));
+        assertEquals(expected, found);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testByteBufferKeepsPosition() {
+        ByteBuffer buffer = ByteBuffer.wrap("xxabcabc".getBytes(
+                StandardCharsets.US_ASCII));
+        buffer.position(2);
+        List<Long> found = new ArrayList<>();
+        assertEquals(6, new StreamingMatcher("abc").search(buffer,
+                found::add));
+        assertEquals(Arrays.asList(0L, 3L), found);
+        assertEquals(2, buffer.position());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEncodedPattern() throws IOException {
+        // The accented e is two bytes in UTF-8, so byte offsets run ahead
+        // of char offsets after it.
+        String text = "caf\u00e9 au caf\u00e9";
+        List<Long> found = new ArrayList<>();
+        new StreamingMatcher("caf\u00e9").search(new ByteArrayInputStream(
+                text.getBytes(StandardCharsets.UTF_8)), found::add);
+        assertEquals(Arrays.asList(0L, 9L), found);
+        found.clear();
+        new StreamingMatcher("caf\u00e9").search(new StringReader(text),
+                found::add);
+        assertEquals(Arrays.asList(0L, 8L), found);
+        found.clear();
+        new StreamingMatcher("caf\u00e9", StandardCharsets.ISO_8859_1)
+                .search(new ByteArrayInputStream(
+                        text.getBytes(StandardCharsets.ISO_8859_1)),
+                        found::add);
+        assertEquals(Arrays.asList(0L, 8L), found);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEmptyFile() throws IOException {
+        List<Long> found = new ArrayList<>();
+        assertEquals(0, new StreamingMatcher("a").search(file, found::add));
+        assertEquals(new ArrayList<Long>(), found);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testEmptyPattern() {
+        new StreamingMatcher("");
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullListener() throws IOException {
+        new StreamingMatcher("a").search(new StringReader("a"), null);
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.Random;
+
+/**
+ * Random text shared by the pattern matching tests.
+ *
+ * @author Dasom Eom
+ * @version 1.0
+ */
+final class TestStrings {
+
+    /**
+     * Not instantiable.
+     */
+    private TestStrings() {
+    }
+
+    /**
+     * Makes a random string over the given characters. Small alphabets make
+     * for many overlapping and partial matches.
+     *
+     * @param random the source of randomness
+     * @param alphabet the characters to use
+     * @param length the length of the string
+     * @return the string
+     */
+    static String random(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}